@@ -0,0 +1,88 @@
+package com.vinskao.ty_multiverse_consumer;
+
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基準測試共用的固定資料
+ *
+ * 角色與武器的屬性從固定清單輪流取值，約三分之一的武器與擁有者的屬性相符，
+ * 讓加成與狀態兩層裝飾器都有實際計算
+ */
+public final class BenchmarkFixtures {
+
+    private static final String[] ATTRIBUTES = {"火", "水", "風", "土", "光", "暗"};
+    private static final String[] STATES = {"燃燒", "冰凍", "麻痺", "中毒"};
+
+    private BenchmarkFixtures() {
+    }
+
+    public static People person(int index) {
+        People person = new People();
+        person.setName("Person-" + index);
+        person.setNameOriginal("Person Original " + index);
+        person.setCodeName("P" + index);
+        person.setPhysicPower(100 + index % 50);
+        person.setMagicPower(200 + index % 70);
+        person.setUtilityPower(50 + index % 30);
+        person.setDob("1994-11-12");
+        person.setRace("Human");
+        person.setAttributes(ATTRIBUTES[index % ATTRIBUTES.length]);
+        person.setStateAttributes(STATES[index % STATES.length]);
+        person.setGender("F");
+        person.setHeightCm(165);
+        person.setWeightKg(55);
+        person.setProfession("Knight");
+        person.setCombat("melee");
+        person.setJob("Guard");
+        person.setFaction("Lily Palais");
+        person.setPersonality("calm and patient, rarely speaks first");
+        person.setLikes("tea, quiet evenings");
+        person.setDislikes("crowds");
+        person.setEmail("person" + index + "@example.com");
+        person.setAge(20 + index % 40);
+        person.setVersion(1L);
+        return person;
+    }
+
+    public static List<People> people(int count) {
+        List<People> people = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            people.add(person(i));
+        }
+        return people;
+    }
+
+    public static PeopleCombatProfile combatProfile(People person) {
+        PeopleCombatProfile profile = new PeopleCombatProfile();
+        profile.setName(person.getName());
+        profile.setPhysicPower(person.getPhysicPower());
+        profile.setMagicPower(person.getMagicPower());
+        profile.setUtilityPower(person.getUtilityPower());
+        profile.setAttributes(person.getAttributes());
+        profile.setStateAttributes(person.getStateAttributes());
+        profile.setVersion(person.getVersion());
+        return profile;
+    }
+
+    public static List<Weapon> weapons(String owner, int count) {
+        List<Weapon> weapons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Weapon weapon = new Weapon();
+            weapon.setName(owner + "-Weapon-" + i);
+            weapon.setOwner(owner);
+            weapon.setAttributes(ATTRIBUTES[i % ATTRIBUTES.length]);
+            weapon.setBaseDamage(100 + i * 7 % 300);
+            weapon.setBonusDamage(20 + i % 40);
+            weapon.setBonusAttributes(List.of(ATTRIBUTES[i % ATTRIBUTES.length], ATTRIBUTES[(i + 2) % ATTRIBUTES.length]));
+            weapon.setStateAttributes(List.of(STATES[i % STATES.length]));
+            weapon.setVersion(1L);
+            weapons.add(weapon);
+        }
+        return weapons;
+    }
+}
@@ -0,0 +1,99 @@
+package com.vinskao.ty_multiverse_consumer.core.dto;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Delivery;
+import com.rabbitmq.client.Envelope;
+import com.vinskao.ty_multiverse_consumer.BenchmarkFixtures;
+import com.vinskao.ty_multiverse_consumer.core.util.AsyncMessageStreamReader;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消息編解碼：AsyncMessageDTO / People 反序列化與 AsyncResultMessage 序列化
+ *
+ * <p>ObjectMapper 以 Spring Boot 相同的 {@link Jackson2ObjectMapperBuilder} 建立。
+ * readMessageAsPeople 對應 ReactiveConsumerRegistry 先解碼再 convertValue 成處理器型別的路徑；
+ * writeRawResult 對應快取命中時以 {@link RawJson} 嵌入已序列化資料的路徑。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AsyncMessageCodecBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int peopleCount;
+
+    private ObjectMapper objectMapper;
+    private AsyncMessageStreamReader streamReader;
+    private JavaType peopleListType;
+    private Delivery delivery;
+    private byte[] peopleJson;
+    private List<People> people;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        streamReader = new AsyncMessageStreamReader(objectMapper);
+        peopleListType = objectMapper.getTypeFactory().constructCollectionType(List.class, People.class);
+        people = BenchmarkFixtures.people(peopleCount);
+        peopleJson = objectMapper.writeValueAsBytes(people);
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("requestId", "8f14e45f-ceea-467a-9575-3c4d8b1a2e10");
+        message.put("endpoint", "/people/insert-multiple");
+        message.put("method", "POST");
+        message.put("payload", people);
+        message.put("timestamp", System.currentTimeMillis());
+        message.put("source", "producer");
+        byte[] body = objectMapper.writeValueAsBytes(message);
+        delivery = new Delivery(new Envelope(1L, false, "", "people-insert-multiple"),
+                new AMQP.BasicProperties.Builder().contentType("application/json").build(), body);
+    }
+
+    @Benchmark
+    public AsyncMessageDTO readMessage() throws IOException {
+        return streamReader.readMessage(delivery, AsyncMessageDTO.class);
+    }
+
+    @Benchmark
+    public List<People> readMessageAsPeople() throws IOException {
+        AsyncMessageDTO message = streamReader.readMessage(delivery, AsyncMessageDTO.class);
+        return objectMapper.convertValue(message.getPayload(), peopleListType);
+    }
+
+    @Benchmark
+    public AsyncMessageHeader readHeader() throws IOException {
+        return streamReader.readHeader(delivery.getBody());
+    }
+
+    @Benchmark
+    public List<People> readPeople() throws IOException {
+        return objectMapper.readValue(peopleJson, peopleListType);
+    }
+
+    @Benchmark
+    public byte[] writeResult() throws IOException {
+        return objectMapper.writeValueAsBytes(AsyncResultMessage.completed("request", people));
+    }
+
+    @Benchmark
+    public byte[] writeRawResult() throws IOException {
+        return objectMapper.writeValueAsBytes(AsyncResultMessage.completed("request", RawJson.of(peopleJson)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinskao.ty_multiverse_consumer.BenchmarkFixtures;
+import com.vinskao.ty_multiverse_consumer.core.dto.RawJson;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * ResourceCacheManager 寫入快取時的編碼成本（只啟用 L1，不連 Redis）
+ *
+ * <ul>
+ * <li>putCache：物件序列化成 UTF-8 位元組後寫入 L1</li>
+ * <li>putCacheRaw：同上，另回傳可直接嵌入結果消息的 {@link RawJson}</li>
+ * <li>putCacheString：已是 JSON 字串時只做 UTF-8 編碼</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResourceCacheManagerBenchmark {
+
+    private static final String KEY = "people:getAll";
+    private static final Duration TTL = Duration.ofSeconds(60);
+
+    @Param({"1", "100", "1000"})
+    private int peopleCount;
+
+    private ResourceCacheManager cacheManager;
+    private List<People> people;
+    private String peopleJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cacheManager = new ResourceCacheManager();
+        ReflectionTestUtils.setField(cacheManager, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(cacheManager, "invalidationBus", mock(CacheInvalidationBus.class));
+        ReflectionTestUtils.setField(cacheManager, "l1Enabled", true);
+        ReflectionTestUtils.setField(cacheManager, "l1MaxWeightBytes", 32L * 1024 * 1024);
+        ReflectionTestUtils.setField(cacheManager, "l1Ttl", Duration.ofSeconds(30));
+        cacheManager.initL1Cache();
+
+        people = BenchmarkFixtures.people(peopleCount);
+        peopleJson = objectMapper.writeValueAsString(people);
+    }
+
+    @Benchmark
+    public void putCache() {
+        cacheManager.putCache(KEY, people, TTL).block();
+    }
+
+    @Benchmark
+    public RawJson putCacheRaw() {
+        return cacheManager.putCacheRaw(KEY, people, TTL).block();
+    }
+
+    @Benchmark
+    public void putCacheString() {
+        cacheManager.putCache(KEY, peopleJson, TTL).block();
+    }
+}
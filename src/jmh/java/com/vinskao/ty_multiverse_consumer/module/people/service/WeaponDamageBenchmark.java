@@ -0,0 +1,88 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.vinskao.ty_multiverse_consumer.BenchmarkFixtures;
+import com.vinskao.ty_multiverse_consumer.core.service.CacheInvalidationBus;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import com.vinskao.ty_multiverse_consumer.module.people.service.strategy.CompiledDamageEngine;
+import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
+import com.vinskao.ty_multiverse_consumer.module.weapon.service.WeaponService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * WeaponDamageService 批量傷害計算（查詢結果以 stub 直接回傳，只量測彙總與排序）
+ *
+ * <p>indexed=true 時武器取自以 {@link WeaponAggregateIndex#loadOnStartup} 載入的索引；false 時走依 owner 批量查詢後
+ * 分組編譯的退回路徑。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WeaponDamageBenchmark {
+
+    private static final int WEAPONS_PER_PERSON = 3;
+
+    @Param({"10", "100", "1000"})
+    private int peopleCount;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private WeaponDamageService damageService;
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        List<People> people = BenchmarkFixtures.people(peopleCount);
+        List<PeopleCombatProfile> profiles = new ArrayList<>(peopleCount);
+        List<Weapon> weapons = new ArrayList<>(peopleCount * WEAPONS_PER_PERSON);
+        names = new ArrayList<>(peopleCount);
+        for (People person : people) {
+            profiles.add(BenchmarkFixtures.combatProfile(person));
+            weapons.addAll(BenchmarkFixtures.weapons(person.getName(), WEAPONS_PER_PERSON));
+            names.add(person.getName());
+        }
+
+        PeopleService peopleService = mock(PeopleService.class);
+        when(peopleService.findCombatProfilesByNames(anyList())).thenAnswer(invocation -> Flux.fromIterable(profiles));
+        WeaponService weaponService = mock(WeaponService.class);
+        when(weaponService.getWeaponsByOwners(anyList())).thenAnswer(invocation -> Flux.fromIterable(weapons));
+        when(weaponService.getAllWeapons()).thenAnswer(invocation -> Flux.fromIterable(weapons));
+        CacheInvalidationBus invalidationBus = mock(CacheInvalidationBus.class);
+
+        CompiledDamageEngine damageEngine = new CompiledDamageEngine();
+        WeaponAggregateIndex weaponIndex = new WeaponAggregateIndex(weaponService, damageEngine, invalidationBus);
+        if (indexed) {
+            // 走與啟動時相同的整表載入
+            weaponIndex.loadOnStartup();
+            if (!weaponIndex.isLoaded()) {
+                throw new IllegalStateException("武器索引未載入");
+            }
+        }
+        damageService = new WeaponDamageService(weaponService, peopleService, damageEngine, weaponIndex,
+                invalidationBus, 10_000, Duration.ofMinutes(10));
+    }
+
+    @Benchmark
+    public Map<String, Object> calculateBatchDamage() {
+        return damageService.calculateBatchDamageWithWeapon(names).block();
+    }
+}
@@ -0,0 +1,64 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service.strategy;
+
+import com.vinskao.ty_multiverse_consumer.BenchmarkFixtures;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 單一角色的傷害計算
+ *
+ * <ul>
+ * <li>decoratorChain：StateEffect → BonusAttribute → Default 裝飾器鏈（參考實作）</li>
+ * <li>compileAndEvaluate：CompiledDamageEngine 每次重新編譯武器清單</li>
+ * <li>evaluateCompiled：使用預先編譯的武器組合（WeaponAggregateIndex 已載入時的路徑）</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DamageStrategyBenchmark {
+
+    @Param({"0", "4", "32", "256"})
+    private int weaponCount;
+
+    private People person;
+    private List<Weapon> weapons;
+    private DamageStrategy decoratorChain;
+    private CompiledDamageEngine engine;
+    private CompiledWeaponSet compiled;
+
+    @Setup
+    public void setUp() {
+        person = BenchmarkFixtures.person(0);
+        weapons = BenchmarkFixtures.weapons(person.getName(), weaponCount);
+        decoratorChain = new StateEffectDamageDecorator(new BonusAttributeDamageDecorator(new DefaultDamageStrategy()));
+        engine = new CompiledDamageEngine();
+        compiled = engine.compile(weapons);
+    }
+
+    @Benchmark
+    public int decoratorChain() {
+        return decoratorChain.calculateDamage(person, weapons);
+    }
+
+    @Benchmark
+    public int compileAndEvaluate() {
+        return engine.calculateDamage(person, weapons);
+    }
+
+    @Benchmark
+    public int evaluateCompiled() {
+        return engine.evaluate(person, compiled);
+    }
+}
@@ -0,0 +1,62 @@
+package com.vinskao.ty_multiverse_consumer.loadtest;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 進程內 AMQP 0-9-1 broker（Qpid Broker-J，記憶體儲存）
+ *
+ * <p>RabbitMQConfig 的隊列都帶 {@code x-message-ttl} 參數，Qpid 不認得，設定為忽略未知的宣告參數；
+ * 壓測期間消息不會等到 TTL，行為上沒有差別。</p>
+ */
+public class EmbeddedAmqpBroker implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedAmqpBroker.class);
+
+    private static final String INITIAL_CONFIG = "/loadtest/qpid-config.json";
+
+    private final SystemLauncher launcher = new SystemLauncher();
+    private final int port;
+
+    public EmbeddedAmqpBroker(int port) {
+        this.port = port;
+    }
+
+    public void start(String username, String password) throws Exception {
+        URL config = EmbeddedAmqpBroker.class.getResource(INITIAL_CONFIG);
+        if (config == null) {
+            throw new IllegalStateException("找不到 Qpid 初始設定: " + INITIAL_CONFIG);
+        }
+
+        Map<String, String> context = new HashMap<>();
+        context.put("loadtest.amqp.port", String.valueOf(port));
+        context.put("loadtest.amqp.username", username);
+        context.put("loadtest.amqp.password", password);
+        context.put("queue.behaviourOnUnknownDeclareArgument", "IGNORE");
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION, config.toExternalForm());
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, context);
+
+        launcher.startup(attributes);
+        logger.info("✅ 內嵌 AMQP broker 已啟動: port={}", port);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    @Override
+    public void close() {
+        launcher.shutdown();
+        logger.info("🛑 內嵌 AMQP broker 已關閉");
+    }
+}
@@ -0,0 +1,315 @@
+package com.vinskao.ty_multiverse_consumer.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.ConnectionFactory;
+import com.rabbitmq.client.MessageProperties;
+import com.vinskao.ty_multiverse_consumer.config.RabbitMQConfig;
+import com.vinskao.ty_multiverse_consumer.core.service.ConnectionPoolMonitor;
+import com.vinskao.ty_multiverse_consumer.loadtest.LoadScenarios.Scenario;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 壓測驅動：依權重以固定速率發送請求，從 async-result 隊列收回結果並量測延遲
+ *
+ * <p>延遲從送出消息到收到該 requestId 的最後一段結果（分段結果以 {@code lastChunk} 判斷），
+ * 與 Producer 端看到的時間一致。同時尚未收到結果的請求數以 {@code maxInFlight} 為上限，
+ * 消費端跟不上時會降低實際速率，而不是無限堆積在 broker。暖機期間的請求不計入統計。</p>
+ *
+ * <p>每 500ms 取樣一次 R2DBC 連線池與各隊列的 in-flight / 並發上限 gauge，作為飽和度指標。</p>
+ */
+public class LoadDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 500;
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final ConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+    private final LoadTestSettings settings;
+    private final Map<Scenario, Integer> mix;
+    private final ConnectionPoolMonitor poolMonitor;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, QueueStats> stats = new LinkedHashMap<>();
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final PoolStats poolStats = new PoolStats();
+    private final Semaphore inFlight;
+    private volatile boolean measuring;
+
+    public LoadDriver(ConnectionFactory connectionFactory, ObjectMapper objectMapper, LoadTestSettings settings,
+            Map<Scenario, Integer> mix, ConnectionPoolMonitor poolMonitor, MeterRegistry meterRegistry) {
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+        this.settings = settings;
+        this.mix = mix;
+        this.poolMonitor = poolMonitor;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(settings.maxInFlight());
+        mix.keySet().forEach(scenario -> stats.put(scenario.queue(), new QueueStats(scenario.queue())));
+    }
+
+    public LoadTestReport run() throws Exception {
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "loadtest-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (Connection connection = connectionFactory.newConnection("loadtest-driver")) {
+            Channel resultChannel = connection.createChannel();
+            resultChannel.basicConsume(RabbitMQConfig.ASYNC_RESULT_QUEUE, true,
+                    (consumerTag, delivery) -> onResult(delivery.getBody()), consumerTag -> { });
+            Channel publishChannel = connection.createChannel();
+
+            logger.info("🔥 暖機 {}，之後量測 {}（目標 {} msg/s，in-flight 上限 {}）",
+                    settings.warmup(), settings.duration(), settings.rate(), settings.maxInFlight());
+            publish(publishChannel, settings.warmup().toNanos());
+
+            measuring = true;
+            sampler.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            long measureStart = System.nanoTime();
+            publish(publishChannel, settings.duration().toNanos());
+            long measureNanos = System.nanoTime() - measureStart;
+
+            drain();
+            sampler.shutdownNow();
+            measuring = false;
+            return report(measureNanos);
+        } finally {
+            sampler.shutdownNow();
+        }
+    }
+
+    /**
+     * 以固定間隔發送，落後時不補發，避免在 in-flight 釋放後瞬間爆量
+     */
+    private void publish(Channel channel, long durationNanos) throws Exception {
+        Scenario[] wheel = buildWheel();
+        long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, settings.rate());
+        long end = System.nanoTime() + durationNanos;
+        long next = System.nanoTime();
+
+        while (next < end) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long remaining = end - System.nanoTime();
+            if (remaining <= 0 || !inFlight.tryAcquire(remaining, TimeUnit.NANOSECONDS)) {
+                break;
+            }
+
+            Scenario scenario = wheel[ThreadLocalRandom.current().nextInt(wheel.length)];
+            send(channel, scenario);
+            next = Math.max(next + interval, System.nanoTime() - interval);
+        }
+    }
+
+    private void send(Channel channel, Scenario scenario) throws Exception {
+        String requestId = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("requestId", requestId);
+        message.put("endpoint", scenario.endpoint());
+        message.put("method", "POST");
+        message.put("payload", scenario.payloadFactory().next());
+        message.put("timestamp", now);
+        message.put("source", "loadtest");
+        byte[] body = objectMapper.writeValueAsBytes(message);
+
+        AMQP.BasicProperties properties = MessageProperties.PERSISTENT_BASIC.builder()
+                .contentType("application/json")
+                .messageId(requestId)
+                .timestamp(new Date(now))
+                .build();
+
+        QueueStats queueStats = stats.get(scenario.queue());
+        pending.put(requestId, new Pending(queueStats, System.nanoTime(), measuring));
+        if (measuring) {
+            queueStats.sent.incrementAndGet();
+        }
+        channel.basicPublish(RabbitMQConfig.MAIN_EXCHANGE, scenario.routingKey(), properties, body);
+    }
+
+    private void onResult(byte[] body) {
+        JsonNode result;
+        try {
+            result = objectMapper.readTree(body);
+        } catch (Exception e) {
+            logger.warn("⚠️ 無法解析結果消息: {}", e.getMessage());
+            return;
+        }
+
+        JsonNode lastChunk = result.get("lastChunk");
+        if (lastChunk != null && !lastChunk.isNull() && !lastChunk.asBoolean()) {
+            return;
+        }
+        Pending request = pending.remove(result.path("requestId").asText());
+        if (request == null) {
+            return;
+        }
+        inFlight.release();
+        if (request.measured()) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - request.startNanos());
+            request.stats().record(micros, "failed".equals(result.path("status").asText()));
+        }
+    }
+
+    /**
+     * 停止發送後等待尚未回覆的請求，逾時仍未回覆的計為 timed out
+     */
+    private void drain() {
+        long deadline = System.nanoTime() + settings.drainTimeout().toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+        }
+        for (Pending request : pending.values()) {
+            if (request.measured()) {
+                request.stats().timedOut.incrementAndGet();
+            }
+        }
+        if (!pending.isEmpty()) {
+            logger.warn("⚠️ {} 個請求在 {} 內沒有收到結果", pending.size(), settings.drainTimeout());
+        }
+        pending.clear();
+    }
+
+    private void sample() {
+        try {
+            ConnectionPoolMonitor.PoolSnapshot snapshot = poolMonitor.snapshot();
+            if (snapshot != null) {
+                poolStats.record(snapshot);
+            }
+            for (QueueStats queueStats : stats.values()) {
+                queueStats.sampleGauges(meterRegistry);
+            }
+        } catch (RuntimeException e) {
+            logger.debug("取樣失敗: {}", e.getMessage());
+        }
+    }
+
+    private Scenario[] buildWheel() {
+        List<Scenario> wheel = new ArrayList<>();
+        mix.forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(scenario);
+            }
+        });
+        return wheel.toArray(new Scenario[0]);
+    }
+
+    private LoadTestReport report(long measureNanos) {
+        double seconds = measureNanos / 1_000_000_000.0;
+        List<LoadTestReport.QueueResult> queues = new ArrayList<>();
+        for (QueueStats queueStats : stats.values()) {
+            queues.add(queueStats.toResult(seconds));
+        }
+        return new LoadTestReport(settings, seconds, queues, poolStats.toResult());
+    }
+
+    private record Pending(QueueStats stats, long startNanos, boolean measured) {
+    }
+
+    private static final class QueueStats {
+
+        private final String queue;
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+        private final Histogram latency = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private double maxInFlight;
+        private double maxConcurrencyLimit;
+        private double minConcurrencyLimit = Double.NaN;
+
+        private QueueStats(String queue) {
+            this.queue = queue;
+        }
+
+        private synchronized void record(long micros, boolean isFailure) {
+            latency.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+            (isFailure ? failed : completed).incrementAndGet();
+        }
+
+        private synchronized void sampleGauges(MeterRegistry registry) {
+            Gauge inFlight = registry.find("ty.consumer.in.flight").tag("queue", queue).gauge();
+            Gauge limit = registry.find("ty.consumer.concurrency.limit").tag("queue", queue).gauge();
+            if (inFlight != null) {
+                maxInFlight = Math.max(maxInFlight, inFlight.value());
+            }
+            if (limit != null) {
+                maxConcurrencyLimit = Math.max(maxConcurrencyLimit, limit.value());
+                minConcurrencyLimit = Double.isNaN(minConcurrencyLimit)
+                        ? limit.value() : Math.min(minConcurrencyLimit, limit.value());
+            }
+        }
+
+        private synchronized LoadTestReport.QueueResult toResult(double seconds) {
+            long responded = completed.get() + failed.get();
+            return new LoadTestReport.QueueResult(queue, sent.get(), completed.get(), failed.get(), timedOut.get(),
+                    seconds > 0 ? responded / seconds : 0,
+                    millis(latency.getValueAtPercentile(50)),
+                    millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getMaxValue()),
+                    (int) maxInFlight,
+                    Double.isNaN(minConcurrencyLimit) ? 0 : (int) minConcurrencyLimit,
+                    (int) maxConcurrencyLimit);
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    private static final class PoolStats {
+
+        private int maxSize;
+        private int maxAcquired;
+        private int maxPending;
+        private long samples;
+        private long saturatedSamples;
+        private double acquiredSum;
+
+        private synchronized void record(ConnectionPoolMonitor.PoolSnapshot snapshot) {
+            maxSize = snapshot.maxSize();
+            maxAcquired = Math.max(maxAcquired, snapshot.acquired());
+            maxPending = Math.max(maxPending, snapshot.pending());
+            acquiredSum += snapshot.acquired();
+            samples++;
+            if (snapshot.pending() > 0 || (snapshot.maxSize() > 0 && snapshot.acquired() >= snapshot.maxSize())) {
+                saturatedSamples++;
+            }
+        }
+
+        private synchronized LoadTestReport.PoolResult toResult() {
+            return new LoadTestReport.PoolResult(maxSize, maxAcquired,
+                    samples > 0 ? acquiredSum / samples : 0, maxPending,
+                    samples > 0 ? (double) saturatedSamples / samples : 0);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.vinskao.ty_multiverse_consumer.loadtest;
+
+import com.vinskao.ty_multiverse_consumer.config.RabbitMQConfig;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 各隊列的壓測請求：路由鍵與 payload 產生方式
+ *
+ * <p>涵蓋 {@link RabbitMQConfig} 中有消費者的隊列。讀取類請求從預先寫入的資料隨機挑選，
+ * 寫入類請求使用不重複的新名稱；{@code *-delete-all} 會清空資料，只在 mix 明確指定時才送出。</p>
+ */
+public final class LoadScenarios {
+
+    /**
+     * 單一隊列的請求產生方式
+     */
+    public record Scenario(String queue, String routingKey, String endpoint, boolean destructive,
+            PayloadFactory payloadFactory) {
+    }
+
+    @FunctionalInterface
+    public interface PayloadFactory {
+        Object next();
+    }
+
+    private static final int BATCH_SIZE = 20;
+    private static final int WEAPON_BATCH_SIZE = 10;
+
+    private final int people;
+    private final int weaponsPerPerson;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Scenario> scenarios = new LinkedHashMap<>();
+
+    public LoadScenarios(int people, int weaponsPerPerson) {
+        this.people = people;
+        this.weaponsPerPerson = weaponsPerPerson;
+
+        read(RabbitMQConfig.PEOPLE_GET_ALL_QUEUE, RabbitMQConfig.PEOPLE_GET_ALL_ROUTING_KEY, "/people/get-all",
+                () -> null);
+        read(RabbitMQConfig.PEOPLE_GET_NAMES_QUEUE, RabbitMQConfig.PEOPLE_GET_NAMES_ROUTING_KEY, "/people/names",
+                () -> null);
+        read(RabbitMQConfig.PEOPLE_GET_BY_NAME_QUEUE, RabbitMQConfig.PEOPLE_GET_BY_NAME_ROUTING_KEY, "/people/get-by-name",
+                this::randomPerson);
+        read(RabbitMQConfig.PEOPLE_DAMAGE_CALCULATION_QUEUE, RabbitMQConfig.PEOPLE_DAMAGE_CALCULATION_ROUTING_KEY,
+                "/people/damageWithWeapon", this::randomPerson);
+        read(RabbitMQConfig.PEOPLE_BATCH_DAMAGE_QUEUE, RabbitMQConfig.PEOPLE_BATCH_DAMAGE_ROUTING_KEY,
+                "/people/damageWithWeapon/batch", () -> randomPeople(BATCH_SIZE));
+        write(RabbitMQConfig.PEOPLE_INSERT_QUEUE, RabbitMQConfig.PEOPLE_INSERT_ROUTING_KEY, "/people/insert",
+                () -> newPerson());
+        write(RabbitMQConfig.PEOPLE_UPDATE_QUEUE, RabbitMQConfig.PEOPLE_UPDATE_ROUTING_KEY, "/people/update",
+                this::updatedPerson);
+        write(RabbitMQConfig.PEOPLE_INSERT_MULTIPLE_QUEUE, RabbitMQConfig.PEOPLE_INSERT_MULTIPLE_ROUTING_KEY,
+                "/people/insert-multiple", () -> newPeople(BATCH_SIZE));
+        destructive(RabbitMQConfig.PEOPLE_DELETE_ALL_QUEUE, RabbitMQConfig.PEOPLE_DELETE_ALL_ROUTING_KEY,
+                "/people/delete-all");
+
+        read(RabbitMQConfig.WEAPON_GET_ALL_QUEUE, RabbitMQConfig.WEAPON_GET_ALL_ROUTING_KEY, "/weapons",
+                () -> null);
+        read(RabbitMQConfig.WEAPON_GET_BY_NAME_QUEUE, RabbitMQConfig.WEAPON_GET_BY_NAME_ROUTING_KEY, "/weapons/name",
+                this::randomWeapon);
+        read(RabbitMQConfig.WEAPON_GET_BY_OWNER_QUEUE, RabbitMQConfig.WEAPON_GET_BY_OWNER_ROUTING_KEY, "/weapons/owner",
+                this::randomPerson);
+        read(RabbitMQConfig.WEAPON_EXISTS_QUEUE, RabbitMQConfig.WEAPON_EXISTS_ROUTING_KEY, "/weapons/exists",
+                this::randomWeapon);
+        write(RabbitMQConfig.WEAPON_SAVE_QUEUE, RabbitMQConfig.WEAPON_SAVE_ROUTING_KEY, "/weapons/save",
+                this::newWeapon);
+        write(RabbitMQConfig.WEAPON_INSERT_MULTIPLE_QUEUE, RabbitMQConfig.WEAPON_INSERT_MULTIPLE_ROUTING_KEY,
+                "/weapons/insert-multiple", () -> newWeapons(WEAPON_BATCH_SIZE));
+        write(RabbitMQConfig.WEAPON_DELETE_QUEUE, RabbitMQConfig.WEAPON_DELETE_ROUTING_KEY, "/weapons/delete",
+                () -> "LoadTest-Deleted-" + sequence.incrementAndGet());
+        destructive(RabbitMQConfig.WEAPON_DELETE_ALL_QUEUE, RabbitMQConfig.WEAPON_DELETE_ALL_ROUTING_KEY,
+                "/weapons/delete-all");
+    }
+
+    public Scenario get(String queue) {
+        Scenario scenario = scenarios.get(queue);
+        if (scenario == null) {
+            throw new IllegalArgumentException("不支援的壓測隊列: " + queue + "，可用: " + scenarios.keySet());
+        }
+        return scenario;
+    }
+
+    /**
+     * 解析 mix 字串為（情境, 權重）；{@code all} 為所有非破壞性情境各權重 1
+     */
+    public Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new LinkedHashMap<>();
+        if ("all".equalsIgnoreCase(mix.trim())) {
+            scenarios.values().stream()
+                    .filter(scenario -> !scenario.destructive())
+                    .forEach(scenario -> weights.put(scenario, 1));
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(get(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix 沒有任何權重大於 0 的隊列: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * RabbitMQConfig 中宣告、但沒有壓測情境（沒有消費者）的隊列
+     */
+    public List<String> uncoveredQueues() {
+        Set<String> replyQueues = Set.of(RabbitMQConfig.ASYNC_RESULT_QUEUE);
+        List<String> uncovered = new ArrayList<>();
+        for (Field field : RabbitMQConfig.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class
+                    && field.getName().endsWith("_QUEUE")) {
+                try {
+                    String queue = (String) field.get(null);
+                    if (!scenarios.containsKey(queue) && !replyQueues.contains(queue)) {
+                        uncovered.add(queue);
+                    }
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return uncovered;
+    }
+
+    private void read(String queue, String routingKey, String endpoint, PayloadFactory payloadFactory) {
+        scenarios.put(queue, new Scenario(queue, routingKey, endpoint, false, payloadFactory));
+    }
+
+    private void write(String queue, String routingKey, String endpoint, PayloadFactory payloadFactory) {
+        scenarios.put(queue, new Scenario(queue, routingKey, endpoint, false, payloadFactory));
+    }
+
+    private void destructive(String queue, String routingKey, String endpoint) {
+        scenarios.put(queue, new Scenario(queue, routingKey, endpoint, true, () -> null));
+    }
+
+    private String randomPerson() {
+        return LoadTestData.personName(ThreadLocalRandom.current().nextInt(people));
+    }
+
+    private List<String> randomPeople(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(randomPerson());
+        }
+        return names;
+    }
+
+    private String randomWeapon() {
+        return LoadTestData.weaponName(randomPerson(), ThreadLocalRandom.current().nextInt(Math.max(1, weaponsPerPerson)));
+    }
+
+    private Map<String, Object> newPerson() {
+        long id = sequence.incrementAndGet();
+        return LoadTestData.person("LoadTest-New-" + id, (int) id);
+    }
+
+    private List<Map<String, Object>> newPeople(int count) {
+        List<Map<String, Object>> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(newPerson());
+        }
+        return batch;
+    }
+
+    private Map<String, Object> updatedPerson() {
+        int index = ThreadLocalRandom.current().nextInt(people);
+        Map<String, Object> person = LoadTestData.person(LoadTestData.personName(index), index);
+        person.put("age", 20 + ThreadLocalRandom.current().nextInt(60));
+        return person;
+    }
+
+    private Map<String, Object> newWeapon() {
+        long id = sequence.incrementAndGet();
+        return LoadTestData.weapon("LoadTest-NewWeapon-" + id, randomPerson(), (int) id);
+    }
+
+    private List<Map<String, Object>> newWeapons(int count) {
+        List<Map<String, Object>> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(newWeapon());
+        }
+        return batch;
+    }
+}
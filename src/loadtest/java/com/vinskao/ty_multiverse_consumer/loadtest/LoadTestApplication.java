@@ -0,0 +1,162 @@
+package com.vinskao.ty_multiverse_consumer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.ConnectionFactory;
+import com.vinskao.ty_multiverse_consumer.TyMultiverseConsumerApplication;
+import com.vinskao.ty_multiverse_consumer.core.service.ConnectionPoolMonitor;
+import com.vinskao.ty_multiverse_consumer.core.service.ConsumerStartupOrchestrator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 端對端壓測：以本機替身啟動 Consumer，並從 Producer 的角度送出消息、量測結果
+ *
+ * <ul>
+ * <li>RabbitMQ → 進程內 Qpid Broker-J（{@link EmbeddedAmqpBroker}）</li>
+ * <li>PostgreSQL → R2DBC H2（PostgreSQL 相容模式），啟動前寫入壓測資料</li>
+ * <li>Redis → embedded-redis</li>
+ * </ul>
+ *
+ * <p>以 {@code mvn -P loadtest verify} 執行，參數見 {@link LoadTestSettings}。H2 不支援
+ * {@code ON CONFLICT ... DO UPDATE}，weapon-save / weapon-insert-multiple 的 upsert 會回報失敗，
+ * 這兩個隊列的數字只反映失敗路徑。</p>
+ */
+public class LoadTestApplication {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestApplication.class);
+
+    private static final String AMQP_USERNAME = "admin";
+    private static final String AMQP_PASSWORD = "admin123";
+    private static final String R2DBC_URL = "r2dbc:h2:mem:///loadtest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;"
+            + "DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+    private static final String R2DBC_USERNAME = "sa";
+    private static final long STARTUP_TIMEOUT_SECONDS = 120;
+
+    public static void main(String[] args) {
+        int status = 0;
+        try {
+            run(LoadTestSettings.fromSystemProperties());
+        } catch (Exception e) {
+            logger.error("❌ 壓測失敗", e);
+            status = 1;
+        }
+        // Qpid 與 Lettuce 留有非 daemon 執行緒，明確結束 JVM
+        System.exit(status);
+    }
+
+    private static void run(LoadTestSettings settings) throws Exception {
+        LoadScenarios scenarios = new LoadScenarios(settings.people(), settings.weaponsPerPerson());
+        Map<LoadScenarios.Scenario, Integer> mix = scenarios.parseMix(settings.mix());
+
+        List<String> uncovered = scenarios.uncoveredQueues();
+        if (!uncovered.isEmpty()) {
+            logger.warn("⚠️ 以下隊列沒有消費者，不在壓測範圍: {}", uncovered);
+        }
+
+        int amqpPort = freePort();
+        int redisPort = freePort();
+        RedisServer redis = new RedisServer(redisPort);
+
+        // 關閉順序與啟動相反：先關應用程式，再關 broker / Redis，避免消費者在關閉途中重連
+        try (EmbeddedAmqpBroker broker = new EmbeddedAmqpBroker(amqpPort)) {
+            broker.start(AMQP_USERNAME, AMQP_PASSWORD);
+            redis.start();
+            new LoadTestSeeder(R2DBC_URL, R2DBC_USERNAME, "").seed(settings.people(), settings.weaponsPerPerson());
+
+            SpringApplication application = new SpringApplication(TyMultiverseConsumerApplication.class);
+            application.addInitializers(LoadTestApplication::declareTopologyOnStartup);
+            try (ConfigurableApplicationContext context = application.run(
+                    "--server.port=0",
+                    "--spring.r2dbc.url=" + R2DBC_URL,
+                    "--spring.r2dbc.username=" + R2DBC_USERNAME,
+                    "--spring.r2dbc.password=",
+                    "--spring.r2dbc.pool.validation-query=SELECT 1",
+                    "--spring.sql.init.mode=never",
+                    "--spring.rabbitmq.host=localhost",
+                    "--spring.rabbitmq.port=" + amqpPort,
+                    "--spring.rabbitmq.username=" + AMQP_USERNAME,
+                    "--spring.rabbitmq.password=" + AMQP_PASSWORD,
+                    "--spring.rabbitmq.virtual-host=/",
+                    "--spring.data.redis.host=localhost",
+                    "--spring.data.redis.port=" + redisPort,
+                    "--spring.data.redis.password=",
+                    "--ty.multiverse.consumer.async-result-monitor.enabled=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.vinskao.ty_multiverse_consumer=WARN",
+                    "--logging.level.io.r2dbc.h2=ERROR",
+                    "--logging.level.com.vinskao.ty_multiverse_consumer.loadtest=INFO")) {
+                awaitConsumers(context.getBean(ConsumerStartupOrchestrator.class));
+
+                ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+                LoadDriver driver = new LoadDriver(amqpConnectionFactory(amqpPort), objectMapper, settings, mix,
+                        context.getBean(ConnectionPoolMonitor.class), context.getBean(MeterRegistry.class));
+                LoadTestReport report = driver.run();
+
+                report.print(System.out);
+                report.write(objectMapper, settings.report());
+                logger.info("📝 壓測報表已寫入 {}", settings.report().toAbsolutePath());
+            }
+        } finally {
+            redis.stop();
+        }
+    }
+
+    /**
+     * 在消費者訂閱前宣告隊列、Exchange 與 Binding
+     *
+     * <p>RabbitAdmin 預設等到第一次建立 Spring AMQP 連線才宣告；正式環境的 durable 隊列早已存在，
+     * 但空的內嵌 broker 上 Reactive 消費者會先因隊列不存在而失敗。</p>
+     */
+    private static void declareTopologyOnStartup(ConfigurableApplicationContext context) {
+        context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RabbitAdmin admin) {
+                    admin.initialize();
+                }
+                return bean;
+            }
+        });
+    }
+
+    private static void awaitConsumers(ConsumerStartupOrchestrator orchestrator) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STARTUP_TIMEOUT_SECONDS);
+        while (!orchestrator.isReady()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("消費者在 " + STARTUP_TIMEOUT_SECONDS + " 秒內沒有全部訂閱完成");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+        }
+        logger.info("✅ 所有消費者已訂閱，開始壓測");
+    }
+
+    private static ConnectionFactory amqpConnectionFactory(int port) {
+        ConnectionFactory factory = new ConnectionFactory();
+        factory.setHost("localhost");
+        factory.setPort(port);
+        factory.setUsername(AMQP_USERNAME);
+        factory.setPassword(AMQP_PASSWORD);
+        factory.setVirtualHost("/");
+        return factory;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            socket.setReuseAddress(true);
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.vinskao.ty_multiverse_consumer.loadtest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 壓測資料：預先寫入的角色與武器，以及寫入類請求使用的新資料
+ *
+ * <p>以欄位名稱為 key 的 Map 表示，與 Producer 送出的 JSON 相同；屬性從固定清單輪流取值，
+ * 讓傷害計算的加成與狀態效果都有匹配。</p>
+ */
+public final class LoadTestData {
+
+    private static final String[] ATTRIBUTES = {"火", "水", "風", "土", "光", "暗"};
+    private static final String[] STATES = {"燃燒", "冰凍", "麻痺", "中毒"};
+
+    private LoadTestData() {
+    }
+
+    public static String personName(int index) {
+        return String.format("LoadTest-Person-%05d", index);
+    }
+
+    public static String weaponName(String owner, int index) {
+        return owner + "-Weapon-" + index;
+    }
+
+    public static Map<String, Object> person(String name, int index) {
+        Map<String, Object> person = new LinkedHashMap<>();
+        person.put("name", name);
+        person.put("nameOriginal", name);
+        person.put("codeName", "LT" + index);
+        person.put("physicPower", 100 + index % 50);
+        person.put("magicPower", 200 + index % 70);
+        person.put("utilityPower", 50 + index % 30);
+        person.put("dob", "1994-11-12");
+        person.put("race", "Human");
+        person.put("attributes", ATTRIBUTES[index % ATTRIBUTES.length]);
+        person.put("gender", index % 2 == 0 ? "F" : "M");
+        person.put("heightCm", 150 + index % 40);
+        person.put("weightKg", 45 + index % 40);
+        person.put("profession", "Knight");
+        person.put("combat", "melee");
+        person.put("job", "Guard");
+        person.put("faction", "Lily Palais");
+        person.put("personality", "calm and patient, rarely speaks first");
+        person.put("likes", "tea, quiet evenings");
+        person.put("dislikes", "crowds");
+        person.put("email", "loadtest" + index + "@example.com");
+        person.put("age", 20 + index % 40);
+        person.put("stateAttributes", STATES[index % STATES.length]);
+        return person;
+    }
+
+    public static List<Map<String, Object>> weapons(String owner, int count) {
+        List<Map<String, Object>> weapons = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            weapons.add(weapon(weaponName(owner, i), owner, i));
+        }
+        return weapons;
+    }
+
+    public static Map<String, Object> weapon(String name, String owner, int index) {
+        Map<String, Object> weapon = new LinkedHashMap<>();
+        weapon.put("weapon", name);
+        weapon.put("owner", owner);
+        weapon.put("attributes", ATTRIBUTES[index % ATTRIBUTES.length]);
+        weapon.put("baseDamage", 100 + index * 7 % 300);
+        weapon.put("bonusDamage", 20 + index % 40);
+        weapon.put("bonusAttributes", List.of(ATTRIBUTES[index % ATTRIBUTES.length],
+                ATTRIBUTES[(index + 2) % ATTRIBUTES.length]));
+        weapon.put("stateAttributes", List.of(STATES[index % STATES.length]));
+        return weapon;
+    }
+}
@@ -0,0 +1,86 @@
+package com.vinskao.ty_multiverse_consumer.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 壓測結果：各隊列的吞吐量、延遲分位數與飽和度，以及 R2DBC 連線池的使用狀況
+ *
+ * <p>{@code maxInFlight} / {@code concurrencyLimit} 取自 {@code ty.consumer.*} gauge；
+ * 連線池 {@code saturatedRatio} 為取樣時連線全數借出或有等待者的比例。</p>
+ */
+public record LoadTestReport(
+        LoadTestSettings settings,
+        double measuredSeconds,
+        List<QueueResult> queues,
+        PoolResult pool) {
+
+    public record QueueResult(
+            String queue,
+            long sent,
+            long completed,
+            long failed,
+            long timedOut,
+            double throughputPerSecond,
+            double p50Millis,
+            double p99Millis,
+            double maxMillis,
+            int maxInFlight,
+            int minConcurrencyLimit,
+            int maxConcurrencyLimit) {
+    }
+
+    public record PoolResult(
+            int maxSize,
+            int maxAcquired,
+            double avgAcquired,
+            int maxPending,
+            double saturatedRatio) {
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n📊 壓測結果（量測 %.1fs，mix=%s）%n", measuredSeconds, settings.mix());
+        out.printf("%-26s %8s %8s %7s %7s %9s %9s %9s %9s %9s %11s%n",
+                "queue", "sent", "ok", "failed", "timeout", "msg/s", "p50(ms)", "p99(ms)", "max(ms)",
+                "inflight", "limit");
+        long totalResponded = 0;
+        for (QueueResult queue : queues) {
+            out.printf("%-26s %8d %8d %7d %7d %9.1f %9.2f %9.2f %9.2f %9d %11s%n",
+                    queue.queue(), queue.sent(), queue.completed(), queue.failed(), queue.timedOut(),
+                    queue.throughputPerSecond(), queue.p50Millis(), queue.p99Millis(), queue.maxMillis(),
+                    queue.maxInFlight(), queue.minConcurrencyLimit() + "-" + queue.maxConcurrencyLimit());
+            totalResponded += queue.completed() + queue.failed();
+        }
+        out.printf("合計吞吐量: %.1f msg/s%n", measuredSeconds > 0 ? totalResponded / measuredSeconds : 0);
+        out.printf("R2DBC 連線池: max=%d, 最多借出=%d, 平均借出=%.1f, 最多等待=%d, 飽和取樣比例=%.1f%%%n",
+                pool.maxSize(), pool.maxAcquired(), pool.avgAcquired(), pool.maxPending(),
+                pool.saturatedRatio() * 100);
+    }
+
+    public void write(ObjectMapper objectMapper, Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Map<String, Object> document = Map.of(
+                "settings", Map.of(
+                        "mix", settings.mix(),
+                        "rate", settings.rate(),
+                        "maxInFlight", settings.maxInFlight(),
+                        "durationSeconds", settings.duration().toSeconds(),
+                        "warmupSeconds", settings.warmup().toSeconds(),
+                        "people", settings.people(),
+                        "weaponsPerPerson", settings.weaponsPerPerson()),
+                "measuredSeconds", measuredSeconds,
+                "queues", queues,
+                "pool", pool);
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), document);
+    }
+}
@@ -0,0 +1,113 @@
+package com.vinskao.ty_multiverse_consumer.loadtest;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 建立 H2 資料表並寫入壓測資料
+ *
+ * <p>在應用程式啟動前執行，WeaponAggregateIndex 啟動時即可載入全部武器，與正式環境一致。
+ * 資料庫以 {@code DB_CLOSE_DELAY=-1} 保留到 JVM 結束，應用程式的連線池看到的是同一份資料。</p>
+ */
+public class LoadTestSeeder {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestSeeder.class);
+
+    private static final Pattern CAMEL_CASE = Pattern.compile("([a-z])([A-Z])");
+
+    private final ConnectionFactory connectionFactory;
+    private final DatabaseClient databaseClient;
+
+    public LoadTestSeeder(String r2dbcUrl, String username, String password) {
+        this.connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(r2dbcUrl).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionFactory);
+    }
+
+    public void seed(int people, int weaponsPerPerson) {
+        new ResourceDatabasePopulator(new ClassPathResource("loadtest/schema.sql"))
+                .populate(connectionFactory)
+                .block();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> weapons = new ArrayList<>(people * weaponsPerPerson);
+        Flux.range(0, people)
+                .concatMap(i -> {
+                    String name = LoadTestData.personName(i);
+                    weapons.addAll(LoadTestData.weapons(name, weaponsPerPerson));
+                    return insertPerson(LoadTestData.person(name, i), now);
+                })
+                .then()
+                .block();
+        Flux.fromIterable(weapons)
+                .concatMap(weapon -> insertWeapon(weapon, now))
+                .then()
+                .block();
+
+        logger.info("🌱 已寫入壓測資料: people={}, weapons={}", people, weapons.size());
+    }
+
+    private Mono<Long> insertPerson(Map<String, Object> person, LocalDateTime now) {
+        List<String> columns = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        for (String field : person.keySet()) {
+            columns.add(toColumn(field));
+            parameters.add(":" + field);
+        }
+        String sql = "INSERT INTO people (" + String.join(", ", columns)
+                + ", created_at, updated_at, version) VALUES (" + String.join(", ", parameters)
+                + ", :createdAt, :updatedAt, 0)";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("createdAt", now)
+                .bind("updatedAt", now);
+        for (Map.Entry<String, Object> entry : person.entrySet()) {
+            spec = spec.bind(entry.getKey(), entry.getValue());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Long> insertWeapon(Map<String, Object> weapon, LocalDateTime now) {
+        return databaseClient.sql("""
+                INSERT INTO weapon (weapon, owner, attributes, base_damage, bonus_damage,
+                    bonus_attributes, state_attributes, created_at, updated_at, version)
+                VALUES (:weapon, :owner, :attributes, :baseDamage, :bonusDamage,
+                    :bonusAttributes, :stateAttributes, :createdAt, :updatedAt, 0)
+                """)
+                .bind("weapon", weapon.get("weapon"))
+                .bind("owner", weapon.get("owner"))
+                .bind("attributes", weapon.get("attributes"))
+                .bind("baseDamage", weapon.get("baseDamage"))
+                .bind("bonusDamage", weapon.get("bonusDamage"))
+                .bind("bonusAttributes", ((List<String>) weapon.get("bonusAttributes")).toArray(new String[0]))
+                .bind("stateAttributes", ((List<String>) weapon.get("stateAttributes")).toArray(new String[0]))
+                .bind("createdAt", now)
+                .bind("updatedAt", now)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static String toColumn(String field) {
+        Matcher matcher = CAMEL_CASE.matcher(field);
+        return matcher.replaceAll("$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,52 @@
+package com.vinskao.ty_multiverse_consumer.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 壓測參數，皆由系統屬性 {@code loadtest.*} 提供（pom 的 loadtest profile 會轉傳）
+ *
+ * <ul>
+ * <li>{@code loadtest.mix}：隊列權重，例如 {@code people-get-by-name=5,damage-calculation=3}；
+ * {@code all} 表示每個可壓測的隊列權重相同（不含 *-delete-all）</li>
+ * <li>{@code loadtest.rate}：每秒發送的消息數（所有隊列合計）</li>
+ * <li>{@code loadtest.max-in-flight}：尚未收到結果的請求上限，達到時暫停發送</li>
+ * <li>{@code loadtest.duration} / {@code loadtest.warmup}：量測時間與開始量測前的暖機時間</li>
+ * <li>{@code loadtest.people} / {@code loadtest.weapons-per-person}：預先寫入的資料量</li>
+ * <li>{@code loadtest.report}：JSON 報表輸出路徑</li>
+ * </ul>
+ */
+public record LoadTestSettings(
+        String mix,
+        int rate,
+        int maxInFlight,
+        Duration duration,
+        Duration warmup,
+        Duration drainTimeout,
+        int people,
+        int weaponsPerPerson,
+        Path report) {
+
+    public static final String DEFAULT_MIX = "people-get-by-name=30,damage-calculation=25,weapon-get-by-owner=15,"
+            + "weapon-get-by-name=10,weapon-exists=5,people-batch-damage=5,people-get-names=5,"
+            + "people-get-all=2,weapon-get-all=2,people-update=1";
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.mix", DEFAULT_MIX),
+                Integer.getInteger("loadtest.rate", 200),
+                Integer.getInteger("loadtest.max-in-flight", 500),
+                duration("loadtest.duration", "60s"),
+                duration("loadtest.warmup", "10s"),
+                duration("loadtest.drain-timeout", "30s"),
+                Integer.getInteger("loadtest.people", 500),
+                Integer.getInteger("loadtest.weapons-per-person", 3),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json")));
+    }
+
+    private static Duration duration(String key, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(key, defaultValue));
+    }
+}
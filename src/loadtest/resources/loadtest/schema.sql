@@ -0,0 +1,78 @@
+-- 壓測用 H2（PostgreSQL 相容模式）資料表，欄位對應 People / Weapon / DamageCalculationResult / PeopleImage
+
+CREATE TABLE IF NOT EXISTS people (
+    name VARCHAR(255) PRIMARY KEY,
+    name_original VARCHAR(255),
+    code_name VARCHAR(255),
+    physic_power INTEGER,
+    magic_power INTEGER,
+    utility_power INTEGER,
+    dob VARCHAR(255),
+    race VARCHAR(255),
+    attributes VARCHAR(255),
+    gender VARCHAR(255),
+    ass_size VARCHAR(255),
+    boobs_size VARCHAR(255),
+    height_cm INTEGER,
+    weight_kg INTEGER,
+    profession VARCHAR(255),
+    combat VARCHAR(255),
+    favorite_foods VARCHAR(255),
+    job VARCHAR(255),
+    physics VARCHAR(1000),
+    known_as VARCHAR(255),
+    personality VARCHAR(1000),
+    interest VARCHAR(1000),
+    likes VARCHAR(1000),
+    dislikes VARCHAR(1000),
+    concubine VARCHAR(255),
+    faction VARCHAR(255),
+    army_id INTEGER,
+    army_name VARCHAR(255),
+    dept_id INTEGER,
+    dept_name VARCHAR(255),
+    origin_army_id INTEGER,
+    origin_army_name VARCHAR(255),
+    gave_birth BOOLEAN,
+    email VARCHAR(255),
+    age INTEGER,
+    proxy VARCHAR(255),
+    base_attributes VARCHAR(255),
+    bonus_attributes VARCHAR(255),
+    state_attributes VARCHAR(255),
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    version BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS weapon (
+    weapon VARCHAR(255) PRIMARY KEY,
+    owner VARCHAR(255),
+    attributes VARCHAR(255),
+    base_damage INTEGER,
+    bonus_damage INTEGER,
+    bonus_attributes VARCHAR(255) ARRAY,
+    state_attributes VARCHAR(255) ARRAY,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    version BIGINT
+);
+
+CREATE INDEX IF NOT EXISTS idx_weapon_owner ON weapon (owner);
+
+CREATE TABLE IF NOT EXISTS damage_calculation_result (
+    request_id VARCHAR(255) PRIMARY KEY,
+    character_name VARCHAR(255),
+    damage_value INTEGER,
+    status VARCHAR(32),
+    error_message VARCHAR(1000),
+    created_at TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS people_image (
+    id VARCHAR(255) PRIMARY KEY,
+    version BIGINT,
+    codeName VARCHAR(255),
+    image VARCHAR(1000)
+);
@@ -1,6 +1,8 @@
 package com.vinskao.ty_multiverse_consumer.config;
 
+import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,6 +14,9 @@ import reactor.rabbitmq.*;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
 /**
  * Reactive RabbitMQ 配置類
  * 
@@ -39,6 +44,9 @@ public class ReactiveRabbitMQConfig {
     @Value("${spring.rabbitmq.virtual-host:/}")
     private String virtualHost;
 
+    // 兩個 Receiver 共用的連線，關閉時由此釋放（自行提供 connectionMono 時 Receiver 不負責關閉）
+    private final AtomicReference<Connection> receiverConnection = new AtomicReference<>();
+
     /**
      * Reactive RabbitMQ 連接工廠
      */
@@ -57,7 +65,7 @@ public class ReactiveRabbitMQConfig {
         connectionFactory.setChannelRpcTimeout(30000); // Channel RPC 超時 30 秒
 
         // 連接池配置 - 增加 Channel 數量以支持所有消費者
-        // People Consumers: 8 個 + Weapon Consumers: 7 個 + AsyncResult: 1 個 = 16 個
+        // People Consumers: 9 個 + Weapon Consumers: 8 個 + AsyncResult: 1 個 = 18 個
         // 預留額外空間，設置為 30
         connectionFactory.setRequestedChannelMax(30); // 從 10 增加到 30
         connectionFactory.setRequestedFrameMax(131072);
@@ -93,6 +101,35 @@ public class ReactiveRabbitMQConfig {
         return sender;
     }
 
+    /**
+     * Receiver 共用連線
+     *
+     * <p>只在成功時快取，啟動時由 ConsumerStartupOrchestrator 先建立；之後每個消費者在
+     * boundedElastic 上各自開 channel，可同時進行。</p>
+     */
+    @Bean
+    public Mono<Connection> reactiveReceiverConnection(ConnectionFactory reactiveConnectionFactory) {
+        return Utils.singleConnectionMono(() -> {
+                    Connection connection = reactiveConnectionFactory.newConnection("ty-multiverse-consumer-receiver");
+                    receiverConnection.set(connection);
+                    return connection;
+                })
+                .cast(Connection.class)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PreDestroy
+    public void closeReceiverConnection() {
+        Connection connection = receiverConnection.getAndSet(null);
+        if (connection != null && connection.isOpen()) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                logger.warn("⚠️ 關閉 Receiver 連線失敗: {}", e.getMessage());
+            }
+        }
+    }
+
     /**
      * Reactive RabbitMQ Receiver - 主要消費者
      * 
@@ -101,9 +138,11 @@ public class ReactiveRabbitMQConfig {
      */
     @Bean
     @Lazy // 延遲創建，確保連接完全建立後再創建 Receiver
-    public Receiver reactiveReceiver(ConnectionFactory reactiveConnectionFactory) {
+    public Receiver reactiveReceiver(ConnectionFactory reactiveConnectionFactory,
+            Mono<Connection> reactiveReceiverConnection) {
         ReceiverOptions receiverOptions = new ReceiverOptions()
                 .connectionFactory(reactiveConnectionFactory)
+                .connectionMono(reactiveReceiverConnection)
                 // 關鍵：設定訂閱排程器；prefetch 請在各 consumer 的 consumeManualAck 時設定
                 .connectionSubscriptionScheduler(Schedulers.boundedElastic());
 
@@ -120,9 +159,11 @@ public class ReactiveRabbitMQConfig {
      */
     @Bean
     @Lazy // 延遲創建，確保連接完全建立後再創建 Receiver
-    public Receiver reactiveReceiverHighPriority(ConnectionFactory reactiveConnectionFactory) {
+    public Receiver reactiveReceiverHighPriority(ConnectionFactory reactiveConnectionFactory,
+            Mono<Connection> reactiveReceiverConnection) {
         ReceiverOptions receiverOptions = new ReceiverOptions()
                 .connectionFactory(reactiveConnectionFactory)
+                .connectionMono(reactiveReceiverConnection)
                 .connectionSubscriptionScheduler(Schedulers.boundedElastic());
 
         Receiver receiver = RabbitFlux.createReceiver(receiverOptions);
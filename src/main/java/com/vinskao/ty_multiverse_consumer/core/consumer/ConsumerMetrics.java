@@ -0,0 +1,217 @@
+package com.vinskao.ty_multiverse_consumer.core.consumer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vinskao.ty_multiverse_consumer.core.service.AdaptiveLimit;
+import com.vinskao.ty_multiverse_consumer.core.service.AsyncResultService;
+import com.vinskao.ty_multiverse_consumer.core.service.AsyncResultService.Settlement;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.AcknowledgableDelivery;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reactive 消費者管線的 Micrometer 指標
+ *
+ * <p>以 {@code queue} 標籤區分隊列：</p>
+ * <ul>
+ * <li>{@code ty.consumer.stage}（Timer，標籤 stage）：parse 解碼、cache 快取查詢、handle 處理器
+ * （查詢與寫入資料庫的時間都在這裡）、publish 從送出結果到 broker confirm 並結算來源消息</li>
+ * <li>{@code ty.consumer.latency}（Timer，標籤 settlement）：收到消息到 ACK/NACK 的總時間</li>
+ * <li>{@code ty.consumer.settlements}（Counter，標籤 settlement）：ack / nack / requeue 次數</li>
+ * <li>{@code ty.consumer.redeliveries}（Counter）：broker 重送的消息數</li>
+ * <li>{@code ty.consumer.cache.requests}（Counter，標籤 result）：快取 hit / miss</li>
+ * <li>{@code ty.consumer.in.flight} / {@code ty.consumer.concurrency.limit}（Gauge）：處理中的消息數與目前並發上限</li>
+ * </ul>
+ *
+ * <p>排隊、處理、發佈三段延遲另外交給 {@link MessageLatencyTracker} 以 HdrHistogram 記錄。</p>
+ *
+ * <p>結算由 AsyncResultService 在 confirm 回呼中通知；處理中的消息以 weak key 追蹤，
+ * 未結算就被回收的消息不會留下記錄。百分位直方圖由
+ * {@code management.metrics.distribution.percentiles-histogram.ty.consumer} 開啟。</p>
+ */
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true")
+@ConditionalOnProperty(name = "spring.rabbitmq.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsumerMetrics {
+
+    private static final String PREFIX = "ty.consumer";
+
+    private final MeterRegistry meterRegistry;
+    private final MessageLatencyTracker latencyTracker;
+
+    // 已收到、尚未結算的消息；AcknowledgableDelivery 未覆寫 equals，weak key 以 identity 比對
+    private final Cache<AcknowledgableDelivery, Tracked> tracked = Caffeine.newBuilder().weakKeys().build();
+
+    public ConsumerMetrics(MeterRegistry meterRegistry, AsyncResultService asyncResultService,
+            MessageLatencyTracker latencyTracker) {
+        this.meterRegistry = meterRegistry;
+        this.latencyTracker = latencyTracker;
+        asyncResultService.addSettlementListener(this::settled);
+    }
+
+    /**
+     * 建立隊列的指標並登記並發閘門的 gauge
+     */
+    public QueueMeters register(String queueName, AdaptiveLimit limit) {
+        Gauge.builder(PREFIX + ".in.flight", limit, AdaptiveLimit::getInFlight)
+                .tag("queue", queueName)
+                .description("處理中的消息數")
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + ".concurrency.limit", limit, AdaptiveLimit::getLimit)
+                .tag("queue", queueName)
+                .description("目前的並發上限")
+                .register(meterRegistry);
+        return new QueueMeters(queueName);
+    }
+
+    /**
+     * 開始追蹤一則消息，直到結算
+     */
+    public void received(QueueMeters meters, AcknowledgableDelivery delivery) {
+        if (delivery.getEnvelope().isRedeliver()) {
+            meters.redeliveries.increment();
+        }
+        tracked.put(delivery, new Tracked(meters, System.nanoTime()));
+    }
+
+    /**
+     * 結果開始發送；處理延遲到此為止，publish 階段由此計時到結算
+     */
+    public void publishing(AcknowledgableDelivery delivery) {
+        Tracked entry = tracked.getIfPresent(delivery);
+        if (entry != null) {
+            entry.publishStartedAt = System.nanoTime();
+            entry.meters.latencies.recordProcessing(entry.publishStartedAt - entry.receivedAt);
+        }
+    }
+
+    /**
+     * 記錄結算；同一則消息只記錄第一次
+     */
+    public void settled(AcknowledgableDelivery delivery, Settlement settlement) {
+        Tracked entry = tracked.asMap().remove(delivery);
+        if (entry == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        QueueMeters meters = entry.meters;
+        if (entry.publishStartedAt != 0) {
+            meters.publish.record(now - entry.publishStartedAt, TimeUnit.NANOSECONDS);
+            meters.latencies.recordPublish(now - entry.publishStartedAt);
+        }
+        meters.latency.get(settlement).record(now - entry.receivedAt, TimeUnit.NANOSECONDS);
+        meters.settlements.get(settlement).increment();
+    }
+
+    /**
+     * 單一隊列的指標
+     */
+    public final class QueueMeters {
+
+        private final Timer parse;
+        private final Timer cache;
+        private final Timer handle;
+        private final Timer publish;
+        private final Counter cacheHits;
+        private final Counter cacheMisses;
+        private final Counter redeliveries;
+        private final Map<Settlement, Timer> latency = new EnumMap<>(Settlement.class);
+        private final Map<Settlement, Counter> settlements = new EnumMap<>(Settlement.class);
+        private final MessageLatencyTracker.Latencies latencies;
+
+        private QueueMeters(String queueName) {
+            this.latencies = latencyTracker.register(queueName);
+            this.parse = stageTimer(queueName, "parse");
+            this.cache = stageTimer(queueName, "cache");
+            this.handle = stageTimer(queueName, "handle");
+            this.publish = stageTimer(queueName, "publish");
+            this.cacheHits = cacheCounter(queueName, "hit");
+            this.cacheMisses = cacheCounter(queueName, "miss");
+            this.redeliveries = Counter.builder(PREFIX + ".redeliveries")
+                    .tag("queue", queueName)
+                    .description("broker 重送的消息數")
+                    .register(meterRegistry);
+            for (Settlement settlement : Settlement.values()) {
+                String tag = settlement.name().toLowerCase(java.util.Locale.ROOT);
+                latency.put(settlement, Timer.builder(PREFIX + ".latency")
+                        .tags("queue", queueName, "settlement", tag)
+                        .description("收到消息到結算的時間")
+                        .register(meterRegistry));
+                settlements.put(settlement, Counter.builder(PREFIX + ".settlements")
+                        .tags("queue", queueName, "settlement", tag)
+                        .description("來源消息的結算次數")
+                        .register(meterRegistry));
+            }
+        }
+
+        /**
+         * 記錄解碼時間
+         */
+        public void recordParse(long nanos) {
+            parse.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * 記錄 Producer 發送到收到消息的排隊時間
+         */
+        public void recordQueueWait(Long producerTimestampMillis) {
+            latencies.recordQueueWait(producerTimestampMillis);
+        }
+
+        /**
+         * 計時快取查詢，並依是否有值記錄 hit / miss
+         */
+        public <T> Mono<T> timeCache(Mono<T> lookup) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return lookup.doOnSuccess(value -> (value != null ? cacheHits : cacheMisses).increment())
+                        .doFinally(signal -> cache.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+            });
+        }
+
+        /**
+         * 計時處理器（成功、失敗或取消都記錄）
+         */
+        public <T> Mono<T> timeHandle(Mono<T> work) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return work.doFinally(signal -> handle.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+            });
+        }
+
+        private Timer stageTimer(String queueName, String stage) {
+            return Timer.builder(PREFIX + ".stage")
+                    .tags("queue", queueName, "stage", stage)
+                    .description("消費者各階段耗時")
+                    .register(meterRegistry);
+        }
+
+        private Counter cacheCounter(String queueName, String result) {
+            return Counter.builder(PREFIX + ".cache.requests")
+                    .tags("queue", queueName, "result", result)
+                    .description("消費者快取查詢次數")
+                    .register(meterRegistry);
+        }
+    }
+
+    private static final class Tracked {
+
+        private final QueueMeters meters;
+        private final long receivedAt;
+        private volatile long publishStartedAt;
+
+        private Tracked(QueueMeters meters, long receivedAt) {
+            this.meters = meters;
+            this.receivedAt = receivedAt;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.vinskao.ty_multiverse_consumer.core.consumer;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 隊列處理器的回覆，由 {@link ReactiveConsumerRegistry} 統一發送結果並結算來源消息
+ *
+ * <ul>
+ * <li>completed：發送成功結果，confirm 後 ACK</li>
+ * <li>partialFailed：發送帶部分資料的失敗結果，confirm 後 ACK（已成功的部分不應重做）</li>
+ * <li>failed：發送失敗結果，confirm 後 NACK（不重新入隊）</li>
+ * <li>streamed：處理器自行發佈結果（例如分段回傳），發佈流程須自行結算來源消息</li>
+ * </ul>
+ */
+public final class ConsumerReply {
+
+    enum Kind {
+        COMPLETED, PARTIAL_FAILED, FAILED, STREAMED
+    }
+
+    private final Kind kind;
+    private final Object data;
+    private final String error;
+    private final Mono<Void> publishing;
+
+    private ConsumerReply(Kind kind, Object data, String error, Mono<Void> publishing) {
+        this.kind = kind;
+        this.data = data;
+        this.error = error;
+        this.publishing = publishing;
+    }
+
+    public static ConsumerReply completed(Object data) {
+        return new ConsumerReply(Kind.COMPLETED, data, null, null);
+    }
+
+    public static ConsumerReply partialFailed(Object partialData, String error) {
+        return new ConsumerReply(Kind.PARTIAL_FAILED, partialData, error, null);
+    }
+
+    public static ConsumerReply failed(String error) {
+        return new ConsumerReply(Kind.FAILED, null, error, null);
+    }
+
+    /**
+     * 由處理器自行發佈結果；publishing 在處理逾時的範圍之外執行
+     */
+    public static ConsumerReply streamed(Mono<Void> publishing) {
+        return new ConsumerReply(Kind.STREAMED, null, null, publishing);
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    Object getData() {
+        return data;
+    }
+
+    String getError() {
+        return error;
+    }
+
+    Mono<Void> getPublishing() {
+        return publishing;
+    }
+
+    boolean isCompleted() {
+        return kind == Kind.COMPLETED;
+    }
+
+    /**
+     * 可供重送的 requestId 直接重複使用的回覆（Producer 已收到相同結果）
+     */
+    boolean isReplayable() {
+        return kind == Kind.COMPLETED || kind == Kind.PARTIAL_FAILED;
+    }
+}
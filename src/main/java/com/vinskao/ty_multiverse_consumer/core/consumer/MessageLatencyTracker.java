@@ -0,0 +1,161 @@
+package com.vinskao.ty_multiverse_consumer.core.consumer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 每則消息的延遲拆解：排隊、處理、結果發佈
+ *
+ * <ul>
+ * <li>queue：Producer 的 {@code timestamp}（epoch 毫秒）到 Consumer 收到消息，反映 broker 積壓；
+ * 兩端時鐘不同步時可能為負值，以 0 計</li>
+ * <li>processing：收到消息到回覆備妥（解碼、快取、處理器）</li>
+ * <li>publish：開始發送結果到 broker confirm 並結算來源消息</li>
+ * </ul>
+ *
+ * <p>以 HdrHistogram {@link Recorder} 記錄微秒值，寫入端無鎖。每個週期交換一次區間直方圖，
+ * 更新 {@code ty.consumer.message.latency} gauge（標籤 queue / phase / statistic，單位毫秒）
+ * 並在有流量時輸出一行摘要日誌。</p>
+ */
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true")
+@ConditionalOnProperty(name = "spring.rabbitmq.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class MessageLatencyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageLatencyTracker.class);
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Latencies> byQueue = new ConcurrentHashMap<>();
+
+    public MessageLatencyTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 取得隊列的記錄器，首次呼叫時登記 gauge
+     */
+    public Latencies register(String queueName) {
+        return byQueue.computeIfAbsent(queueName, Latencies::new);
+    }
+
+    /**
+     * 交換各隊列的區間直方圖，更新 gauge 並輸出摘要
+     */
+    @Scheduled(fixedDelayString = "${ty.multiverse.consumer.latency.report-interval-ms:60000}")
+    public void report() {
+        for (Latencies latencies : byQueue.values()) {
+            latencies.rotate();
+            long count = latencies.processing.last.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            logger.info("⏱️ 消息延遲 [{}]: count={}, queue p50/p99/max={}/{}/{} ms, processing p50/p99/max={}/{}/{} ms, "
+                            + "publish p50/p99/max={}/{}/{} ms",
+                    latencies.queueName, count,
+                    latencies.queueWait.p50(), latencies.queueWait.p99(), latencies.queueWait.max(),
+                    latencies.processing.p50(), latencies.processing.p99(), latencies.processing.max(),
+                    latencies.publish.p50(), latencies.publish.p99(), latencies.publish.max());
+        }
+    }
+
+    /**
+     * 單一隊列的三段延遲記錄器
+     */
+    public final class Latencies {
+
+        private final String queueName;
+        private final Phase queueWait;
+        private final Phase processing;
+        private final Phase publish;
+
+        private Latencies(String queueName) {
+            this.queueName = queueName;
+            this.queueWait = new Phase(queueName, "queue");
+            this.processing = new Phase(queueName, "processing");
+            this.publish = new Phase(queueName, "publish");
+        }
+
+        /**
+         * 記錄排隊時間；沒有 Producer timestamp 時略過
+         */
+        public void recordQueueWait(Long producerTimestampMillis) {
+            if (producerTimestampMillis == null || producerTimestampMillis <= 0) {
+                return;
+            }
+            long waitMillis = Math.max(0, System.currentTimeMillis() - producerTimestampMillis);
+            queueWait.recorder.recordValue(waitMillis * 1000);
+        }
+
+        public void recordProcessing(long nanos) {
+            processing.recorder.recordValue(Math.max(0, nanos / 1000));
+        }
+
+        public void recordPublish(long nanos) {
+            publish.recorder.recordValue(Math.max(0, nanos / 1000));
+        }
+
+        private void rotate() {
+            queueWait.rotate();
+            processing.rotate();
+            publish.rotate();
+        }
+    }
+
+    /**
+     * 一段延遲：寫入端的 Recorder 與上一個週期的區間直方圖
+     */
+    private final class Phase {
+
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        // Recorder 只接受自己交出的直方圖回收，初始的空直方圖也由它取得
+        private volatile Histogram last = recorder.getIntervalHistogram();
+
+        private Phase(String queueName, String phase) {
+            gauge(queueName, phase, "p50", Phase::p50);
+            gauge(queueName, phase, "p99", Phase::p99);
+            gauge(queueName, phase, "max", Phase::max);
+        }
+
+        private void rotate() {
+            // 交還上一份直方圖重複使用，避免每個週期配置新物件
+            last = recorder.getIntervalHistogram(last);
+        }
+
+        private double p50() {
+            return toMillis(last.getValueAtPercentile(50));
+        }
+
+        private double p99() {
+            return toMillis(last.getValueAtPercentile(99));
+        }
+
+        private double max() {
+            return toMillis(last.getMaxValue());
+        }
+
+        private void gauge(String queueName, String phase, String statistic, ToDoubleFunction<Phase> value) {
+            Gauge.builder("ty.consumer.message.latency", this, value)
+                    .tags("queue", queueName, "phase", phase, "statistic", statistic)
+                    .baseUnit("milliseconds")
+                    .description("上一個統計週期的消息延遲")
+                    .register(meterRegistry);
+        }
+
+        private static double toMillis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
@@ -167,6 +167,7 @@ public class PeopleConsumer {
 
             // 處理請求（修正：必須 .block() 才會真正執行）
             peopleService.deleteAllPeople().block();
+            weaponDamageService.onPeopleReset();
 
             // 清除 Redis 快取
             if (cacheManager != null) {
@@ -208,6 +209,7 @@ public class PeopleConsumer {
 
             // 處理請求
             People updatedPerson = peopleService.updatePerson(person).block();
+            weaponDamageService.onPersonSaved(updatedPerson);
 
             logger.info("成功更新角色: requestId={}, name={}", requestId, updatedPerson.getName());
 
@@ -276,6 +278,7 @@ public class PeopleConsumer {
 
             // 處理請求
             People savedPerson = peopleService.insertPerson(person).block();
+            weaponDamageService.onPersonSaved(savedPerson);
 
             logger.info("成功新增角色: requestId={}, name={}", requestId, savedPerson.getName());
 
@@ -346,6 +349,7 @@ public class PeopleConsumer {
             List<People> savedPeople = peopleService.saveAllPeople(peopleList)
                     .collectList()
                     .block();
+            weaponDamageService.onPeopleReset();
 
             if (savedPeople == null) {
                 savedPeople = new java.util.ArrayList<>();
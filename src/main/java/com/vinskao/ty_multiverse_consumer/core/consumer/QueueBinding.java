@@ -0,0 +1,187 @@
+package com.vinskao.ty_multiverse_consumer.core.consumer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.vinskao.ty_multiverse_consumer.core.dto.AsyncMessageHeader;
+import com.vinskao.ty_multiverse_consumer.core.service.AdaptiveConcurrencyLimiter.Priority;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * 隊列與處理器的宣告式綁定
+ *
+ * <p>每個隊列宣告 payload 型別、處理器與策略，由 {@link ReactiveConsumerRegistry} 以同一條管線執行：</p>
+ * <ul>
+ * <li>priority / concurrency：登記到 AdaptiveConcurrencyLimiter 的優先級與初始並發</li>
+ * <li>prefetch：consume 的 qos，預設為並發上限</li>
+ * <li>timeout：處理器產生回覆的時間上限；未指定時依優先級使用讀取/寫入的預設值，{@link Duration#ZERO} 表示不限</li>
+ * <li>cache：以請求算出快取鍵（null 表示此請求不快取），命中直接回覆，completed 的結果寫回快取；
+ * 同一快取鍵的並發未命中共用一次處理器執行，因此快取的請求不可回覆 streamed</li>
+ * <li>idempotent：同一 requestId 重送時直接重發已送出的回覆，不再執行處理器</li>
+ * </ul>
+ *
+ * @param <T> 處理器收到的 payload 型別
+ */
+public final class QueueBinding<T> {
+
+    private final Builder<T> spec;
+    private final QueueHandler<T> handler;
+
+    private QueueBinding(Builder<T> spec, QueueHandler<T> handler) {
+        this.spec = spec;
+        this.handler = handler;
+    }
+
+    /**
+     * payload 轉換為指定類別
+     */
+    public static <T> Builder<T> of(String queueName, String label, Class<T> payloadType) {
+        return new Builder<>(queueName, label, payloadType, false);
+    }
+
+    /**
+     * payload 轉換為泛型型別，例如 {@code List<String>}
+     */
+    public static <T> Builder<T> of(String queueName, String label, TypeReference<T> payloadType) {
+        return new Builder<>(queueName, label, payloadType.getType(), false);
+    }
+
+    /**
+     * 只解析消息標頭，payload 陣列留給處理器從 body 串流讀取
+     */
+    public static Builder<AsyncMessageHeader> streaming(String queueName, String label) {
+        return new Builder<>(queueName, label, AsyncMessageHeader.class, true);
+    }
+
+    String getQueueName() {
+        return spec.queueName;
+    }
+
+    String getLabel() {
+        return spec.label;
+    }
+
+    Type getPayloadType() {
+        return spec.payloadType;
+    }
+
+    boolean isHeaderOnly() {
+        return spec.headerOnly;
+    }
+
+    Priority getPriority() {
+        return spec.priority;
+    }
+
+    int getConcurrency() {
+        return spec.concurrency;
+    }
+
+    int getPrefetch() {
+        return spec.prefetch;
+    }
+
+    Duration getTimeout() {
+        return spec.timeout;
+    }
+
+    String cacheKey(QueueRequest<T> request) {
+        return spec.cacheKey != null ? spec.cacheKey.apply(request) : null;
+    }
+
+    Duration getCacheTtl() {
+        return spec.cacheTtl;
+    }
+
+    boolean isIdempotent() {
+        return spec.idempotent;
+    }
+
+    String getFailureMessage() {
+        return spec.failureMessage;
+    }
+
+    QueueHandler<T> getHandler() {
+        return handler;
+    }
+
+    /**
+     * 綁定的策略；以 {@link #handler(QueueHandler)} 結束並產生 {@link QueueBinding}
+     */
+    public static final class Builder<T> {
+
+        private final String queueName;
+        private final String label;
+        private final Type payloadType;
+        private final boolean headerOnly;
+
+        private Priority priority = Priority.READ;
+        private int concurrency = 2;
+        private int prefetch;
+        private Duration timeout;
+        private Function<QueueRequest<T>, String> cacheKey;
+        private Duration cacheTtl;
+        private boolean idempotent;
+        private String failureMessage;
+
+        private Builder(String queueName, String label, Type payloadType, boolean headerOnly) {
+            this.queueName = queueName;
+            this.label = label;
+            this.payloadType = payloadType;
+            this.headerOnly = headerOnly;
+            this.failureMessage = label + " 處理失敗";
+        }
+
+        /**
+         * 讀取隊列與初始並發
+         */
+        public Builder<T> read(int concurrency) {
+            this.priority = Priority.READ;
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * 寫入隊列與初始並發
+         */
+        public Builder<T> write(int concurrency) {
+            this.priority = Priority.WRITE;
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        public Builder<T> prefetch(int prefetch) {
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        public Builder<T> timeout(Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        public Builder<T> cache(Function<QueueRequest<T>, String> cacheKey, Duration ttl) {
+            this.cacheKey = cacheKey;
+            this.cacheTtl = ttl;
+            return this;
+        }
+
+        public Builder<T> idempotent() {
+            this.idempotent = true;
+            return this;
+        }
+
+        /**
+         * 處理失敗時回覆的訊息前綴，實際訊息為 "前綴: 錯誤原因"
+         */
+        public Builder<T> failureMessage(String failureMessage) {
+            this.failureMessage = failureMessage;
+            return this;
+        }
+
+        public QueueBinding<T> handler(QueueHandler<T> handler) {
+            return new QueueBinding<>(this, handler);
+        }
+    }
+}
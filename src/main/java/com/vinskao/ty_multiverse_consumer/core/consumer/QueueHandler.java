@@ -0,0 +1,16 @@
+package com.vinskao.ty_multiverse_consumer.core.consumer;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 單一隊列的業務處理
+ *
+ * <p>只負責產生 {@link ConsumerReply}；發送結果、ACK/NACK、快取、冪等與逾時由
+ * {@link ReactiveConsumerRegistry} 依 {@link QueueBinding} 的策略處理。以錯誤結束時會以
+ * 宣告的失敗訊息回覆失敗結果。</p>
+ */
+@FunctionalInterface
+public interface QueueHandler<T> {
+
+    Mono<ConsumerReply> handle(QueueRequest<T> request);
+}
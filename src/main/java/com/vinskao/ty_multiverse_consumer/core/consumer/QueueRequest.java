@@ -0,0 +1,20 @@
+package com.vinskao.ty_multiverse_consumer.core.consumer;
+
+import reactor.rabbitmq.AcknowledgableDelivery;
+
+/**
+ * 已解碼的隊列請求
+ *
+ * @param requestId 請求 ID
+ * @param payload   依 {@link QueueBinding} 宣告的型別轉換後的 payload
+ * @param delivery  來源消息；一般處理器不應自行 ACK/NACK，只有 {@link ConsumerReply#streamed} 的發佈流程需要
+ */
+public record QueueRequest<T>(String requestId, T payload, AcknowledgableDelivery delivery) {
+
+    /**
+     * 是否為 broker 重送的消息
+     */
+    public boolean isRedelivery() {
+        return delivery.getEnvelope().isRedeliver();
+    }
+}
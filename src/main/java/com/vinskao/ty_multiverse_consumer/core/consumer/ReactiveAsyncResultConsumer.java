@@ -1,8 +1,9 @@
 package com.vinskao.ty_multiverse_consumer.core.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vinskao.ty_multiverse_consumer.config.RabbitMQConfig;
 import com.vinskao.ty_multiverse_consumer.core.dto.AsyncResultMessage;
+import com.vinskao.ty_multiverse_consumer.core.service.ConsumerStartupOrchestrator;
+import com.vinskao.ty_multiverse_consumer.core.util.AsyncMessageStreamReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +11,6 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 import reactor.rabbitmq.AcknowledgableDelivery;
-import reactor.rabbitmq.ConsumeOptions;
 import reactor.rabbitmq.Receiver;
 import reactor.core.Disposable;
 import reactor.core.Disposables;
@@ -41,20 +41,21 @@ public class ReactiveAsyncResultConsumer {
     private Receiver reactiveReceiverHighPriority; // 使用高優先級接收器
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ConsumerStartupOrchestrator startupOrchestrator;
+
+    @Autowired
+    private AsyncMessageStreamReader messageStreamReader;
 
     private final Disposable.Composite subscriptions = Disposables.composite();
 
     /**
-     * 啟動 reactive 消費者
+     * 登記 reactive 消費者，由 ConsumerStartupOrchestrator 統一啟動
      */
     @PostConstruct
     public void startConsumer() {
-        logger.info("🚀 啟動 Reactive AsyncResult Consumer...");
-        
-        startAsyncResultConsumer();
-        
-        logger.info("✅ Reactive AsyncResult Consumer 啟動完成");
+        logger.info("🚀 登記 Reactive AsyncResult Consumer...");
+
+        startupOrchestrator.register(RabbitMQConfig.ASYNC_RESULT_QUEUE, this::startAsyncResultConsumer);
     }
 
     /**
@@ -65,7 +66,8 @@ public class ReactiveAsyncResultConsumer {
     private void startAsyncResultConsumer() {
         subscriptions.add(
             reactiveReceiverHighPriority
-                .consumeManualAck(RabbitMQConfig.ASYNC_RESULT_QUEUE, new ConsumeOptions().qos(1))
+                .consumeManualAck(RabbitMQConfig.ASYNC_RESULT_QUEUE,
+                    startupOrchestrator.consumeOptions(RabbitMQConfig.ASYNC_RESULT_QUEUE, 1))
                 .flatMap(this::handleAsyncResult, 1) // 序列化處理，避免日誌混亂
                 .doOnError(error -> logger.error("❌ AsyncResult 消費者發生錯誤: {}", error.getMessage()))
                 .retryWhen(Retry.backoff(3, java.time.Duration.ofSeconds(5))
@@ -80,15 +82,11 @@ public class ReactiveAsyncResultConsumer {
      * 處理異步結果消息 - 完全 reactive
      */
     private Mono<Void> handleAsyncResult(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-        
-        return Mono.fromCallable(() -> {
-                logger.info("🔄 收到異步結果消息: {}", messageJson);
-                return objectMapper.readValue(messageJson, AsyncResultMessage.class);
-            })
+        return Mono.fromCallable(() -> messageStreamReader.readMessage(delivery, AsyncResultMessage.class))
             .flatMap(resultMessage -> {
-                logger.info("📨 解析成功 - requestId={}, status={}, source={}",
-                           resultMessage.getRequestId(), resultMessage.getStatus(), resultMessage.getSource());
+                logger.info("📨 收到異步結果消息 - requestId={}, status={}, source={}, size={} bytes",
+                           resultMessage.getRequestId(), resultMessage.getStatus(), resultMessage.getSource(),
+                           delivery.getBody().length);
                 
                 return processAsyncResult(resultMessage)
                     .doOnSuccess(v -> {
@@ -102,7 +100,8 @@ public class ReactiveAsyncResultConsumer {
                     });
             })
             .onErrorResume(parseError -> {
-                logger.error("❌ 無法解析異步結果消息: {}, error={}", messageJson, parseError.getMessage());
+                logger.error("❌ 無法解析異步結果消息: size={} bytes, error={}", delivery.getBody().length,
+                           parseError.getMessage());
                 delivery.nack(false); // 解析錯誤，不重新入隊
                 return Mono.empty();
             })
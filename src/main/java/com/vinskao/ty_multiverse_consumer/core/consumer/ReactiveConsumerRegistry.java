@@ -0,0 +1,276 @@
+package com.vinskao.ty_multiverse_consumer.core.consumer;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vinskao.ty_multiverse_consumer.core.dto.AsyncMessageDTO;
+import com.vinskao.ty_multiverse_consumer.core.dto.AsyncMessageHeader;
+import com.vinskao.ty_multiverse_consumer.core.service.AdaptiveConcurrencyLimiter;
+import com.vinskao.ty_multiverse_consumer.core.service.AdaptiveConcurrencyLimiter.Priority;
+import com.vinskao.ty_multiverse_consumer.core.service.AdaptiveLimit;
+import com.vinskao.ty_multiverse_consumer.core.service.AsyncResultService;
+import com.vinskao.ty_multiverse_consumer.core.service.AsyncResultService.Settlement;
+import com.vinskao.ty_multiverse_consumer.core.service.ConsumerStartupOrchestrator;
+import com.vinskao.ty_multiverse_consumer.core.service.RequestCoalescer;
+import com.vinskao.ty_multiverse_consumer.core.service.ResourceCacheManager;
+import com.vinskao.ty_multiverse_consumer.core.util.AsyncMessageStreamReader;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.AcknowledgableDelivery;
+import reactor.rabbitmq.Receiver;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reactive 消費者的共用管線
+ *
+ * <p>各消費者以 {@link QueueBinding} 宣告隊列、payload 型別、處理器與策略，在 {@code @PostConstruct}
+ * 呼叫 {@link #register}；由 ConsumerStartupOrchestrator 預熱後統一啟動。每則消息依序經過：</p>
+ * <ol>
+ * <li>解碼：body 直接以 UTF-8 位元組解析；無法解析時 NACK（不重新入隊）</li>
+ * <li>冪等：已回覆過的 requestId 直接重發相同回覆</li>
+ * <li>快取：命中時直接回覆，未命中執行處理器並寫回；同一快取鍵並發未命中時合併為一次執行</li>
+ * <li>處理器：依策略逾時；錯誤或逾時一律轉成失敗回覆</li>
+ * <li>發送：結果在 broker confirm 後才 ACK/NACK 來源消息</li>
+ * </ol>
+ *
+ * <p>所有回覆都在同一條鏈內發送，不另開訂閱；發送本身失敗時由 AsyncResultService 結算來源消息，
+ * 這裡只記錄，不讓單則消息的錯誤中斷隊列訂閱。各階段耗時與結算次數記錄在 {@link ConsumerMetrics}。</p>
+ */
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true")
+@ConditionalOnProperty(name = "spring.rabbitmq.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveConsumerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveConsumerRegistry.class);
+
+    private final Receiver reactiveReceiver;
+    private final ObjectMapper objectMapper;
+    private final AsyncMessageStreamReader messageStreamReader;
+    private final AsyncResultService asyncResultService;
+    private final ResourceCacheManager cacheManager;
+    private final RequestCoalescer coalescer;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ConsumerStartupOrchestrator startupOrchestrator;
+    private final ConsumerMetrics metrics;
+    private final Duration readTimeout;
+    private final Duration writeTimeout;
+
+    // key 為 "隊列:requestId"，只保存可重發的回覆
+    private final Cache<String, ConsumerReply> replies;
+
+    // 用於管理所有消費者的訂閱
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    // 預設重試策略：指數退避，最大重試 3 次，初始等待 2 秒
+    private final Retry defaultRetry = Retry.backoff(3, Duration.ofSeconds(2))
+            .maxBackoff(Duration.ofSeconds(10))
+            .doBeforeRetry(retrySignal -> logger.warn("🔄 消費者正在嘗試重試 (第 {} 次), 原因: {}",
+                    retrySignal.totalRetries() + 1, retrySignal.failure().getMessage()));
+
+    public ReactiveConsumerRegistry(Receiver reactiveReceiver, ObjectMapper objectMapper,
+            AsyncMessageStreamReader messageStreamReader, AsyncResultService asyncResultService,
+            ResourceCacheManager cacheManager, RequestCoalescer coalescer, AdaptiveConcurrencyLimiter concurrencyLimiter,
+            ConsumerStartupOrchestrator startupOrchestrator, ConsumerMetrics metrics,
+            @Value("${ty.multiverse.consumer.handler.read-timeout:30s}") Duration readTimeout,
+            @Value("${ty.multiverse.consumer.handler.write-timeout:60s}") Duration writeTimeout,
+            @Value("${ty.multiverse.consumer.handler.idempotency.max-size:10000}") long idempotencyMaxSize,
+            @Value("${ty.multiverse.consumer.handler.idempotency.ttl:10m}") Duration idempotencyTtl) {
+        this.reactiveReceiver = reactiveReceiver;
+        this.objectMapper = objectMapper;
+        this.messageStreamReader = messageStreamReader;
+        this.asyncResultService = asyncResultService;
+        this.cacheManager = cacheManager;
+        this.coalescer = coalescer;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.startupOrchestrator = startupOrchestrator;
+        this.metrics = metrics;
+        this.readTimeout = readTimeout;
+        this.writeTimeout = writeTimeout;
+        this.replies = Caffeine.newBuilder()
+                .maximumSize(idempotencyMaxSize)
+                .expireAfterWrite(idempotencyTtl)
+                .build();
+        // 寫入後不再加入寫入前開始的查詢
+        cacheManager.addEvictionListener(resource -> coalescer.forget(cacheManager.getCacheKey(resource, "")));
+    }
+
+    /**
+     * 登記隊列；需在 ConsumerStartupOrchestrator 啟動前呼叫（{@code @PostConstruct} 即可）
+     */
+    public <T> void register(QueueBinding<T> binding) {
+        startupOrchestrator.register(binding.getQueueName(), () -> start(binding));
+    }
+
+    private <T> void start(QueueBinding<T> binding) {
+        String queueName = binding.getQueueName();
+        AdaptiveLimit limit = concurrencyLimiter.register(queueName, binding.getPriority(), binding.getConcurrency());
+        ConsumerMetrics.QueueMeters meters = metrics.register(queueName, limit);
+        int prefetch = binding.getPrefetch() > 0 ? binding.getPrefetch() : limit.getMaxLimit();
+        subscriptions.add(
+                reactiveReceiver
+                        .consumeManualAck(queueName, startupOrchestrator.consumeOptions(queueName, prefetch))
+                        .doOnNext(delivery -> metrics.received(meters, delivery))
+                        .flatMap(delivery -> limit.run(() -> process(binding, meters, delivery)), limit.getMaxLimit())
+                        .doOnError(error -> logger.error("❌ {} 消費者發生錯誤: {}", binding.getLabel(),
+                                error.getMessage()))
+                        .retryWhen(defaultRetry)
+                        .subscribe());
+
+        logger.info("📡 啟動 {} Reactive Consumer (concurrency={}, max={}, prefetch={}, priority={}, timeout={})",
+                binding.getLabel(), limit.getLimit(), limit.getMaxLimit(), prefetch, limit.getPriority(),
+                timeoutOf(binding));
+    }
+
+    private <T> Mono<Void> process(QueueBinding<T> binding, ConsumerMetrics.QueueMeters meters,
+            AcknowledgableDelivery delivery) {
+        int size = delivery.getBody().length;
+        String requestId;
+        Object rawPayload;
+        Long producerTimestamp;
+        long parseStart = System.nanoTime();
+        try {
+            if (binding.isHeaderOnly()) {
+                AsyncMessageHeader header = messageStreamReader.readHeader(delivery.getBody());
+                requestId = header.getRequestId();
+                rawPayload = header;
+                producerTimestamp = header.getTimestamp();
+            } else {
+                AsyncMessageDTO message = messageStreamReader.readMessage(delivery, AsyncMessageDTO.class);
+                requestId = message.getRequestId();
+                rawPayload = message.getPayload();
+                producerTimestamp = message.getTimestamp();
+            }
+        } catch (Exception e) {
+            logger.error("❌ 無法解析 {} 消息: size={} bytes, error={}", binding.getLabel(), size, e.getMessage());
+            nack(delivery);
+            return Mono.empty();
+        } finally {
+            meters.recordParse(System.nanoTime() - parseStart);
+        }
+        meters.recordQueueWait(producerTimestamp);
+        logger.info("🎯 收到 {} 請求: requestId={}, size={} bytes", binding.getLabel(), requestId, size);
+
+        return reply(binding, meters, requestId, rawPayload, delivery)
+                .onErrorResume(error -> {
+                    String reason = error instanceof TimeoutException
+                            ? "處理逾時 (" + timeoutOf(binding) + ")"
+                            : error.getMessage();
+                    logger.error("❌ {} 處理失敗: requestId={}, error={}", binding.getLabel(), requestId, reason);
+                    return Mono.just(ConsumerReply.failed(binding.getFailureMessage() + ": " + reason));
+                })
+                .doOnNext(reply -> metrics.publishing(delivery))
+                .flatMap(reply -> send(binding, requestId, reply, delivery))
+                .doOnSuccess(v -> logger.info("🎉 {} 處理完成: requestId={}", binding.getLabel(), requestId))
+                .onErrorResume(error -> {
+                    logger.error("❌ {} 結果發送失敗: requestId={}, error={}", binding.getLabel(), requestId,
+                            error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 依冪等、快取、處理器的順序產生回覆
+     */
+    private <T> Mono<ConsumerReply> reply(QueueBinding<T> binding, ConsumerMetrics.QueueMeters meters,
+            String requestId, Object rawPayload, AcknowledgableDelivery delivery) {
+        String replyKey = binding.isIdempotent() && requestId != null ? binding.getQueueName() + ":" + requestId : null;
+        if (replyKey != null) {
+            ConsumerReply previous = replies.getIfPresent(replyKey);
+            if (previous != null) {
+                logger.info("♻️ 重複的 {} 請求，重發已送出的回覆: requestId={}", binding.getLabel(), requestId);
+                return Mono.just(previous);
+            }
+        }
+
+        Mono<ConsumerReply> handled = Mono.fromCallable(
+                () -> new QueueRequest<>(requestId, this.<T>convertPayload(binding, rawPayload), delivery))
+                .flatMap(request -> {
+                    String cacheKey = binding.cacheKey(request);
+                    Mono<ConsumerReply> computed = meters
+                            .timeHandle(Mono.defer(() -> binding.getHandler().handle(request)))
+                            .switchIfEmpty(Mono.error(() -> new IllegalStateException("處理器未產生回覆")));
+                    if (cacheKey == null) {
+                        return computed;
+                    }
+                    Mono<ConsumerReply> computedAndCached = computed.flatMap(reply -> reply.isCompleted()
+                            // 快取與結果共用同一份序列化結果
+                            ? cacheManager.putCacheRaw(cacheKey, reply.getData(), binding.getCacheTtl())
+                                    .map(ConsumerReply::completed)
+                            : Mono.just(reply));
+                    return meters.timeCache(cacheManager.getCacheRaw(cacheKey))
+                            .map(cached -> {
+                                logger.info("🗃️ 命中快取: {}", cacheKey);
+                                return ConsumerReply.completed(cached);
+                            })
+                            // 同一快取鍵並發未命中時只查詢、序列化一次，各請求以自己的 requestId 回覆
+                            .switchIfEmpty(coalescer.execute(cacheKey, () -> computedAndCached));
+                });
+
+        Duration timeout = timeoutOf(binding);
+        if (!timeout.isZero()) {
+            handled = handled.timeout(timeout);
+        }
+        if (replyKey != null) {
+            handled = handled.doOnNext(reply -> {
+                if (reply.isReplayable()) {
+                    replies.put(replyKey, reply);
+                }
+            });
+        }
+        return handled;
+    }
+
+    private Mono<Void> send(QueueBinding<?> binding, String requestId, ConsumerReply reply,
+            AcknowledgableDelivery delivery) {
+        return switch (reply.getKind()) {
+            case COMPLETED -> asyncResultService.sendCompletedResultReactive(requestId, reply.getData(), delivery);
+            case PARTIAL_FAILED -> asyncResultService.sendPartialFailedResultReactive(requestId, reply.getData(),
+                    reply.getError(), delivery);
+            case FAILED -> asyncResultService.sendFailedResultReactive(requestId, reply.getError(), delivery);
+            case STREAMED -> reply.getPublishing();
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T convertPayload(QueueBinding<T> binding, Object rawPayload) {
+        if (rawPayload == null || binding.isHeaderOnly() || binding.getPayloadType() == Object.class) {
+            return (T) rawPayload;
+        }
+        JavaType type = objectMapper.getTypeFactory().constructType(binding.getPayloadType());
+        return objectMapper.convertValue(rawPayload, type);
+    }
+
+    private Duration timeoutOf(QueueBinding<?> binding) {
+        if (binding.getTimeout() != null) {
+            return binding.getTimeout();
+        }
+        return binding.getPriority() == Priority.WRITE ? writeTimeout : readTimeout;
+    }
+
+    private void nack(AcknowledgableDelivery delivery) {
+        try {
+            delivery.nack(false);
+            metrics.settled(delivery, Settlement.NACK);
+        } catch (Exception e) {
+            logger.error("❌ NACK 失敗: error={}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("🛑 關閉 Reactive 消費者...");
+        subscriptions.dispose(); // 主動取消所有訂閱，防止殘留消費者繼續執行
+        logger.info("✅ 所有訂閱已解除 (Remaining: {})", subscriptions.isDisposed());
+    }
+}
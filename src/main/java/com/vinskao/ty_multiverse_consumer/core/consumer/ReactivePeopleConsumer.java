@@ -1,35 +1,40 @@
 package com.vinskao.ty_multiverse_consumer.core.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.vinskao.ty_multiverse_consumer.config.RabbitMQConfig;
-import com.vinskao.ty_multiverse_consumer.core.dto.AsyncMessageDTO;
+import com.vinskao.ty_multiverse_consumer.core.dto.AsyncMessageHeader;
 import com.vinskao.ty_multiverse_consumer.core.service.AsyncResultService;
+import com.vinskao.ty_multiverse_consumer.core.util.AsyncMessageStreamReader;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleBatchInsertChunkResult;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleSummaryProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
 import com.vinskao.ty_multiverse_consumer.module.people.service.PeopleService;
+import com.vinskao.ty_multiverse_consumer.module.people.service.DamageResultStore;
 import com.vinskao.ty_multiverse_consumer.module.people.service.WeaponDamageService;
 import com.vinskao.ty_multiverse_consumer.core.service.ResourceCacheManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.rabbitmq.AcknowledgableDelivery;
-import reactor.rabbitmq.ConsumeOptions;
-import reactor.rabbitmq.Receiver;
-import com.vinskao.ty_multiverse_consumer.service.RedisService;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
-import reactor.core.Disposable;
-import reactor.core.Disposables;
-import reactor.util.retry.Retry;
 
 /**
  * 完全 Reactive People Consumer
- * 
+ *
  * 使用 Reactor RabbitMQ 實現端到端非阻塞消息處理
  * 與 R2DBC 連線池 (max-size=5) 協調的背壓控制
- * 
+ *
+ * 各隊列以 {@link QueueBinding} 宣告處理器與策略，解碼、快取、冪等、逾時與 ACK/NACK
+ * 由 {@link ReactiveConsumerRegistry} 統一處理
+ *
  * @author TY Backend Team
  * @version 2.0
  * @since 2024
@@ -41,11 +46,12 @@ public class ReactivePeopleConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(ReactivePeopleConsumer.class);
 
-    @Autowired
-    private Receiver reactiveReceiver;
+    // Get-All 可選的投影：full 為完整 People，summary 為列表欄位
+    private static final String FULL_PROFILE = "full";
+    private static final String SUMMARY_PROFILE = "summary";
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ReactiveConsumerRegistry consumerRegistry;
 
     @Autowired
     private PeopleService peopleService;
@@ -54,570 +60,270 @@ public class ReactivePeopleConsumer {
     private WeaponDamageService weaponDamageService;
 
     @Autowired
-    private AsyncResultService asyncResultService;
+    private DamageResultStore damageResultStore;
 
-    @Autowired(required = false)
-    private RedisService redisService;
+    @Autowired
+    private AsyncResultService asyncResultService;
 
     @Autowired
     private ResourceCacheManager cacheManager;
 
-    // 用於管理所有消費者的訂閱
-    private final Disposable.Composite subscriptions = Disposables.composite();
+    @Autowired
+    private AsyncMessageStreamReader messageStreamReader;
 
-    // 預設重試策略：指數退避，最大重試 3 次，初始等待 2 秒
-    private final Retry defaultRetry = Retry.backoff(3, Duration.ofSeconds(2))
-            .maxBackoff(Duration.ofSeconds(10))
-            .doBeforeRetry(retrySignal -> logger.warn("🔄 消費者正在嘗試重試 (第 {} 次), 原因: {}",
-                    retrySignal.totalRetries() + 1, retrySignal.failure().getMessage()));
+    // Insert-Multiple 回傳完整角色列表的筆數上限，超過時只回傳筆數
+    @Value("${ty.multiverse.consumer.people.insert-multiple.echo-limit:1000}")
+    private int insertMultipleEchoLimit;
 
     /**
-     * 啟動所有 reactive 消費者
-     * 分批啟動以避免 RabbitMQ Channel 創建失敗
+     * 登記所有 reactive 消費者
+     * 由 ConsumerStartupOrchestrator 預熱連線後同時啟動
      */
     @PostConstruct
     public void startConsumers() {
-        logger.info("🚀 啟動 Reactive People Consumer...");
-
-        // 第一批：讀取操作（立即啟動）
-        startGetAllPeopleConsumer();
-        startGetPeopleNamesConsumer();
-        startGetPeopleByNameConsumer();
-
-        // 第二批：寫入操作（延遲 1000ms，在 Weapon 之後）
-        Mono.delay(Duration.ofMillis(1000))
-                .doOnNext(tick -> logger.info("🔄 啟動 People 寫入 Consumers..."))
-                .subscribe(tick -> {
-                    startPeopleInsertConsumer();
-                    startPeopleUpdateConsumer();
-                    startPeopleInsertMultipleConsumer();
-
-                    // 第三批：刪除和計算操作（再延遲 500ms）
-                    Mono.delay(Duration.ofMillis(500))
-                            .doOnNext(tick2 -> logger.info("🔄 啟動 People 刪除和計算 Consumers..."))
-                            .subscribe(tick2 -> {
-                                startDeleteAllPeopleConsumer();
-                                startDamageCalculationConsumer();
-                                startBatchDamageCalculationConsumer();
-                                logger.info("✅ Reactive People Consumer 全部啟動完成");
-                            });
-                });
-    }
-
-    /**
-     * People Get-All 消費者
-     * 
-     * 使用 flatMap(concurrency=2) 控制並發，與 DB 連線池協調
-     */
-    private void startGetAllPeopleConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_GET_ALL_QUEUE, new ConsumeOptions().qos(2))
-                        .flatMap(this::handleGetAllPeople, 2)
-                        .doOnError(error -> logger.error("❌ People Get-All 消費者發生錯誤: {}", error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Get-All Reactive Consumer (concurrency=2, prefetch=2)");
-    }
-
-    /**
-     * People Get-Names 消費者
-     */
-    private void startGetPeopleNamesConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_GET_NAMES_QUEUE, new ConsumeOptions().qos(2))
-                        .flatMap(this::handleGetPeopleNames, 2)
-                        .doOnError(error -> logger.error("❌ People Get-Names 消費者發生錯誤: {}", error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Get-Names Reactive Consumer (concurrency=2)");
-    }
-
-    /**
-     * People Get-By-Name 消費者
-     */
-    private void startGetPeopleByNameConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_GET_BY_NAME_QUEUE, new ConsumeOptions().qos(2))
-                        .flatMap(this::handleGetPeopleByName, 2)
-                        .doOnError(error -> logger.error("❌ People Get-By-Name 消費者發生錯誤: {}", error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Get-By-Name Reactive Consumer (concurrency=2)");
-    }
-
-    /**
-     * People Delete-All 消費者
-     */
-    private void startDeleteAllPeopleConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_DELETE_ALL_QUEUE, new ConsumeOptions().qos(1))
-                        .flatMap(this::handleDeleteAllPeople, 1)
-                        .doOnError(error -> logger.error("❌ People Delete-All 消費者發生錯誤: {}", error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Delete-All Reactive Consumer (concurrency=1)");
-    }
-
-    /**
-     * People Insert 消費者
-     */
-    private void startPeopleInsertConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_INSERT_QUEUE, new ConsumeOptions().qos(2))
-                        .flatMap(this::handlePeopleInsert, 2)
-                        .doOnError(error -> logger.error("❌ People Insert 消費者發生錯誤: {}", error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Insert Reactive Consumer (concurrency=2)");
-    }
-
-    /**
-     * People Update 消費者
-     */
-    private void startPeopleUpdateConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_UPDATE_QUEUE, new ConsumeOptions().qos(2))
-                        .flatMap(this::handlePeopleUpdate, 2)
-                        .doOnError(error -> logger.error("❌ People Update 消費者發生錯誤: {}", error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Update Reactive Consumer (concurrency=2)");
-    }
-
-    /**
-     * People Insert-Multiple 消費者
-     */
-    private void startPeopleInsertMultipleConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_INSERT_MULTIPLE_QUEUE, new ConsumeOptions().qos(1))
-                        .flatMap(this::handlePeopleInsertMultiple, 1)
-                        .doOnError(error -> logger.error("❌ People Insert-Multiple 消費者發生錯誤: {}", error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Insert-Multiple Reactive Consumer (concurrency=1)");
+        logger.info("🚀 登記 Reactive People Consumer...");
+
+        consumerRegistry.register(QueueBinding.of(RabbitMQConfig.PEOPLE_GET_ALL_QUEUE, "People Get-All", Object.class)
+                .read(2)
+                .cache(request -> isPlainGetAll(request.payload()) ? cacheManager.getGetAllKey("people") : null,
+                        Duration.ofSeconds(60))
+                .failureMessage("獲取角色列表失敗")
+                .handler(this::getAllPeople));
+
+        consumerRegistry.register(QueueBinding.of(RabbitMQConfig.PEOPLE_GET_NAMES_QUEUE, "People Get-Names", Object.class)
+                .read(2)
+                .cache(request -> cacheManager.getCacheKey("people", "names"), Duration.ofMinutes(5))
+                .failureMessage("獲取名稱列表失敗")
+                .handler(this::getPeopleNames));
+
+        consumerRegistry.register(QueueBinding.of(RabbitMQConfig.PEOPLE_GET_BY_NAME_QUEUE, "People Get-By-Name", String.class)
+                .read(2)
+                .cache(request -> request.payload() == null ? null
+                        : cacheManager.getCacheKey("people", "getByName:" + request.payload()), Duration.ofSeconds(60))
+                .failureMessage("獲取角色失敗")
+                .handler(this::getPeopleByName));
+
+        consumerRegistry.register(QueueBinding.of(RabbitMQConfig.PEOPLE_INSERT_QUEUE, "People Insert", Object.class)
+                .write(2)
+                .idempotent()
+                .failureMessage("新增角色失敗")
+                .handler(this::insertPerson));
+
+        consumerRegistry.register(QueueBinding.of(RabbitMQConfig.PEOPLE_UPDATE_QUEUE, "People Update", Object.class)
+                .write(2)
+                .idempotent()
+                .failureMessage("更新角色失敗")
+                .handler(this::updatePerson));
+
+        // 批量寫入耗時與筆數成正比，不設逾時
+        consumerRegistry.register(QueueBinding.streaming(RabbitMQConfig.PEOPLE_INSERT_MULTIPLE_QUEUE, "People Insert-Multiple")
+                .write(1)
+                .timeout(Duration.ZERO)
+                .failureMessage("批量新增角色失敗")
+                .handler(this::insertMultiplePeople));
+
+        consumerRegistry.register(QueueBinding.of(RabbitMQConfig.PEOPLE_DELETE_ALL_QUEUE, "People Delete-All", Object.class)
+                .write(1)
+                .failureMessage("刪除所有角色失敗")
+                .handler(this::deleteAllPeople));
+
+        consumerRegistry.register(QueueBinding.of(RabbitMQConfig.PEOPLE_DAMAGE_CALCULATION_QUEUE, "Damage Calculation", String.class)
+                .read(5)
+                .failureMessage("計算失敗")
+                .handler(this::calculateDamage));
+
+        consumerRegistry.register(QueueBinding.of(RabbitMQConfig.PEOPLE_BATCH_DAMAGE_QUEUE, "Batch Damage Calculation",
+                new TypeReference<List<String>>() {
+                })
+                .read(2)
+                .failureMessage("計算批量傷害失敗")
+                .handler(this::calculateBatchDamage));
     }
 
     /**
-     * People Damage Calculation 消費者
+     * Get-All People：完整列表走整表快取；summary 投影與分段模式不經過快取
      */
-    private void startDamageCalculationConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_DAMAGE_CALCULATION_QUEUE, new ConsumeOptions().qos(5))
-                        .flatMap(this::handleDamageCalculation, 5)
-                        .doOnError(error -> logger.error("❌ People Damage Calculation 消費者發生錯誤: {}", error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Damage Calculation Reactive Consumer (concurrency=5)");
+    private Mono<ConsumerReply> getAllPeople(QueueRequest<Object> request) {
+        String requestId = request.requestId();
+        int chunkSize = asyncResultService.resolveChunkSize(request.payload());
+
+        // summary 投影：只查列表欄位
+        if (SUMMARY_PROFILE.equals(requestedProfile(request.payload()))) {
+            logger.info("📋 回傳角色 summary 投影: requestId={}, chunkSize={}", requestId, chunkSize);
+            Flux<PeopleSummaryProfile> summaries = peopleService.getAllPeopleSummaries();
+            if (chunkSize > 0) {
+                return Mono.just(ConsumerReply.streamed(asyncResultService.sendChunkedResultReactive(requestId,
+                        summaries.buffer(chunkSize), request.delivery())));
+            }
+            return summaries.collectList().map(ConsumerReply::completed);
+        }
+
+        // 分段模式：keyset 分頁逐段發佈
+        if (chunkSize > 0) {
+            logger.info("📦 分段回傳角色列表: requestId={}, chunkSize={}", requestId, chunkSize);
+            return Mono.just(ConsumerReply.streamed(asyncResultService.sendChunkedResultReactive(requestId,
+                    peopleService.getAllPeopleInPages(chunkSize), request.delivery())));
+        }
+
+        return peopleService.getAllPeopleOptimized()
+                .collectList()
+                .map(peopleList -> {
+                    logger.info("✅ 查詢完成: 共 {} 個角色, requestId={}", peopleList.size(), requestId);
+                    return ConsumerReply.completed(peopleList);
+                });
     }
 
     /**
-     * People Batch Damage Calculation 消費者
+     * 是否為一次回傳完整 People 的 Get-All（唯一使用整表快取的形式）
      */
-    private void startBatchDamageCalculationConsumer() {
-        subscriptions.add(
-                reactiveReceiver
-                        .consumeManualAck(RabbitMQConfig.PEOPLE_BATCH_DAMAGE_QUEUE, new ConsumeOptions().qos(2))
-                        .flatMap(this::handleBatchDamageCalculation, 2)
-                        .doOnError(error -> logger.error("❌ People Batch Damage Calculation 消費者發生錯誤: {}",
-                                error.getMessage()))
-                        .retryWhen(defaultRetry)
-                        .subscribe());
-
-        logger.info("📡 啟動 People Batch Damage Reactive Consumer (concurrency=2)");
+    private boolean isPlainGetAll(Object payload) {
+        return asyncResultService.resolveChunkSize(payload) == 0 && FULL_PROFILE.equals(requestedProfile(payload));
     }
 
     /**
-     * 處理 Get-All People 請求 - 完全 reactive
+     * Get-All 請求指定的投影名稱（payload 為物件且帶 {@code profile} 時），預設為 full
      */
-    private Mono<Void> handleGetAllPeople(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-
-        return Mono.fromCallable(() -> {
-            logger.info("🎯 收到 People Get-All 請求: {}", messageJson);
-            return objectMapper.readValue(messageJson, AsyncMessageDTO.class);
-        })
-                .flatMap(message -> {
-                    String requestId = message.getRequestId();
-                    logger.info("📝 處理請求: requestId={}", requestId);
-
-                    // 嘗試快取與冪等
-                    String idempotentKey = "idempotent:people:getAll:" + requestId;
-                    String cacheKey = cacheManager.getGetAllKey("people");
-
-                    Mono<Void> cachedFlow = cacheManager.getCache(cacheKey)
-                            .flatMap(cached -> {
-                                if (cached != null) {
-                                    logger.info("🗃️ 命中快取: {}", cacheKey);
-                                    return asyncResultService.sendCompletedResultReactive(requestId, cached);
-                                }
-                                return Mono.empty();
-                            });
-
-                    Mono<Void> queryFlow = peopleService.getAllPeopleOptimized()
-                            .collectList()
-                            .flatMap(peopleList -> {
-                                logger.info("✅ 查詢完成: 共 {} 個角色, requestId={}", peopleList.size(), requestId);
-                                Mono<Void> cacheWrite = cacheManager.putCache(cacheKey, peopleList,
-                                        Duration.ofSeconds(60));
-                                Mono<Boolean> idemSet = (redisService == null)
-                                        ? Mono.just(true)
-                                        : redisService.setIfAbsent(idempotentKey, "1", Duration.ofMinutes(5));
-                                return idemSet.then(cacheWrite)
-                                        .then(asyncResultService.sendCompletedResultReactive(requestId, peopleList));
-                            })
-                            .onErrorResume(e -> asyncResultService.sendFailedResultReactive(requestId,
-                                    "獲取角色列表失敗: " + e.getMessage()));
-
-                    return (redisService == null ? Mono.empty()
-                            : redisService.setIfAbsent(idempotentKey, "1", Duration.ofMinutes(5))
-                                    .flatMap(set -> set ? Mono.empty() : Mono.just(false)))
-                            .flatMap(
-                                    alreadyProcessed -> alreadyProcessed.equals(Boolean.FALSE) ? cachedFlow : queryFlow)
-                            .switchIfEmpty(cachedFlow.switchIfEmpty(queryFlow))
-                            .doOnSuccess(v -> {
-                                logger.info("🎉 People Get-All 處理完成: requestId={}", requestId);
-                                delivery.ack(); // 手動 ACK
-                            })
-                            .doOnError(error -> {
-                                logger.error("❌ People Get-All 處理失敗: requestId={}, error={}", requestId,
-                                        error.getMessage());
-
-                                // 發送錯誤結果
-                                asyncResultService
-                                        .sendFailedResultReactive(requestId, "獲取角色列表失敗: " + error.getMessage())
-                                        .doFinally(signalType -> delivery.nack(false)) // 手動 NACK，不重新入隊
-                                        .subscribe();
-                            });
-                })
-                .onErrorResume(parseError -> {
-                    logger.error("❌ 無法解析消息: {}, error={}", messageJson, parseError.getMessage());
-                    delivery.nack(false); // 解析錯誤，不重新入隊
-                    return Mono.empty();
-                })
-                .then();
+    private static String requestedProfile(Object payload) {
+        if (payload instanceof Map<?, ?> options && options.get("profile") instanceof String profile) {
+            return profile.toLowerCase(java.util.Locale.ROOT);
+        }
+        return FULL_PROFILE;
     }
 
     /**
-     * 處理 Get-By-Name People 請求 - 完全 reactive
+     * Get-By-Name People；角色不存在時回覆失敗
      */
-    private Mono<Void> handleGetPeopleByName(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-
-        return Mono.fromCallable(() -> {
-            logger.info("🎯 收到 People Get-By-Name 請求: {}", messageJson);
-            return objectMapper.readValue(messageJson, AsyncMessageDTO.class);
-        })
-                .flatMap(message -> {
-                    String requestId = message.getRequestId();
-                    String name = (String) message.getPayload();
-                    logger.info("📝 處理請求: name={}, requestId={}", name, requestId);
-
-                    String cacheKey = "people:getByName:" + name;
-                    Mono<Void> cachedFlow = (redisService == null ? Mono.<String>empty() : redisService.get(cacheKey))
-                            .flatMap(cached -> {
-                                if (cached != null) {
-                                    logger.info("🗃️ 命中快取: {}", cacheKey);
-                                    return asyncResultService.sendCompletedResultReactive(requestId, cached);
-                                }
-                                return Mono.empty();
-                            });
-
-                    Mono<Void> queryFlow = peopleService.getPeopleByName(name)
-                            .flatMap(people -> {
-                                logger.info("✅ 查詢成功: name={}, requestId={}", name, requestId);
-                                Mono<Void> cacheWrite = (redisService == null)
-                                        ? Mono.empty()
-                                        : Mono.fromCallable(() -> objectMapper.writeValueAsString(people))
-                                                .flatMap(json -> redisService
-                                                        .set(cacheKey, json, Duration.ofSeconds(60)).then());
-                                return cacheWrite
-                                        .then(asyncResultService.sendCompletedResultReactive(requestId, people));
-                            })
-                            .switchIfEmpty(
-                                    Mono.defer(() -> {
-                                        logger.warn("⚠️ 角色不存在: name={}, requestId={}", name, requestId);
-                                        return asyncResultService.sendFailedResultReactive(requestId, "角色不存在: " + name);
-                                    }));
-
-                    return cachedFlow.switchIfEmpty(queryFlow)
-                            .doOnSuccess(v -> {
-                                logger.info("🎉 People Get-By-Name 處理完成: requestId={}", requestId);
-                                delivery.ack();
-                            })
-                            .doOnError(error -> {
-                                logger.error("❌ People Get-By-Name 處理失敗: requestId={}, error={}", requestId,
-                                        error.getMessage());
-
-                                asyncResultService.sendFailedResultReactive(requestId, "獲取角色失敗: " + error.getMessage())
-                                        .doFinally(signalType -> delivery.nack(false))
-                                        .subscribe();
-                            });
+    private Mono<ConsumerReply> getPeopleByName(QueueRequest<String> request) {
+        String name = request.payload();
+        return peopleService.getPeopleByName(name)
+                .map(people -> {
+                    logger.info("✅ 查詢成功: name={}, requestId={}", name, request.requestId());
+                    return ConsumerReply.completed(people);
                 })
-                .onErrorResume(parseError -> {
-                    logger.error("❌ 無法解析消息: {}, error={}", messageJson, parseError.getMessage());
-                    delivery.nack(false);
-                    return Mono.empty();
-                })
-                .then();
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    logger.warn("⚠️ 角色不存在: name={}, requestId={}", name, request.requestId());
+                    return ConsumerReply.failed("角色不存在: " + name);
+                }));
     }
 
     /**
-     * 處理 Delete-All People 請求 - 完全 reactive
+     * Get-Names People
      */
-    private Mono<Void> handleDeleteAllPeople(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-
-        return Mono.fromCallable(() -> {
-            logger.info("🎯 收到 People Delete-All 請求: {}", messageJson);
-            return objectMapper.readValue(messageJson, AsyncMessageDTO.class);
-        })
-                .flatMap(message -> {
-                    String requestId = message.getRequestId();
-                    logger.info("📝 處理請求: requestId={}", requestId);
-
-                    return peopleService.deleteAllPeopleReactive()
-                            .flatMap(deletedCount -> {
-                                logger.info("✅ 刪除完成: 共刪除 {} 個角色, requestId={}", deletedCount, requestId);
-                                return cacheManager.evictCache("people")
-                                        .then(asyncResultService.sendCompletedResultReactive(requestId, null));
-                            })
-                            .doOnSuccess(v -> {
-                                logger.info("🎉 People Delete-All 處理完成: requestId={}", requestId);
-                                delivery.ack();
-                            })
-                            .doOnError(error -> {
-                                logger.error("❌ People Delete-All 處理失敗: requestId={}, error={}", requestId,
-                                        error.getMessage());
-
-                                asyncResultService
-                                        .sendFailedResultReactive(requestId, "刪除所有角色失敗: " + error.getMessage())
-                                        .doFinally(signalType -> delivery.nack(false))
-                                        .subscribe();
-                            });
-                })
-                .onErrorResume(parseError -> {
-                    logger.error("❌ 無法解析消息: {}, error={}", messageJson, parseError.getMessage());
-                    delivery.nack(false);
-                    return Mono.empty();
-                })
-                .then();
+    private Mono<ConsumerReply> getPeopleNames(QueueRequest<Object> request) {
+        return peopleService.getAllPeopleNames()
+                .collectList()
+                .map(names -> {
+                    logger.info("✅ 查詢完成: 共 {} 個名稱, requestId={}", names.size(), request.requestId());
+                    return ConsumerReply.completed(names);
+                });
     }
 
     /**
-     * 處理 Get-Names People 請求 - 完全 reactive
+     * Delete-All People
      */
-    private Mono<Void> handleGetPeopleNames(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-
-        return Mono.fromCallable(() -> {
-            logger.info("🎯 收到 People Get-Names 請求: {}", messageJson);
-            return objectMapper.readValue(messageJson, AsyncMessageDTO.class);
-        })
-                .flatMap(message -> {
-                    String requestId = message.getRequestId();
-                    String cacheKey = cacheManager.getCacheKey("people", "names");
-                    logger.info("📝 處理請求: requestId={}", requestId);
-
-                    return cacheManager.getCache(cacheKey)
-                            .flatMap(cached -> {
-                                if (cached != null) {
-                                    logger.info("🗃️ 命中名稱快取: {}", cacheKey);
-                                    return asyncResultService.sendCompletedResultReactive(requestId, cached);
-                                }
-                                return Mono.empty();
-                            })
-                            .switchIfEmpty(peopleService.getAllPeopleOptimized()
-                                    .map(person -> person.getName())
-                                    .collectList()
-                                    .flatMap(names -> {
-                                        logger.info("✅ 查詢完成: 共 {} 個名稱, requestId={}", names.size(), requestId);
-                                        return cacheManager.putCache(cacheKey, names, Duration.ofMinutes(5))
-                                                .then(asyncResultService.sendCompletedResultReactive(requestId, names));
-                                    }))
-                            .doOnSuccess(v -> {
-                                logger.info("🎉 People Get-Names 處理完成: requestId={}", requestId);
-                                delivery.ack();
-                            })
-                            .doOnError(error -> {
-                                logger.error("❌ People Get-Names 處理失敗: requestId={}, error={}", requestId,
-                                        error.getMessage());
-                                asyncResultService
-                                        .sendFailedResultReactive(requestId, "獲取名稱列表失敗: " + error.getMessage())
-                                        .doFinally(signalType -> delivery.nack(false))
-                                        .subscribe();
-                            });
-                })
-                .onErrorResume(parseError -> {
-                    logger.error("❌ 無法解析消息: {}, error={}", messageJson, parseError.getMessage());
-                    delivery.nack(false);
-                    return Mono.empty();
-                })
-                .then();
+    private Mono<ConsumerReply> deleteAllPeople(QueueRequest<Object> request) {
+        return peopleService.deleteAllPeopleReactive()
+                .doOnNext(deletedCount -> weaponDamageService.onPeopleReset())
+                .flatMap(deletedCount -> {
+                    logger.info("✅ 刪除完成: 共刪除 {} 個角色, requestId={}", deletedCount, request.requestId());
+                    return cacheManager.evictCache("people").thenReturn(ConsumerReply.completed(null));
+                });
     }
 
     /**
-     * 處理 Insert People 請求
+     * Insert People
      */
-    private Mono<Void> handlePeopleInsert(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-        return Mono.fromCallable(() -> objectMapper.readValue(messageJson, AsyncMessageDTO.class))
-                .flatMap(message -> {
-                    String requestId = message.getRequestId();
-                    Object payload = message.getPayload();
-                    logger.info("🎯 處理 People Insert: requestId={}", requestId);
-
-                    return peopleService.insertPersonFromObject(payload)
-                            .flatMap(result -> cacheManager.evictCache("people").thenReturn(result))
-                            .flatMap(result -> asyncResultService.sendCompletedResultReactive(requestId, result))
-                            .doOnSuccess(v -> delivery.ack())
-                            .onErrorResume(e -> {
-                                logger.error("❌ Insert 失敗: {}", e.getMessage());
-                                return asyncResultService.sendFailedResultReactive(requestId, e.getMessage())
-                                        .doFinally(s -> delivery.nack(false));
-                            });
-                })
-                .then();
+    private Mono<ConsumerReply> insertPerson(QueueRequest<Object> request) {
+        return peopleService.insertPersonFromObject(request.payload())
+                .doOnNext(weaponDamageService::onPersonSaved)
+                .flatMap(result -> cacheManager.evictCache("people").thenReturn(ConsumerReply.completed(result)));
     }
 
     /**
-     * 處理 Update People 請求
+     * Update People
      */
-    private Mono<Void> handlePeopleUpdate(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-        return Mono.fromCallable(() -> objectMapper.readValue(messageJson, AsyncMessageDTO.class))
-                .flatMap(message -> {
-                    String requestId = message.getRequestId();
-                    Object payload = message.getPayload();
-                    logger.info("🎯 處理 People Update: requestId={}", requestId);
-
-                    return peopleService.updatePersonFromObject(payload)
-                            .flatMap(result -> cacheManager.evictCache("people").thenReturn(result))
-                            .flatMap(result -> asyncResultService.sendCompletedResultReactive(requestId, result))
-                            .doOnSuccess(v -> delivery.ack())
-                            .onErrorResume(e -> {
-                                logger.error("❌ Update 失敗: {}", e.getMessage());
-                                return asyncResultService.sendFailedResultReactive(requestId, e.getMessage())
-                                        .doFinally(s -> delivery.nack(false));
-                            });
-                })
-                .then();
+    private Mono<ConsumerReply> updatePerson(QueueRequest<Object> request) {
+        return peopleService.updatePersonFromObject(request.payload())
+                .doOnNext(weaponDamageService::onPersonSaved)
+                .flatMap(result -> cacheManager.evictCache("people").thenReturn(ConsumerReply.completed(result)));
     }
 
     /**
-     * 處理 Insert-Multiple People 請求
+     * Insert-Multiple People
+     *
+     * 以串流方式解析 payload：管線只讀標頭與筆數，這裡再逐筆反序列化送入分塊寫入，
+     * 不會把整個 body 轉成 String 或中介物件樹
      */
-    private Mono<Void> handlePeopleInsertMultiple(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-        return Mono.fromCallable(() -> objectMapper.readValue(messageJson, AsyncMessageDTO.class))
-                .flatMap(message -> {
-                    String requestId = message.getRequestId();
-                    Object payload = message.getPayload();
-                    logger.info("🎯 處理 People Insert-Multiple: requestId={}", requestId);
-
-                    return peopleService.insertMultiplePeopleFromObject(payload)
-                            .collectList()
-                            .flatMap(result -> cacheManager.evictCache("people").thenReturn(result))
-                            .flatMap(result -> asyncResultService.sendCompletedResultReactive(requestId, result))
-                            .doOnSuccess(v -> delivery.ack())
-                            .onErrorResume(e -> {
-                                logger.error("❌ Insert-Multiple 失敗: {}", e.getMessage());
-                                return asyncResultService.sendFailedResultReactive(requestId, e.getMessage())
-                                        .doFinally(s -> delivery.nack(false));
-                            });
-                })
-                .then();
+    private Mono<ConsumerReply> insertMultiplePeople(QueueRequest<AsyncMessageHeader> request) {
+        String requestId = request.requestId();
+        int payloadSize = request.payload().getPayloadSize();
+        boolean echoRows = payloadSize <= insertMultipleEchoLimit;
+        logger.info("🎯 處理 People Insert-Multiple: requestId={}, size={}, echoRows={}", requestId, payloadSize,
+                echoRows);
+
+        Flux<People> people = messageStreamReader.readPayloadArray(request.delivery().getBody(), People.class);
+        return peopleService.bulkSavePeople(people, payloadSize, echoRows)
+                .collectList()
+                .doOnNext(chunks -> weaponDamageService.onPeopleReset())
+                .flatMap(chunks -> cacheManager.evictCache("people").thenReturn(chunks))
+                .map(chunks -> insertMultipleReply(requestId, chunks, echoRows));
     }
 
     /**
-     * 處理 Damage Calculation 請求
+     * 分塊批量新增的回覆：全部成功為 completed，有分塊失敗則為部分失敗並附上已保存的部分
+     * 筆數超過 echo-limit 時只回傳筆數，避免回應大小與記憶體隨批量成長
      */
-    private Mono<Void> handleDamageCalculation(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-        return Mono.fromCallable(() -> objectMapper.readValue(messageJson, AsyncMessageDTO.class))
-                .flatMap(this::processDamageCalculation)
-                .doOnSuccess(v -> delivery.ack())
-                .onErrorResume(e -> {
-                    logger.error("❌ Damage Calculation 異常: {}", e.getMessage());
-                    delivery.nack(false);
-                    return Mono.empty();
-                });
+    private ConsumerReply insertMultipleReply(String requestId, List<PeopleBatchInsertChunkResult> chunks,
+            boolean echoRows) {
+        List<People> saved = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        long savedCount = 0;
+        for (PeopleBatchInsertChunkResult chunk : chunks) {
+            if (chunk.isSuccess()) {
+                saved.addAll(chunk.getSavedPeople());
+                savedCount += chunk.getSize();
+            } else {
+                failures.add(chunk.describeFailure());
+            }
+        }
+        Object data = echoRows ? saved : Map.of("savedCount", savedCount);
+
+        if (failures.isEmpty()) {
+            logger.info("✅ Insert-Multiple 完成: requestId={}, chunks={}, saved={}", requestId, chunks.size(),
+                    savedCount);
+            return ConsumerReply.completed(data);
+        }
+
+        logger.warn("⚠️ Insert-Multiple 部分失敗: requestId={}, failedChunks={}/{}, saved={}", requestId,
+                failures.size(), chunks.size(), savedCount);
+        return ConsumerReply.partialFailed(data, "批量新增角色部分失敗: " + String.join("; ", failures));
     }
 
     /**
-     * 核心 Damage Calculation 邏輯
+     * Damage Calculation；同一 requestId 已有成功結果時直接回傳
      */
-    private Mono<Void> processDamageCalculation(AsyncMessageDTO message) {
-        String requestId = message.getRequestId();
-        String characterName = (String) message.getPayload();
+    private Mono<ConsumerReply> calculateDamage(QueueRequest<String> request) {
+        String requestId = request.requestId();
+        String characterName = request.payload();
         logger.info("🎯 處理 Damage Calculation: name={}, requestId={}", characterName, requestId);
 
-        return peopleService.calculateDamageWithWeapon(characterName)
-                .flatMap(damage -> asyncResultService.sendCompletedResultReactive(requestId, damage))
-                .onErrorResume(e -> {
-                    logger.error("❌ Damage Calculation 失敗: requestId={}, error={}", requestId, e.getMessage());
-                    return asyncResultService.sendFailedResultReactive(requestId, "計算失敗: " + e.getMessage());
-                });
-    }
-
-    /**
-     * 處理 Batch Damage Calculation 請求
-     */
-    private Mono<Void> handleBatchDamageCalculation(AcknowledgableDelivery delivery) {
-        String messageJson = new String(delivery.getBody());
-        return Mono.fromCallable(() -> objectMapper.readValue(messageJson, AsyncMessageDTO.class))
-                .flatMap(this::processBatchDamageCalculation)
-                .doOnSuccess(v -> delivery.ack())
-                .onErrorResume(e -> {
-                    logger.error("❌ Batch Damage Calculation 異常: {}", e.getMessage());
-                    delivery.nack(false);
-                    return Mono.empty();
-                });
+        return damageResultStore.findCompleted(requestId, request.isRedelivery())
+                .map(stored -> {
+                    logger.info("♻️ 重複的 Damage Calculation，直接回傳已存結果: requestId={}", requestId);
+                    return ConsumerReply.completed(stored.getDamageValue());
+                })
+                .switchIfEmpty(Mono.defer(() -> weaponDamageService.calculateDamageWithWeapon(characterName)
+                        .doOnNext(damage -> damageResultStore.recordSuccess(requestId, characterName, damage))
+                        .doOnError(e -> damageResultStore.recordError(requestId, characterName, e.getMessage()))
+                        .map(ConsumerReply::completed)));
     }
 
     /**
-     * 核心 Batch Damage Calculation 邏輯
+     * Batch Damage Calculation
      */
-    private Mono<Void> processBatchDamageCalculation(AsyncMessageDTO message) {
-        String requestId = message.getRequestId();
-        Object payload = message.getPayload();
-        logger.info("🎯 處理 Batch Damage Calculation: requestId={}", requestId);
-
-        return Mono.fromCallable(() -> {
-            if (!(payload instanceof java.util.List)) {
-                throw new IllegalArgumentException("無效的 payload 格式，預期為名稱列表");
-            }
-            return objectMapper.convertValue(payload,
-                    new com.fasterxml.jackson.core.type.TypeReference<java.util.List<String>>() {
-                    });
-        })
-                .flatMap(names -> weaponDamageService.calculateBatchDamageWithWeapon(names))
-                .flatMap(result -> asyncResultService.sendCompletedResultReactive(requestId, result))
-                .onErrorResume(e -> {
-                    logger.error("❌ Batch Damage Calculation 失敗: requestId={}, error={}", requestId, e.getMessage());
-                    return asyncResultService.sendFailedResultReactive(requestId, "計算批量傷害失敗: " + e.getMessage());
-                });
-    }
-
-    @PreDestroy
-    public void shutdown() {
-        logger.info("🛑 關閉 Reactive People Consumer...");
-        subscriptions.dispose(); // 主動取消所有訂閱，防止殘留消費者繼續執行
-        logger.info("✅ 所有訂閱已解除 (Remaining: {})", subscriptions.isDisposed());
+    private Mono<ConsumerReply> calculateBatchDamage(QueueRequest<List<String>> request) {
+        logger.info("🎯 處理 Batch Damage Calculation: requestId={}", request.requestId());
+        return weaponDamageService.calculateBatchDamageWithWeapon(request.payload())
+                .map(ConsumerReply::completed);
     }
 }
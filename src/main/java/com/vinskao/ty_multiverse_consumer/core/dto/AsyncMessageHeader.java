@@ -0,0 +1,43 @@
+package com.vinskao.ty_multiverse_consumer.core.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 異步消息標頭
+ * 串流解析時只保留 {@link AsyncMessageDTO} 的標頭欄位，payload 另行逐筆讀取
+ */
+@Data
+@NoArgsConstructor
+public class AsyncMessageHeader {
+
+    /**
+     * 請求ID（UUID）
+     */
+    private String requestId;
+
+    /**
+     * API端點路徑
+     */
+    private String endpoint;
+
+    /**
+     * HTTP方法
+     */
+    private String method;
+
+    /**
+     * 時間戳
+     */
+    private Long timestamp;
+
+    /**
+     * 消息來源
+     */
+    private String source;
+
+    /**
+     * payload 陣列的元素數量；payload 不是陣列時為 -1
+     */
+    private int payloadSize = -1;
+}
@@ -1,6 +1,7 @@
 package com.vinskao.ty_multiverse_consumer.core.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.Instant;
 
@@ -34,6 +35,15 @@ public class AsyncResultMessage {
 
     @JsonProperty("source")
     private String source; // "consumer"
+
+    // 分段結果才有：從 0 開始的段序號與是否為最後一段
+    @JsonProperty("sequence")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer sequence;
+
+    @JsonProperty("lastChunk")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean lastChunk;
     
     // 默認構造函數
     public AsyncResultMessage() {
@@ -60,6 +70,19 @@ public class AsyncResultMessage {
         return new AsyncResultMessage(requestId, "failed", null, error);
     }
     
+    // 部分失敗結果靜態工廠方法（附帶已完成部分的資料）
+    public static AsyncResultMessage failed(String requestId, String error, Object partialData) {
+        return new AsyncResultMessage(requestId, "failed", partialData, error);
+    }
+
+    // 分段成功結果靜態工廠方法
+    public static AsyncResultMessage chunk(String requestId, int sequence, boolean lastChunk, Object data) {
+        AsyncResultMessage message = completed(requestId, data);
+        message.sequence = sequence;
+        message.lastChunk = lastChunk;
+        return message;
+    }
+    
     // Getters and Setters
     public String getRequestId() {
         return requestId;
@@ -108,6 +131,22 @@ public class AsyncResultMessage {
     public void setSource(String source) {
         this.source = source;
     }
+
+    public Integer getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(Integer sequence) {
+        this.sequence = sequence;
+    }
+
+    public Boolean getLastChunk() {
+        return lastChunk;
+    }
+
+    public void setLastChunk(Boolean lastChunk) {
+        this.lastChunk = lastChunk;
+    }
     
     @Override
     public String toString() {
@@ -118,6 +157,7 @@ public class AsyncResultMessage {
                 ", error='" + error + '\'' +
                 ", timestamp='" + timestamp + '\'' +
                 ", source='" + source + '\'' +
+                (sequence != null ? ", sequence=" + sequence + ", lastChunk=" + lastChunk : "") +
                 '}';
     }
 }
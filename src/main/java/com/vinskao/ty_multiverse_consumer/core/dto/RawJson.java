@@ -0,0 +1,170 @@
+package com.vinskao.ty_multiverse_consumer.core.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 已序列化的 JSON 片段（UTF-8 位元組）
+ *
+ * <p>放在 {@link AsyncResultMessage#getData()} 時，Jackson 以 {@code writeRawValue} 原樣寫入，
+ * 不會再被當成字串跳脫一次；使用位元組輸出（{@code writeValueAsBytes}）時直接複製到輸出緩衝，
+ * 過程中不產生中介 {@link String}。</p>
+ *
+ * <p>內容必須是合法的 JSON 值，本類不做驗證。</p>
+ */
+public final class RawJson implements SerializableString, JsonSerializable {
+
+    private final byte[] utf8;
+
+    // 僅在字元輸出（例如 writeValueAsString）時才解碼
+    private String decoded;
+
+    private RawJson(byte[] utf8) {
+        this.utf8 = utf8;
+    }
+
+    /**
+     * @param utf8 UTF-8 編碼的 JSON，呼叫後不可再修改
+     */
+    public static RawJson of(byte[] utf8) {
+        return new RawJson(utf8);
+    }
+
+    public byte[] getBytes() {
+        return utf8;
+    }
+
+    public int size() {
+        return utf8.length;
+    }
+
+    // ===== JsonSerializable =====
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeRawValue(this);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        gen.writeRawValue(this);
+    }
+
+    // ===== SerializableString：原樣輸出 =====
+
+    @Override
+    public String getValue() {
+        if (decoded == null) {
+            decoded = new String(utf8, StandardCharsets.UTF_8);
+        }
+        return decoded;
+    }
+
+    @Override
+    public int charLength() {
+        return getValue().length();
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+        return utf8;
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+        if (offset + utf8.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(utf8, 0, buffer, offset, utf8.length);
+        return utf8.length;
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+        String value = getValue();
+        if (offset + value.length() > buffer.length) {
+            return -1;
+        }
+        value.getChars(0, value.length(), buffer, offset);
+        return value.length();
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+        out.write(utf8);
+        return utf8.length;
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+        if (buffer.remaining() < utf8.length) {
+            return -1;
+        }
+        buffer.put(utf8);
+        return utf8.length;
+    }
+
+    // ===== SerializableString：加引號輸出（作為字串值時才會用到） =====
+
+    @Override
+    public char[] asQuotedChars() {
+        return JsonStringEncoder.getInstance().quoteAsString(getValue());
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(getValue());
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+        byte[] quoted = asQuotedUTF8();
+        if (offset + quoted.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(quoted, 0, buffer, offset, quoted.length);
+        return quoted.length;
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+        char[] quoted = asQuotedChars();
+        if (offset + quoted.length > buffer.length) {
+            return -1;
+        }
+        System.arraycopy(quoted, 0, buffer, offset, quoted.length);
+        return quoted.length;
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+        byte[] quoted = asQuotedUTF8();
+        out.write(quoted);
+        return quoted.length;
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) {
+        byte[] quoted = asQuotedUTF8();
+        if (buffer.remaining() < quoted.length) {
+            return -1;
+        }
+        buffer.put(quoted);
+        return quoted.length;
+    }
+
+    @Override
+    public String toString() {
+        return "RawJson[" + utf8.length + " bytes]";
+    }
+}
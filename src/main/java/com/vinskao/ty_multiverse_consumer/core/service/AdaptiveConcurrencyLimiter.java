@@ -0,0 +1,155 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 依 R2DBC 連線池飽和度調整各隊列並發的控制器（AIMD）
+ *
+ * <p>每個消費者以 {@link #register} 取得自己的 {@link AdaptiveLimit}，控制器定期讀取
+ * {@link ConnectionPoolMonitor} 的連線池快照（使用中、等待中、取得連線耗時）與各隊列的處理耗時：</p>
+ * <ul>
+ * <li>過載（有請求在等連線、取得連線耗時超過門檻，或隊列處理耗時超過基準的 tolerance 倍）：
+ * 乘法遞減。先減寫入隊列，寫入都已降到下限仍過載時才減讀取隊列</li>
+ * <li>未過載且隊列曾因 limit 排隊：加法遞增。讀取隊列只要有空閒連線就加，
+ * 寫入隊列需保留 {@code write-headroom} 條連線給讀取</li>
+ * </ul>
+ */
+@Service
+public class AdaptiveConcurrencyLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    // 處理耗時基準每次調整最多上修 5%，讓長期變慢的負載逐步成為新基準
+    private static final double BASELINE_DRIFT = 1.05;
+
+    /**
+     * 隊列優先級：過載時先讓出寫入，恢復時先放大讀取
+     */
+    public enum Priority {
+        READ,
+        WRITE
+    }
+
+    private final Map<String, AdaptiveLimit> limits = new ConcurrentHashMap<>();
+    private final Map<String, Double> latencyBaselines = new ConcurrentHashMap<>();
+    private final ConnectionPoolMonitor poolMonitor;
+
+    private final boolean enabled;
+    private final double decreaseFactor;
+    private final double latencyTolerance;
+    private final double acquireLatencyThresholdMillis;
+    private final int writeHeadroom;
+
+    public AdaptiveConcurrencyLimiter(ConnectionPoolMonitor poolMonitor,
+            @Value("${ty.multiverse.consumer.concurrency.adaptive.enabled:true}") boolean enabled,
+            @Value("${ty.multiverse.consumer.concurrency.adaptive.decrease-factor:0.7}") double decreaseFactor,
+            @Value("${ty.multiverse.consumer.concurrency.adaptive.latency-tolerance:2.0}") double latencyTolerance,
+            @Value("${ty.multiverse.consumer.concurrency.adaptive.acquire-latency-threshold-ms:200}") double acquireLatencyThresholdMillis,
+            @Value("${ty.multiverse.consumer.concurrency.adaptive.write-headroom:1}") int writeHeadroom) {
+        this.poolMonitor = poolMonitor;
+        this.enabled = enabled;
+        this.decreaseFactor = decreaseFactor;
+        this.latencyTolerance = latencyTolerance;
+        this.acquireLatencyThresholdMillis = acquireLatencyThresholdMillis;
+        this.writeHeadroom = writeHeadroom;
+    }
+
+    /**
+     * 註冊隊列的並發閘門；上限為初始值的兩倍，消費者的 prefetch 與 flatMap 並發應使用
+     * {@link AdaptiveLimit#getMaxLimit()}
+     *
+     * @param queueName    隊列名稱
+     * @param priority     讀取或寫入
+     * @param initialLimit 初始並發（原本手動設定的值）
+     */
+    public AdaptiveLimit register(String queueName, Priority priority, int initialLimit) {
+        int maxLimit = enabled ? initialLimit * 2 : initialLimit;
+        return limits.computeIfAbsent(queueName,
+                name -> new AdaptiveLimit(name, priority, initialLimit, 1, maxLimit));
+    }
+
+    public Collection<AdaptiveLimit> getLimits() {
+        return Collections.unmodifiableCollection(limits.values());
+    }
+
+    @Scheduled(fixedDelayString = "${ty.multiverse.consumer.concurrency.adaptive.interval-ms:1000}")
+    public void adjust() {
+        if (!enabled || limits.isEmpty()) {
+            return;
+        }
+        ConnectionPoolMonitor.PoolSnapshot pool = poolMonitor.snapshot();
+        if (pool == null) {
+            return;
+        }
+
+        boolean poolCongested = pool.pending() > 0 || pool.acquireLatencyMillis() > acquireLatencyThresholdMillis;
+        boolean writeReduced = false;
+
+        for (AdaptiveLimit limit : limits.values()) {
+            boolean saturated = limit.pollSaturated();
+            boolean slow = isSlow(limit);
+            int current = limit.getLimit();
+
+            int next = current;
+            if (slow || (poolCongested && limit.getPriority() == Priority.WRITE)) {
+                next = decrease(current);
+                writeReduced |= limit.getPriority() == Priority.WRITE && next < current;
+            } else if (!poolCongested && saturated && hasHeadroom(limit, pool)) {
+                next = current + 1;
+            }
+            apply(limit, current, next, pool);
+        }
+
+        // 寫入已無法再讓出時，連線池仍過載才縮減讀取
+        if (poolCongested && !writeReduced) {
+            for (AdaptiveLimit limit : limits.values()) {
+                if (limit.getPriority() == Priority.READ) {
+                    int current = limit.getLimit();
+                    apply(limit, current, decrease(current), pool);
+                }
+            }
+        }
+    }
+
+    private int decrease(int current) {
+        return Math.max(1, (int) Math.floor(current * decreaseFactor));
+    }
+
+    private boolean hasHeadroom(AdaptiveLimit limit, ConnectionPoolMonitor.PoolSnapshot pool) {
+        int required = limit.getPriority() == Priority.READ ? 1 : 1 + writeHeadroom;
+        return pool.idle() >= required;
+    }
+
+    /**
+     * 處理耗時超過基準的 tolerance 倍視為過載；基準取最低值並緩慢上修
+     */
+    private boolean isSlow(AdaptiveLimit limit) {
+        double latency = limit.getLatencyEwmaMillis();
+        if (latency <= 0) {
+            return false;
+        }
+        double baseline = latencyBaselines.merge(limit.getQueueName(), latency,
+                (previous, sample) -> Math.min(previous * BASELINE_DRIFT, sample));
+        return latency > baseline * latencyTolerance;
+    }
+
+    private void apply(AdaptiveLimit limit, int current, int next, ConnectionPoolMonitor.PoolSnapshot pool) {
+        limit.setLimit(next);
+        int applied = limit.getLimit();
+        if (applied != current) {
+            logger.info("🎚️ 調整並發: queue={}, priority={}, limit {} -> {}, pool(acquired={}/{}, pending={}, acquire={}ms), latency={}ms",
+                    limit.getQueueName(), limit.getPriority(), current, applied, pool.acquired(), pool.maxSize(),
+                    pool.pending(), String.format("%.1f", pool.acquireLatencyMillis()),
+                    String.format("%.1f", limit.getLatencyEwmaMillis()));
+        }
+    }
+}
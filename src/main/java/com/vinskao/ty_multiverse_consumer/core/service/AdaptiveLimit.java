@@ -0,0 +1,199 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 單一隊列的可調整並發閘門
+ *
+ * <p>消費者以 {@code flatMap(..., maxLimit)} 拉取消息，實際同時處理的數量由 {@link #run(Supplier)}
+ * 依目前的 limit 控制；超出的消息在此等待，不佔用資料庫連線。limit 由
+ * {@link AdaptiveConcurrencyLimiter} 定期調整，並記錄處理時間供其判斷是否過載。</p>
+ */
+public class AdaptiveLimit {
+
+    // 處理時間 EWMA 權重：新樣本佔 20%
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final String queueName;
+    private final AdaptiveConcurrencyLimiter.Priority priority;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final Deque<Permit> waiters = new ArrayDeque<>();
+    private int limit;
+    private int inFlight;
+    private boolean saturated;
+    private double latencyEwmaMillis;
+
+    AdaptiveLimit(String queueName, AdaptiveConcurrencyLimiter.Priority priority, int initialLimit, int minLimit,
+            int maxLimit) {
+        this.queueName = queueName;
+        this.priority = priority;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    /**
+     * 取得許可後執行處理，完成、失敗或取消時釋放許可
+     */
+    public <T> Mono<T> run(Supplier<Mono<T>> work) {
+        return Mono.defer(() -> {
+            Permit permit = new Permit();
+            return acquire(permit)
+                    .then(Mono.defer(work))
+                    .doFinally(signal -> permit.finish(signal != SignalType.CANCEL));
+        });
+    }
+
+    /**
+     * 有空位時立即取得，否則排隊等待 {@link #dispatch()} 喚醒
+     */
+    private Mono<Void> acquire(Permit permit) {
+        synchronized (this) {
+            if (inFlight < limit) {
+                inFlight++;
+                permit.hold();
+                return Mono.empty();
+            }
+            saturated = true;
+        }
+        return Mono.create(sink -> {
+            permit.sink = sink;
+            synchronized (this) {
+                waiters.addLast(permit);
+            }
+            // 排隊期間若 limit 已放大或有許可釋放，立即補發
+            dispatch();
+        });
+    }
+
+    private void release(long startedAt, boolean recordLatency) {
+        synchronized (this) {
+            if (recordLatency) {
+                double millis = (System.nanoTime() - startedAt) / 1_000_000.0;
+                latencyEwmaMillis = latencyEwmaMillis == 0 ? millis
+                        : latencyEwmaMillis + EWMA_ALPHA * (millis - latencyEwmaMillis);
+            }
+            inFlight--;
+        }
+        dispatch();
+    }
+
+    private synchronized void removeWaiter(Permit waiter) {
+        waiters.remove(waiter);
+    }
+
+    /**
+     * 有空位時依序喚醒等待者；已取消的等待者會把許可還回去
+     */
+    private void dispatch() {
+        while (true) {
+            Permit next;
+            synchronized (this) {
+                if (inFlight >= limit || waiters.isEmpty()) {
+                    return;
+                }
+                next = waiters.pollFirst();
+                inFlight++;
+            }
+            if (!next.grant()) {
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    /**
+     * 設定新的 limit，放大時立即喚醒等待者
+     */
+    void setLimit(int newLimit) {
+        synchronized (this) {
+            limit = Math.max(minLimit, Math.min(newLimit, maxLimit));
+        }
+        dispatch();
+    }
+
+    /**
+     * 讀取並清除「自上次調整以來是否曾因 limit 排隊」的標記
+     */
+    synchronized boolean pollSaturated() {
+        boolean value = saturated || !waiters.isEmpty();
+        saturated = false;
+        return value;
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public AdaptiveConcurrencyLimiter.Priority getPriority() {
+        return priority;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized double getLatencyEwmaMillis() {
+        return latencyEwmaMillis;
+    }
+
+    /**
+     * 單次處理的許可狀態；排隊、取得與結束以 CAS 轉換，確保許可只釋放一次。
+     * 喚醒與取消同時發生時，已取得的許可由 {@link #finish} 歸還。
+     */
+    private final class Permit {
+
+        private static final int WAITING = 0;
+        private static final int HELD = 1;
+        private static final int DONE = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+        private volatile MonoSink<Void> sink;
+        private volatile long startedAt;
+
+        void hold() {
+            startedAt = System.nanoTime();
+            state.set(HELD);
+        }
+
+        boolean grant() {
+            startedAt = System.nanoTime();
+            if (!state.compareAndSet(WAITING, HELD)) {
+                return false;
+            }
+            sink.success();
+            return true;
+        }
+
+        void finish(boolean recordLatency) {
+            int previous = state.getAndSet(DONE);
+            if (previous == WAITING) {
+                removeWaiter(this);
+            } else if (previous == HELD) {
+                release(startedAt, recordLatency);
+            }
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import com.rabbitmq.client.AMQP;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.rabbitmq.CorrelableOutboundMessage;
+import reactor.rabbitmq.OutboundMessageResult;
+import reactor.rabbitmq.SendOptions;
+import reactor.rabbitmq.Sender;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 異步結果發佈管線
+ *
+ * <p>所有消費者的結果都推入同一個 {@link Sinks.Many}，由一條長駐的
+ * {@link Sender#sendWithTypedPublishConfirms} 串流發佈：publish 與 confirm 在同一通道上管線化，
+ * 不再為每筆結果建立一次發送流程。每筆消息以 {@link CorrelableOutboundMessage} 攜帶自己的
+ * {@link PendingConfirm}（結算動作與期限），broker confirm 回來時在管線的 {@link #onConfirm} 內結算，
+ * nack 或無法路由則以錯誤結算。</p>
+ *
+ * <p>{@link #publishAndSettle} 不等待 confirm：消息進入管線即完成，confirm 結果回來時才執行
+ * 呼叫端提供的結算動作（例如 ack 來源消息），讓多筆 confirm 同時在途而不阻塞消費者。
+ * 不為每筆消息另外訂閱：逾時由單一的定期掃描處理，關閉時尚未結算的消息一律以失敗結算。</p>
+ *
+ * <p>Sink 使用 autoCancel=false 的 multicast 緩衝，通道中斷後管線以退避重連並繼續消化緩衝；
+ * 中斷當下在途的消息由 confirm 逾時交給呼叫端處理（至少一次語意）。每筆消息只結算一次，
+ * 逾時後才回來的 confirm 只記錄、不再執行結算動作。</p>
+ */
+@Service
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true")
+public class AsyncResultPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncResultPublisher.class);
+
+    // 只設定持久化，不帶 content-type，與原本的消息格式一致
+    private static final AMQP.BasicProperties PERSISTENT = new AMQP.BasicProperties.Builder()
+            .deliveryMode(2)
+            .build();
+
+    private final Sender sender;
+    private final Sinks.Many<CorrelableOutboundMessage<PendingConfirm>> outbound;
+    private final Set<PendingConfirm> pending = ConcurrentHashMap.newKeySet();
+    private final int maxInFlight;
+    private final Duration confirmTimeout;
+
+    private Disposable pipeline;
+    private Disposable timeoutSweep;
+
+    public AsyncResultPublisher(ObjectProvider<Sender> sender,
+            @Value("${ty.multiverse.consumer.result-publisher.buffer-size:1024}") int bufferSize,
+            @Value("${ty.multiverse.consumer.result-publisher.max-in-flight:256}") int maxInFlight,
+            @Value("${ty.multiverse.consumer.result-publisher.confirm-timeout:10s}") Duration confirmTimeout) {
+        this.sender = sender.getIfAvailable();
+        this.outbound = Sinks.many().multicast().onBackpressureBuffer(bufferSize, false);
+        this.maxInFlight = maxInFlight;
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    @PostConstruct
+    void start() {
+        if (sender == null) {
+            logger.warn("⚠️ Reactive Sender 不可用，結果發佈管線未啟動");
+            return;
+        }
+        SendOptions options = new SendOptions()
+                .maxInFlight(maxInFlight)
+                .trackReturned(true);
+        pipeline = Flux.defer(() -> sender.sendWithTypedPublishConfirms(outbound.asFlux(), options))
+                .doOnSubscribe(s -> logger.info("✅ 結果發佈管線已啟動: maxInFlight={}, confirmTimeout={}",
+                        maxInFlight, confirmTimeout))
+                .doOnError(e -> logger.error("❌ 結果發佈管線中斷，準備重連: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(this::onConfirm);
+        timeoutSweep = Flux.interval(sweepInterval())
+                .subscribe(tick -> expireOverdue());
+    }
+
+    @PreDestroy
+    void stop() {
+        outbound.tryEmitComplete();
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+        if (timeoutSweep != null) {
+            timeoutSweep.dispose();
+        }
+        // 管線已關閉，不會再有 confirm
+        IllegalStateException closed = new IllegalStateException("結果發佈管線已關閉");
+        for (PendingConfirm confirm : pending) {
+            confirm.settle(closed);
+        }
+    }
+
+    /**
+     * 管線是否可用；不可用時呼叫端應退回 blocking 發送
+     */
+    public boolean isAvailable() {
+        return pipeline != null && !pipeline.isDisposed();
+    }
+
+    /**
+     * 發佈消息，broker confirm 後完成
+     *
+     * @return confirm 成功時完成；nack、無法路由、緩衝已滿或逾時時以錯誤結束
+     */
+    public Mono<Void> publish(String exchange, String routingKey, byte[] body) {
+        return Mono.defer(() -> {
+            Sinks.One<Void> confirmed = Sinks.one();
+            return enqueue(exchange, routingKey, body, confirmed::tryEmitEmpty, confirmed::tryEmitError)
+                    .then(confirmed.asMono());
+        });
+    }
+
+    /**
+     * 發佈消息並在 confirm 後結算，不等待 confirm
+     *
+     * @param onConfirmed broker confirm 成功後執行
+     * @param onFailed    nack、無法路由、逾時或無法進入管線時執行
+     * @return 消息進入管線即完成
+     */
+    public Mono<Void> publishAndSettle(String exchange, String routingKey, byte[] body,
+            Runnable onConfirmed, Consumer<Throwable> onFailed) {
+        return enqueue(exchange, routingKey, body, onConfirmed, onFailed)
+                .doOnError(onFailed);
+    }
+
+    private Mono<Void> enqueue(String exchange, String routingKey, byte[] body,
+            Runnable onConfirmed, Consumer<Throwable> onFailed) {
+        return Mono.defer(() -> {
+            PendingConfirm confirm = new PendingConfirm(onConfirmed, onFailed,
+                    System.nanoTime() + confirmTimeout.toNanos());
+            CorrelableOutboundMessage<PendingConfirm> message = new CorrelableOutboundMessage<>(
+                    exchange, routingKey, PERSISTENT, body, confirm);
+            pending.add(confirm);
+            try {
+                outbound.emitNext(message, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+            } catch (Sinks.EmissionException e) {
+                pending.remove(confirm);
+                return Mono.error(new IllegalStateException("結果發佈緩衝已滿: " + e.getReason(), e));
+            }
+            return Mono.empty();
+        });
+    }
+
+    void onConfirm(OutboundMessageResult<CorrelableOutboundMessage<PendingConfirm>> result) {
+        PendingConfirm confirm = result.getOutboundMessage().getCorrelationMetadata();
+        Throwable error = null;
+        if (result.isReturned()) {
+            error = new IllegalStateException("結果消息無法路由: " + result.getOutboundMessage().getRoutingKey());
+        } else if (!result.isAck()) {
+            error = new IllegalStateException("broker 拒絕結果消息 (nack)");
+        }
+        if (!confirm.settle(error)) {
+            logger.warn("⚠️ confirm 晚於逾時，來源消息已依逾時結算: routingKey={}, ack={}",
+                    result.getOutboundMessage().getRoutingKey(), result.isAck());
+        }
+    }
+
+    /**
+     * 以逾時結算超過 confirm 期限的消息
+     */
+    void expireOverdue() {
+        long now = System.nanoTime();
+        for (PendingConfirm confirm : pending) {
+            if (now - confirm.deadlineNanos >= 0) {
+                confirm.settle(new TimeoutException("結果消息未在 " + confirmTimeout + " 內獲得 confirm"));
+            }
+        }
+    }
+
+    private Duration sweepInterval() {
+        Duration interval = confirmTimeout.dividedBy(4);
+        return interval.compareTo(Duration.ofMillis(10)) < 0 ? Duration.ofMillis(10) : interval;
+    }
+
+    /**
+     * 在途消息的結算動作，confirm、逾時與關閉之中只有第一個生效
+     */
+    final class PendingConfirm {
+
+        private final Runnable onConfirmed;
+        private final Consumer<Throwable> onFailed;
+        private final long deadlineNanos;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private PendingConfirm(Runnable onConfirmed, Consumer<Throwable> onFailed, long deadlineNanos) {
+            this.onConfirmed = onConfirmed;
+            this.onFailed = onFailed;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * @param error null 表示 broker 已確認
+         * @return 是否由這次呼叫結算
+         */
+        boolean settle(Throwable error) {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            pending.remove(this);
+            try {
+                if (error == null) {
+                    onConfirmed.run();
+                } else {
+                    onFailed.accept(error);
+                }
+            } catch (RuntimeException e) {
+                logger.error("❌ 結算結果消息失敗: {}", e.getMessage(), e);
+            }
+            return true;
+        }
+    }
+}
@@ -6,13 +6,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.rabbitmq.OutboundMessage;
-import reactor.rabbitmq.Sender;
+import reactor.rabbitmq.AcknowledgableDelivery;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
 /**
  * 異步結果服務
  * 
@@ -36,7 +44,38 @@ public class AsyncResultService {
     private ObjectMapper objectMapper;
     
     @Autowired(required = false)
-    private Sender reactiveSender;
+    private AsyncResultPublisher resultPublisher;
+
+    // Get-All 預設是否分段回傳與每段筆數
+    @Value("${ty.multiverse.consumer.get-all.chunked:false}")
+    private boolean getAllChunked;
+
+    @Value("${ty.multiverse.consumer.get-all.chunk-size:500}")
+    private int getAllChunkSize;
+
+    // 分段結果同時等待 confirm 的段數
+    @Value("${ty.multiverse.consumer.get-all.max-in-flight-chunks:4}")
+    private int maxInFlightChunks;
+
+    private final List<BiConsumer<AcknowledgableDelivery, Settlement>> settlementListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 來源消息的結算方式
+     */
+    public enum Settlement {
+        ACK,
+        // NACK 不重新入隊
+        NACK,
+        // NACK 並重新入隊，等待重做
+        REQUEUE
+    }
+
+    /**
+     * 註冊來源消息結算後的處理器（在 broker confirm 或發送失敗的回呼中執行，不可阻塞）
+     */
+    public void addSettlementListener(BiConsumer<AcknowledgableDelivery, Settlement> listener) {
+        settlementListeners.add(listener);
+    }
     
     /**
      * 發送成功結果
@@ -76,6 +115,110 @@ public class AsyncResultService {
         return sendAsyncResultReactive(resultMessage);
     }
     
+    /**
+     * 發送部分失敗結果 - Reactive 版本
+     * 用於分塊處理時回報失敗分塊，同時帶回已成功的部分
+     */
+    public Mono<Void> sendPartialFailedResultReactive(String requestId, Object partialData, String error) {
+        logger.warn("🔄 準備發送部分失敗結果 (Reactive): requestId={}, error={}", requestId, error);
+        AsyncResultMessage resultMessage = AsyncResultMessage.failed(requestId, error, partialData);
+        return sendAsyncResultReactive(resultMessage);
+    }
+    
+    /**
+     * 發送成功結果並在 broker confirm 後 ACK 來源消息
+     * 消息進入發佈管線即完成，不等待 confirm
+     */
+    public Mono<Void> sendCompletedResultReactive(String requestId, Object data, AcknowledgableDelivery delivery) {
+        logger.info("🔄 準備發送成功結果 (Reactive): requestId={}, dataType={}",
+                   requestId, data != null ? data.getClass().getSimpleName() : "null");
+        AsyncResultMessage resultMessage = AsyncResultMessage.completed(requestId, data);
+        return sendAsyncResultReactive(resultMessage, () -> settle(delivery, Settlement.ACK), delivery);
+    }
+
+    /**
+     * 發送失敗結果並在 broker confirm 後 NACK 來源消息（不重新入隊）
+     */
+    public Mono<Void> sendFailedResultReactive(String requestId, String error, AcknowledgableDelivery delivery) {
+        logger.warn("🔄 準備發送失敗結果 (Reactive): requestId={}, error={}", requestId, error);
+        AsyncResultMessage resultMessage = AsyncResultMessage.failed(requestId, error);
+        return sendAsyncResultReactive(resultMessage, () -> settle(delivery, Settlement.NACK), delivery);
+    }
+
+    /**
+     * 發送部分失敗結果並在 broker confirm 後 ACK 來源消息（已成功的部分不應重做）
+     */
+    public Mono<Void> sendPartialFailedResultReactive(String requestId, Object partialData, String error,
+            AcknowledgableDelivery delivery) {
+        logger.warn("🔄 準備發送部分失敗結果 (Reactive): requestId={}, error={}", requestId, error);
+        AsyncResultMessage resultMessage = AsyncResultMessage.failed(requestId, error, partialData);
+        return sendAsyncResultReactive(resultMessage, () -> settle(delivery, Settlement.ACK), delivery);
+    }
+
+    /**
+     * Get-All 請求的分段筆數
+     *
+     * @param payload 請求 payload；為物件且帶 {@code chunkSize} 時以請求為準
+     * @return 每段筆數；0 表示整份一次回傳
+     */
+    public int resolveChunkSize(Object payload) {
+        if (payload instanceof java.util.Map<?, ?> options && options.get("chunkSize") instanceof Number requested) {
+            return Math.max(0, requested.intValue());
+        }
+        return getAllChunked ? Math.max(1, getAllChunkSize) : 0;
+    }
+
+    /**
+     * 依序發送分段成功結果，全部段落 confirm 後 ACK 來源消息
+     *
+     * <p>每段是一則 {@link AsyncResultMessage#chunk} 消息，帶 requestId、從 0 開始的 sequence 與
+     * lastChunk；沒有資料時仍會送出一則空的最後一段。段落依序進入發佈管線，最多
+     * {@code max-in-flight-chunks} 段同時等待 confirm，記憶體中只保留這幾段與一段預讀。
+     * 中途失敗（查詢錯誤或未獲 confirm）時改送失敗結果並 NACK，Producer 應捨棄已收到的段落。</p>
+     */
+    public Mono<Void> sendChunkedResultReactive(String requestId, Flux<? extends List<?>> pages,
+            AcknowledgableDelivery delivery) {
+        // 預讀下一段才知道目前這段是否為最後一段
+        Flux<AsyncResultMessage> chunks = pages
+                .<Object>map(page -> page)
+                .switchIfEmpty(Mono.just(List.of()))
+                .map(Optional::of)
+                .concatWith(Mono.just(Optional.empty()))
+                .buffer(2, 1)
+                .filter(window -> window.get(0).isPresent())
+                .index()
+                .map(indexed -> {
+                    List<Optional<Object>> window = indexed.getT2();
+                    boolean last = window.size() < 2 || window.get(1).isEmpty();
+                    return AsyncResultMessage.chunk(requestId, indexed.getT1().intValue(), last,
+                            window.get(0).get());
+                });
+
+        Flux<AsyncResultMessage> published;
+        if (resultPublisher == null || !resultPublisher.isAvailable()) {
+            logger.warn("⚠️ Reactive Sender 不可用，使用 blocking 版本發送分段結果");
+            published = chunks.concatMap(chunk -> Mono.fromRunnable(() -> sendAsyncResult(chunk)).thenReturn(chunk));
+        } else {
+            published = chunks.flatMapSequential(chunk -> Mono.fromCallable(() -> objectMapper.writeValueAsBytes(chunk))
+                    .flatMap(bytes -> {
+                        logger.debug("📤 發送分段結果: requestId={}, sequence={}, last={}, size={} bytes", requestId,
+                                chunk.getSequence(), chunk.getLastChunk(), bytes.length);
+                        return resultPublisher.publish("tymb-exchange", "async.result", bytes);
+                    })
+                    .thenReturn(chunk), Math.max(1, maxInFlightChunks), 1);
+        }
+
+        return published.count()
+                .flatMap(count -> {
+                    logger.info("✅ 分段結果已全部確認: requestId={}, chunks={}", requestId, count);
+                    return Mono.<Void>fromRunnable(() -> settle(delivery, Settlement.ACK));
+                })
+                .onErrorResume(error -> {
+                    logger.error("❌ 分段結果發送中斷: requestId={}, error={}", requestId, error.getMessage());
+                    return sendFailedResultReactive(requestId, "分段結果發送失敗: " + error.getMessage(), delivery);
+                });
+    }
+
     /**
      * 發送異步結果消息
      */
@@ -123,32 +266,29 @@ public class AsyncResultService {
      * 發送異步結果消息 - Reactive 版本
      */
     private Mono<Void> sendAsyncResultReactive(AsyncResultMessage resultMessage) {
-        if (reactiveSender == null) {
+        if (resultPublisher == null || !resultPublisher.isAvailable()) {
             logger.warn("⚠️ Reactive Sender 不可用，使用 blocking 版本");
             return Mono.fromRunnable(() -> sendAsyncResult(resultMessage));
         }
 
         return Mono.defer(() -> {
                 try {
-                    String messageJson = objectMapper.writeValueAsString(resultMessage);
-                    return Mono.just(messageJson);
+                    // 直接序列化為 UTF-8 位元組，RawJson 類型的 data 會原樣拼入，不經過 String
+                    byte[] messageBytes = objectMapper.writeValueAsBytes(resultMessage);
+                    return Mono.just(messageBytes);
                 } catch (Exception e) {
                     return Mono.error(new RuntimeException("消息序列化失敗", e));
                 }
             })
-            .flatMap(messageJson -> {
-                logger.info("📤 準備發送異步結果消息 (Reactive):");
-                logger.info("  - 交換機: tymb-exchange");
-                logger.info("  - 路由鍵: async.result");
-                logger.info("  - 消息內容: {}", messageJson);
-
-                OutboundMessage outboundMessage = new OutboundMessage(
-                    "tymb-exchange",
-                    "async.result",
-                    messageJson.getBytes()
-                );
+            .flatMap(messageBytes -> {
+                logger.info("📤 準備發送異步結果消息 (Reactive): exchange=tymb-exchange, routingKey=async.result, requestId={}, size={} bytes",
+                           resultMessage.getRequestId(), messageBytes.length);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("  - 消息內容: {}", new String(messageBytes, StandardCharsets.UTF_8));
+                }
 
-                return reactiveSender.send(Mono.just(outboundMessage))
+                // 推入共用發佈管線，broker confirm 後才完成
+                return resultPublisher.publish("tymb-exchange", "async.result", messageBytes)
                     .doOnSuccess(v -> logger.info("✅ 成功發送異步結果消息 (Reactive): requestId={}, status={}",
                                                  resultMessage.getRequestId(), resultMessage.getStatus()))
                     .doOnError(error -> logger.error("❌ Reactive 發送失敗: {}", error.getMessage(), error));
@@ -158,4 +298,61 @@ public class AsyncResultService {
                 return Mono.error(new RuntimeException("Reactive 消息發送失敗", error));
             });
     }
+
+    /**
+     * 發送異步結果消息並以 confirm 結算來源消息 - Reactive 版本
+     *
+     * 結果未被 broker 確認時（nack、無法路由、逾時）首次投遞重新入隊讓請求重做，
+     * 已是重新投遞的消息則不再入隊，避免無限循環
+     */
+    private Mono<Void> sendAsyncResultReactive(AsyncResultMessage resultMessage, Runnable onConfirmed,
+            AcknowledgableDelivery delivery) {
+        Consumer<Throwable> onFailed = error -> {
+            boolean requeue = !delivery.getEnvelope().isRedeliver();
+            logger.error("❌ 結果未獲 broker 確認: requestId={}, requeue={}, error={}",
+                       resultMessage.getRequestId(), requeue, error.getMessage());
+            settle(delivery, requeue ? Settlement.REQUEUE : Settlement.NACK);
+        };
+
+        if (resultPublisher == null || !resultPublisher.isAvailable()) {
+            logger.warn("⚠️ Reactive Sender 不可用，使用 blocking 版本");
+            return Mono.fromRunnable(() -> sendAsyncResult(resultMessage))
+                .doOnSuccess(v -> onConfirmed.run())
+                .doOnError(onFailed)
+                .then();
+        }
+
+        return Mono.fromCallable(() -> objectMapper.writeValueAsBytes(resultMessage))
+            .doOnError(onFailed)
+            .flatMap(messageBytes -> {
+                logger.info("📤 準備發送異步結果消息 (Reactive): exchange=tymb-exchange, routingKey=async.result, requestId={}, size={} bytes",
+                           resultMessage.getRequestId(), messageBytes.length);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("  - 消息內容: {}", new String(messageBytes, StandardCharsets.UTF_8));
+                }
+
+                return resultPublisher.publishAndSettle("tymb-exchange", "async.result", messageBytes,
+                    () -> {
+                        logger.info("✅ 結果已確認並結算來源消息: requestId={}, status={}",
+                                   resultMessage.getRequestId(), resultMessage.getStatus());
+                        onConfirmed.run();
+                    },
+                    onFailed);
+            });
+    }
+
+    private void settle(AcknowledgableDelivery delivery, Settlement settlement) {
+        switch (settlement) {
+            case ACK -> delivery.ack();
+            case NACK -> delivery.nack(false);
+            case REQUEUE -> delivery.nack(true);
+        }
+        for (BiConsumer<AcknowledgableDelivery, Settlement> listener : settlementListeners) {
+            try {
+                listener.accept(delivery, settlement);
+            } catch (RuntimeException e) {
+                logger.error("❌ 處理消息結算事件失敗: {}", e.getMessage());
+            }
+        }
+    }
 }
@@ -0,0 +1,207 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * PostgreSQL COPY 批量載入服務
+ *
+ * <p>流程：在單一連線的交易內建立暫存表 → 以 r2dbc-postgresql {@code CopyIn}
+ * 串流寫入 CSV → 一條 {@code INSERT ... ON CONFLICT} 合併回目標表 → 提交後暫存表自動刪除。</p>
+ *
+ * <p>直接從 {@link ConnectionFactory} 取得連線，不參與 Spring 管理的 reactive 交易，
+ * 避免在外層交易連線上再次 BEGIN/COMMIT。非 PostgreSQL 連線（例如 H2）會以
+ * {@link UnsupportedOperationException} 結束，呼叫端應退回一般批量 INSERT。</p>
+ */
+@Service
+public class BulkCopyLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkCopyLoader.class);
+
+    /**
+     * 每個 CopyData 封包包含的列數
+     */
+    private static final int ROWS_PER_FRAME = 500;
+
+    private static final String SEQUENCE_COLUMN = "copy_seq";
+
+    private final ConnectionFactory connectionFactory;
+
+    public BulkCopyLoader(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * 將資料以 COPY 載入並合併到目標表
+     *
+     * @param spec 資料表描述
+     * @param rows 要載入的實體，會以串流方式編碼，不會一次全部轉成字串
+     * @return 合併影響的列數
+     */
+    public <T> Mono<Long> load(BulkCopySpec<T> spec, Publisher<T> rows) {
+        return Mono.usingWhen(
+                connectionFactory.create(),
+                connection -> copyAndMerge(connection, spec, rows),
+                Connection::close,
+                (connection, error) -> connection.close(),
+                Connection::close);
+    }
+
+    private <T> Mono<Long> copyAndMerge(Connection connection, BulkCopySpec<T> spec, Publisher<T> rows) {
+        PostgresqlConnection postgres = unwrapPostgres(connection);
+        if (postgres == null) {
+            return Mono.error(new UnsupportedOperationException(
+                    "COPY 批量載入僅支援 PostgreSQL 連線: " + connection.getClass().getName()));
+        }
+
+        String columnList = String.join(", ", spec.getColumns());
+        String staging = spec.getStagingTable();
+        String createStaging = "CREATE TEMP TABLE " + staging + " (LIKE " + spec.getTargetTable()
+                + " INCLUDING DEFAULTS, " + SEQUENCE_COLUMN + " BIGINT) ON COMMIT DROP";
+        String copy = "COPY " + staging + " (" + columnList + ", " + SEQUENCE_COLUMN
+                + ") FROM STDIN WITH (FORMAT csv)";
+        String merge = buildMergeSql(spec, columnList, staging);
+
+        long startTime = System.currentTimeMillis();
+        Mono<Long> work = Mono.from(connection.beginTransaction())
+                .then(execute(connection, createStaging))
+                .then(postgres.copyIn(copy, encode(spec, rows)))
+                .doOnNext(copied -> logger.info("📥 COPY 至暫存表完成: table={}, rows={}", staging, copied))
+                .flatMap(copied -> execute(connection, merge))
+                .flatMap(merged -> Mono.from(connection.commitTransaction()).thenReturn(merged))
+                .doOnNext(merged -> logger.info("✅ COPY 合併完成: table={}, rows={}, elapsed={}ms",
+                        spec.getTargetTable(), merged, System.currentTimeMillis() - startTime));
+
+        return work.onErrorResume(error -> {
+            logger.error("❌ COPY 批量載入失敗: table={}, error={}", spec.getTargetTable(), error.getMessage());
+            return Mono.from(connection.rollbackTransaction())
+                    .onErrorResume(rollbackError -> Mono.empty())
+                    .then(Mono.error(error));
+        });
+    }
+
+    /**
+     * 暫存表合併回目標表的 SQL
+     *
+     * <p>upsert 以 DISTINCT ON 保留同一主鍵最後出現的一列，避免 ON CONFLICT 同列更新兩次；
+     * 只新增時直接 INSERT，主鍵衝突即違反唯一約束，交易回滾。</p>
+     */
+    static String buildMergeSql(BulkCopySpec<?> spec, String columnList, String staging) {
+        if (!spec.isUpsert()) {
+            return "INSERT INTO " + spec.getTargetTable() + " (" + columnList + ") "
+                    + "SELECT " + columnList + " FROM " + staging + " ORDER BY " + SEQUENCE_COLUMN;
+        }
+        return "INSERT INTO " + spec.getTargetTable() + " (" + columnList + ") "
+                + "SELECT DISTINCT ON (" + spec.getConflictColumn() + ") " + columnList
+                + " FROM " + staging
+                + " ORDER BY " + spec.getConflictColumn() + ", " + SEQUENCE_COLUMN + " DESC"
+                + " ON CONFLICT (" + spec.getConflictColumn() + ") DO UPDATE SET " + spec.buildUpdateClause();
+    }
+
+    private Mono<Long> execute(Connection connection, String sql) {
+        return Flux.from(connection.createStatement(sql).execute())
+                .flatMap(Result::getRowsUpdated)
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * 以固定列數為單位編碼成 CSV 封包，最後一欄為輸入順序
+     */
+    private <T> Flux<ByteBuf> encode(BulkCopySpec<T> spec, Publisher<T> rows) {
+        return Flux.from(rows)
+                .index()
+                .buffer(ROWS_PER_FRAME)
+                .map(batch -> {
+                    StringBuilder csv = new StringBuilder(batch.size() * 256);
+                    for (var indexed : batch) {
+                        Object[] values = spec.getRowMapper().apply(indexed.getT2());
+                        for (Object value : values) {
+                            appendCsvValue(csv, value);
+                            csv.append(',');
+                        }
+                        csv.append(indexed.getT1()).append('\n');
+                    }
+                    return Unpooled.wrappedBuffer(csv.toString().getBytes(StandardCharsets.UTF_8));
+                });
+    }
+
+    /**
+     * CSV 格式：null 輸出為未加引號的空值（COPY 視為 NULL），其餘一律加引號
+     */
+    static void appendCsvValue(StringBuilder csv, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Collection<?> collection ? toArrayLiteral(collection) : value.toString();
+        csv.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+
+    /**
+     * 轉為 PostgreSQL 陣列字面值，例如 {@code {"火","冰"}}
+     */
+    static String toArrayLiteral(Collection<?> values) {
+        StringBuilder literal = new StringBuilder("{");
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                literal.append(',');
+            }
+            first = false;
+            if (value == null) {
+                literal.append("NULL");
+                continue;
+            }
+            literal.append('"');
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"' || c == '\\') {
+                    literal.append('\\');
+                }
+                literal.append(c);
+            }
+            literal.append('"');
+        }
+        return literal.append('}').toString();
+    }
+
+    private static PostgresqlConnection unwrapPostgres(Connection connection) {
+        Object current = connection;
+        for (int depth = 0; depth < 8 && current != null; depth++) {
+            if (current instanceof PostgresqlConnection postgres) {
+                return postgres;
+            }
+            if (!(current instanceof Wrapped<?> wrapped)) {
+                return null;
+            }
+            Object next = wrapped.unwrap();
+            if (next == current) {
+                return null;
+            }
+            current = next;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * COPY 批量載入的資料表描述
+ *
+ * <p>描述目標表、衝突鍵、欄位順序與如何把實體轉成欄位值，
+ * 供 {@link BulkCopyLoader} 產生 COPY 與合併 SQL。{@link #of} 在主鍵衝突時覆寫（upsert），
+ * {@link #insertOnly} 與一般 INSERT 相同，衝突時整批失敗。</p>
+ *
+ * @param <T> 實體型別
+ */
+public final class BulkCopySpec<T> {
+
+    private final String targetTable;
+    private final String conflictColumn;
+    private final List<String> columns;
+    private final String extraUpdateClause;
+    private final Function<T, Object[]> rowMapper;
+    private final boolean upsert;
+
+    private BulkCopySpec(String targetTable, String conflictColumn, List<String> columns,
+            String extraUpdateClause, Function<T, Object[]> rowMapper, boolean upsert) {
+        this.targetTable = targetTable;
+        this.conflictColumn = conflictColumn;
+        this.columns = List.copyOf(columns);
+        this.extraUpdateClause = extraUpdateClause;
+        this.rowMapper = rowMapper;
+        this.upsert = upsert;
+    }
+
+    /**
+     * @param targetTable       目標表
+     * @param conflictColumn    ON CONFLICT 使用的主鍵欄位
+     * @param columns           COPY 的欄位，順序須與 rowMapper 回傳的陣列一致
+     * @param extraUpdateClause 衝突時額外的 SET 子句（例如版本號），可為 null
+     * @param rowMapper         實體轉欄位值
+     */
+    public static <T> BulkCopySpec<T> of(String targetTable, String conflictColumn, List<String> columns,
+            String extraUpdateClause, Function<T, Object[]> rowMapper) {
+        return new BulkCopySpec<>(targetTable, conflictColumn, columns, extraUpdateClause, rowMapper, true);
+    }
+
+    /**
+     * 只新增不覆寫：主鍵已存在（或同批重複）時違反唯一約束，整批回滾
+     *
+     * @param targetTable    目標表
+     * @param conflictColumn 主鍵欄位
+     * @param columns        COPY 的欄位，順序須與 rowMapper 回傳的陣列一致
+     * @param rowMapper      實體轉欄位值
+     */
+    public static <T> BulkCopySpec<T> insertOnly(String targetTable, String conflictColumn, List<String> columns,
+            Function<T, Object[]> rowMapper) {
+        return new BulkCopySpec<>(targetTable, conflictColumn, columns, null, rowMapper, false);
+    }
+
+    public String getTargetTable() {
+        return targetTable;
+    }
+
+    public String getStagingTable() {
+        return targetTable + "_copy_staging";
+    }
+
+    public String getConflictColumn() {
+        return conflictColumn;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public Function<T, Object[]> getRowMapper() {
+        return rowMapper;
+    }
+
+    public boolean isUpsert() {
+        return upsert;
+    }
+
+    /**
+     * 衝突時更新的 SET 子句：除主鍵、created_at、version 外全部以 EXCLUDED 覆寫
+     */
+    String buildUpdateClause() {
+        Set<String> skipped = Set.of(conflictColumn, "created_at", "version");
+        String assignments = columns.stream()
+                .filter(column -> !skipped.contains(column))
+                .map(column -> column + " = EXCLUDED." + column)
+                .collect(Collectors.joining(", "));
+        if (extraUpdateClause == null || extraUpdateClause.isBlank()) {
+            return assignments;
+        }
+        return assignments + ", " + extraUpdateClause;
+    }
+}
@@ -0,0 +1,112 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisOperations;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 跨實例快取失效匯流排
+ *
+ * <p>寫入類消費者提交後由 {@link ResourceCacheManager#evictCache(String)} 發佈資源層級的失效事件到
+ * Redis 頻道，每個實例訂閱同一頻道並清除自己的 L1 快取。訊息格式為 {@code 資源名稱|來源實例ID}，
+ * 來源為自己的事件會略過（本地已先清除）。</p>
+ *
+ * <p>訂閱斷線期間的事件會遺失，此時本地快取最多過期於 L1 TTL；Redis 不可用時發佈失敗只記錄警告，
+ * 不影響寫入結果。</p>
+ */
+@Service
+public class CacheInvalidationBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    private static final char SEPARATOR = '|';
+
+    private final ReactiveRedisOperations<String, String> redisOps;
+    private final String channel;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private Disposable subscription;
+
+    public CacheInvalidationBus(ObjectProvider<ReactiveRedisOperations<String, String>> redisOperations,
+            @Value("${ty.multiverse.consumer.cache.invalidation.channel:ty-multiverse:cache-invalidation}") String channel) {
+        this.redisOps = redisOperations.getIfAvailable();
+        this.channel = channel;
+    }
+
+    @PostConstruct
+    void subscribe() {
+        if (redisOps == null) {
+            logger.warn("⚠️ 未配置 Redis，跨實例快取失效停用");
+            return;
+        }
+        subscription = redisOps.listenToChannel(channel)
+                .doOnSubscribe(s -> logger.info("📡 訂閱快取失效頻道: channel={}, instance={}", channel, instanceId))
+                .map(message -> message.getMessage())
+                .doOnError(e -> logger.warn("⚠️ 快取失效頻道中斷，準備重連: {}", e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(this::onMessage);
+    }
+
+    @PreDestroy
+    void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * 註冊遠端失效事件的處理器，參數為資源名稱
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 發佈資源失效事件
+     */
+    public Mono<Void> publish(String resourceName) {
+        if (redisOps == null) {
+            return Mono.empty();
+        }
+        return redisOps.convertAndSend(channel, resourceName + SEPARATOR + instanceId)
+                .doOnNext(receivers -> logger.debug("📢 發佈快取失效: resource={}, receivers={}", resourceName,
+                        receivers))
+                .onErrorResume(e -> {
+                    logger.warn("⚠️ 發佈快取失效失敗: resource={}, error={}", resourceName, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void onMessage(String message) {
+        int separator = message.lastIndexOf(SEPARATOR);
+        String resourceName = separator < 0 ? message : message.substring(0, separator);
+        String origin = separator < 0 ? "" : message.substring(separator + 1);
+        if (instanceId.equals(origin)) {
+            return;
+        }
+        logger.info("📨 收到遠端快取失效: resource={}, from={}", resourceName, origin);
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(resourceName);
+            } catch (RuntimeException e) {
+                logger.error("❌ 處理快取失效失敗: resource={}, error={}", resourceName, e.getMessage());
+            }
+        }
+    }
+}
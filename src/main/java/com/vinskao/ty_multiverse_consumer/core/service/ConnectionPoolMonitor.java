@@ -0,0 +1,125 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC 連線池監控
+ *
+ * <p>{@link PoolMetrics} 只提供數量（acquired、pending），沒有取得連線的等待時間，
+ * 因此以 {@link BeanPostProcessor} 將 {@link ConnectionPool} 包一層計時的 {@link ConnectionFactory}，
+ * 記錄每次 {@code create()} 從訂閱到取得連線的時間（EWMA）。包裝類實作 {@link Wrapped}，
+ * 其他需要原始連線池的元件仍可 unwrap 取得。</p>
+ */
+@Component
+public class ConnectionPoolMonitor implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolMonitor.class);
+
+    // EWMA 權重：新樣本佔 20%
+    private static final double EWMA_ALPHA = 0.2;
+
+    private volatile ConnectionPool pool;
+    private volatile double acquireLatencyEwmaMillis;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ConnectionPool connectionPool && pool == null) {
+            pool = connectionPool;
+            logger.info("📊 監控 R2DBC 連線池: bean={}", beanName);
+            return new AcquireTimingConnectionFactory(connectionPool);
+        }
+        return bean;
+    }
+
+    /**
+     * 連線池目前狀態；未使用連線池（例如測試用 H2）時回傳 null
+     */
+    public PoolSnapshot snapshot() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            return null;
+        }
+        return current.getMetrics()
+                .map(metrics -> new PoolSnapshot(metrics.acquiredSize(), metrics.getMaxAllocatedSize(),
+                        metrics.pendingAcquireSize(), acquireLatencyEwmaMillis))
+                .orElse(null);
+    }
+
+    /**
+     * 預先建立連線池的 initial-size 條連線
+     *
+     * @return 新建立的連線數；未使用連線池時為 0
+     */
+    public Mono<Integer> warmup() {
+        ConnectionPool current = pool;
+        return current == null ? Mono.just(0) : current.warmup();
+    }
+
+    private void recordAcquire(long nanos) {
+        double millis = nanos / 1_000_000.0;
+        double previous = acquireLatencyEwmaMillis;
+        acquireLatencyEwmaMillis = previous == 0 ? millis : previous + EWMA_ALPHA * (millis - previous);
+    }
+
+    /**
+     * 連線池狀態快照
+     *
+     * @param acquired               使用中的連線數
+     * @param maxSize                連線池上限
+     * @param pending                等待取得連線的請求數
+     * @param acquireLatencyMillis   取得連線的平均等待時間（EWMA）
+     */
+    public record PoolSnapshot(int acquired, int maxSize, int pending, double acquireLatencyMillis) {
+
+        public int idle() {
+            return Math.max(0, maxSize - acquired);
+        }
+    }
+
+    /**
+     * 計時用的連線工廠包裝
+     *
+     * <p>Spring Boot 以 {@code destroyMethod = "dispose"} 註冊連線池，包裝後由此方法轉交釋放。</p>
+     */
+    private final class AcquireTimingConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+        private final ConnectionPool delegate;
+
+        private AcquireTimingConnectionFactory(ConnectionPool delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Publisher<? extends Connection> create() {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return delegate.create().doOnNext(connection -> recordAcquire(System.nanoTime() - start));
+            });
+        }
+
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public ConnectionFactory unwrap() {
+            return delegate;
+        }
+
+        public void dispose() {
+            delegate.dispose();
+        }
+    }
+}
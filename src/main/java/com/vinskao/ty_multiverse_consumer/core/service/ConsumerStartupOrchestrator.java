@@ -0,0 +1,209 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.rabbitmq.ConsumeOptions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 消費者啟動協調器
+ *
+ * <p>消費者在 {@code @PostConstruct} 以 {@link #register} 登記啟動動作，所有 bean 建立完成後由
+ * {@link #start()} 統一執行：</p>
+ * <ol>
+ * <li>預熱 R2DBC 連線池（initial-size）與 Receiver 共用的 RabbitMQ 連線</li>
+ * <li>確認消費者數量不超過協商後的 channelMax</li>
+ * <li>同時啟動所有消費者，各自在 boundedElastic 上開 channel</li>
+ * </ol>
+ *
+ * <p>每個消費者以 {@link #consumeOptions} 取得的 channel callback 回報：callback 在同一執行緒上緊接著
+ * basic.qos / basic.consume，這裡先以 passive declare 確認隊列存在，channel 關閉時標記為未訂閱，
+ * 重試重新開 channel 後恢復。全部訂閱完成前健康檢查為 OUT_OF_SERVICE，之後有 channel 中斷為 DOWN；
+ * 此健康檢查納入 readiness 群組。</p>
+ */
+@Component
+@ConditionalOnProperty(name = "spring.rabbitmq.enabled", havingValue = "true")
+@ConditionalOnProperty(name = "spring.rabbitmq.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsumerStartupOrchestrator implements SmartLifecycle, HealthIndicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerStartupOrchestrator.class);
+
+    private final Map<String, ConsumerState> consumers = new LinkedHashMap<>();
+    private final ConnectionPoolMonitor poolMonitor;
+    private final Mono<Connection> receiverConnection;
+    private final Duration warmupTimeout;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean readyOnce = new AtomicBoolean();
+    private final AtomicInteger subscribedCount = new AtomicInteger();
+    private volatile long startedAt;
+
+    public ConsumerStartupOrchestrator(ConnectionPoolMonitor poolMonitor,
+            ObjectProvider<Mono<Connection>> reactiveReceiverConnection,
+            @Value("${ty.multiverse.consumer.startup.warmup-timeout:30s}") Duration warmupTimeout) {
+        this.poolMonitor = poolMonitor;
+        this.receiverConnection = reactiveReceiverConnection.getIfAvailable(Mono::empty);
+        this.warmupTimeout = warmupTimeout;
+    }
+
+    /**
+     * 登記消費者的啟動動作；需在 {@link #start()} 之前呼叫（{@code @PostConstruct} 即可）
+     *
+     * @param queueName 隊列名稱，作為健康檢查的 key
+     * @param starter   訂閱隊列的動作，consumeManualAck 需使用 {@link #consumeOptions}
+     */
+    public synchronized void register(String queueName, Runnable starter) {
+        if (started.get()) {
+            throw new IllegalStateException("消費者已啟動，無法再登記: " + queueName);
+        }
+        consumers.put(queueName, new ConsumerState(starter));
+    }
+
+    /**
+     * 帶有訂閱回報的 {@link ConsumeOptions}
+     */
+    public ConsumeOptions consumeOptions(String queueName, int qos) {
+        return new ConsumeOptions()
+                .qos(qos)
+                .channelCallback(channel -> onChannelOpened(queueName, channel));
+    }
+
+    public boolean isReady() {
+        return started.get() && subscribedCount.get() == consumers.size();
+    }
+
+    @Override
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        startedAt = System.nanoTime();
+        logger.info("🚀 啟動 {} 個 Reactive 消費者：預熱連線池與 RabbitMQ 連線...", consumers.size());
+
+        Mono.when(warmupDatabase(), warmupRabbit())
+                .timeout(warmupTimeout)
+                .onErrorResume(e -> {
+                    // 預熱失敗不阻擋啟動，消費者的重試與連線池會在可用時接手
+                    logger.warn("⚠️ 預熱未完成，直接啟動消費者: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .doFinally(signal -> startConsumers())
+                .subscribe();
+    }
+
+    private Mono<Void> warmupDatabase() {
+        return poolMonitor.warmup()
+                .doOnNext(created -> logger.info("🗄️ R2DBC 連線池預熱完成: 新建 {} 條連線", created))
+                .then();
+    }
+
+    private Mono<Void> warmupRabbit() {
+        return receiverConnection
+                .doOnNext(connection -> {
+                    int channelMax = connection.getChannelMax();
+                    if (channelMax > 0 && consumers.size() > channelMax) {
+                        logger.error("❌ 消費者數量 {} 超過 RabbitMQ channelMax {}，部分消費者將無法訂閱",
+                                consumers.size(), channelMax);
+                    } else {
+                        logger.info("🐰 RabbitMQ Receiver 連線就緒: channelMax={}, consumers={}",
+                                channelMax, consumers.size());
+                    }
+                })
+                .then();
+    }
+
+    private synchronized void startConsumers() {
+        started.set(true);
+        consumers.forEach((queueName, state) -> {
+            try {
+                state.starter.run();
+            } catch (RuntimeException e) {
+                logger.error("❌ 啟動消費者失敗: queue={}, error={}", queueName, e.getMessage());
+            }
+        });
+        logger.info("📡 已送出 {} 個消費者訂閱，等待 channel 就緒...", consumers.size());
+    }
+
+    private void onChannelOpened(String queueName, Channel channel) {
+        ConsumerState state = consumers.get(queueName);
+        if (state == null) {
+            return;
+        }
+        try {
+            channel.queueDeclarePassive(queueName);
+        } catch (IOException e) {
+            // channel 已被 broker 關閉，交由 Receiver 以錯誤結束並重試
+            throw new UncheckedIOException("隊列不存在或無法存取: " + queueName, e);
+        }
+        channel.addShutdownListener(cause -> {
+            if (state.subscribed.compareAndSet(true, false)) {
+                subscribedCount.decrementAndGet();
+            }
+            if (running.get()) {
+                logger.warn("⚠️ 消費者 channel 已關閉: queue={}, reason={}", queueName, cause.getMessage());
+            }
+        });
+        if (state.subscribed.compareAndSet(false, true) && subscribedCount.incrementAndGet() == consumers.size()
+                && readyOnce.compareAndSet(false, true)) {
+            logger.info("✅ 全部 {} 個 Reactive 消費者已訂閱，耗時 {}ms", consumers.size(),
+                    Duration.ofNanos(System.nanoTime() - startedAt).toMillis());
+        }
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        consumers.forEach((queueName, state) -> details.put(queueName, state.subscribed.get() ? "UP" : "DOWN"));
+        Health.Builder builder;
+        if (isReady()) {
+            builder = Health.up();
+        } else if (!readyOnce.get()) {
+            // 啟動中
+            builder = Health.outOfService();
+        } else {
+            builder = Health.down();
+        }
+        return builder.withDetail("subscribed", subscribedCount.get())
+                .withDetail("total", consumers.size())
+                .withDetails(details)
+                .build();
+    }
+
+    @Override
+    public void stop() {
+        running.set(false);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private static final class ConsumerState {
+
+        private final Runnable starter;
+        private final AtomicBoolean subscribed = new AtomicBoolean();
+
+        private ConsumerState(Runnable starter) {
+            this.starter = starter;
+        }
+    }
+}
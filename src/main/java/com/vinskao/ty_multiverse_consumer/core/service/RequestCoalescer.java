@@ -0,0 +1,86 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 相同讀取的請求合併（single-flight）
+ *
+ * <p>同一個 key 在執行中時，後到的請求直接訂閱同一個結果，不再各自查詢資料庫與序列化；
+ * 執行結束（成功或失敗）即移除，下一個請求重新執行，錯誤不會被保留。key 應包含資源、查詢與參數，
+ * 例如快取鍵 {@code people:getByName:Alice}。</p>
+ *
+ * <p>共用的執行不隨單一請求取消：某個請求逾時只影響它自己，其餘等待者與快取回填照常完成。
+ * 資源寫入後以 {@link #forget(String)} 捨棄執行中的項目，之後的請求不會拿到寫入前開始的查詢結果。</p>
+ */
+@Service
+public class RequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final Map<String, Mono<Object>> inFlight = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter executions;
+    private final Counter coalesced;
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+            @Value("${ty.multiverse.consumer.handler.coalescing.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.executions = Counter.builder("ty.consumer.coalescing.executions")
+                .description("實際執行的讀取次數")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("ty.consumer.coalescing.coalesced")
+                .description("合併到執行中讀取、未另行查詢的請求數")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 以 key 合併執行；同 key 已在執行時共用其結果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> execute(String key, Supplier<Mono<T>> loader) {
+        if (!enabled || key == null) {
+            return Mono.defer(loader);
+        }
+        return Mono.defer(() -> {
+            Mono<Object> existing = inFlight.get(key);
+            if (existing != null) {
+                return (Mono<T>) join(key, existing);
+            }
+
+            Mono<Object>[] self = new Mono[1];
+            self[0] = Mono.defer(loader)
+                    .cast(Object.class)
+                    .doFinally(signal -> inFlight.remove(key, self[0]))
+                    .cache();
+            existing = inFlight.putIfAbsent(key, self[0]);
+            if (existing != null) {
+                return (Mono<T>) join(key, existing);
+            }
+            executions.increment();
+            return (Mono<T>) self[0];
+        });
+    }
+
+    /**
+     * 捨棄 key 以 prefix 開頭的執行中項目；已加入的請求仍會收到原本的結果
+     */
+    public void forget(String prefix) {
+        inFlight.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private Mono<Object> join(String key, Mono<Object> flight) {
+        coalesced.increment();
+        logger.debug("🔗 合併到執行中的讀取: {}", key);
+        return flight;
+    }
+}
@@ -1,30 +1,98 @@
 package com.vinskao.ty_multiverse_consumer.core.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vinskao.ty_multiverse_consumer.core.dto.RawJson;
 import com.vinskao.ty_multiverse_consumer.service.RedisService;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * 資源快取管理服務
  * 負責統一管理的資源快取鍵名與清理邏輯
+ *
+ * <p>兩層快取：L1 為進程內 Caffeine（以位元組權重與 TTL 淘汰），L2 為 Redis。
+ * 讀取先查 L1，未命中才查 Redis 並回填 L1；寫入與清理同時作用於兩層。
+ * L1 以 UTF-8 位元組保存，{@link #getCacheRaw(String)} 命中時可直接嵌入結果消息。</p>
+ *
+ * <p>清理時另透過 {@link CacheInvalidationBus} 通知其他實例清除各自的 L1。</p>
  */
 @Service
 public class ResourceCacheManager {
 
     private static final Logger logger = LoggerFactory.getLogger(ResourceCacheManager.class);
 
+    /**
+     * 資源清理時一併移除的動作快取
+     */
+    private static final List<String> EVICTED_ACTIONS = List.of("getAll", "names");
+
+    /**
+     * 資源清理時依前綴一併移除的動作快取（鍵中帶參數，例如 {@code people:getByName:Alice}）
+     */
+    private static final List<String> EVICTED_ACTION_PREFIXES = List.of("getByName:");
+
     @Autowired(required = false)
     private RedisService redisService;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${ty.multiverse.consumer.cache.l1.enabled:true}")
+    private boolean l1Enabled;
+
+    // L1 總權重上限（位元組）
+    @Value("${ty.multiverse.consumer.cache.l1.max-weight-bytes:33554432}")
+    private long l1MaxWeightBytes;
+
+    // L1 最長存活時間；寫入時取此值與呼叫端 TTL 的較小者
+    @Value("${ty.multiverse.consumer.cache.l1.ttl:30s}")
+    private Duration l1Ttl;
+
+    private Cache<String, L1Entry> l1Cache;
+
+    private final AtomicLong l2Hits = new AtomicLong();
+    private final AtomicLong l2Misses = new AtomicLong();
+
+    private final List<Consumer<String>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    void initL1Cache() {
+        invalidationBus.addListener(this::evictLocal);
+        if (!l1Enabled) {
+            logger.info("ℹ️ L1 快取已停用，僅使用 Redis");
+            return;
+        }
+        l1Cache = Caffeine.newBuilder()
+                .maximumWeight(l1MaxWeightBytes)
+                .weigher((String key, L1Entry entry) -> entry.weightBytes(key))
+                .expireAfter(new L1Expiry())
+                .recordStats()
+                .build();
+        logger.info("✅ L1 快取已啟用: maxWeight={} bytes, ttl={}", l1MaxWeightBytes, l1Ttl);
+    }
+
     /**
      * 獲取資源的特定動作快取鍵
      */
@@ -40,43 +108,185 @@ public class ResourceCacheManager {
     }
 
     /**
-     * 清理資源的所有相關快取
+     * 清理資源的所有相關快取（L1 與 Redis），並通知其他實例
+     *
+     * <p>L1 在 Redis 刪除前後各清一次：刪除完成前的讀取可能在 L1 未命中後讀到 Redis 的舊值並回填 L1，
+     * 刪除後再清一次才不會在 L1 TTL 內繼續提供寫入前的資料。</p>
      */
     public Mono<Void> evictCache(String resourceName) {
+        Mono<Void> local = Mono.fromRunnable(() -> evictLocal(resourceName));
         if (redisService == null) {
-            return Mono.empty();
+            return local;
         }
 
-        // 清理 getAll 與 names (如果有的話)
-        return Mono.when(
-                redisService.delete(getGetAllKey(resourceName)),
-                redisService.delete(getCacheKey(resourceName, "names"))).then()
+        // 清理 getAll、names 與各名稱的 getByName
+        List<Mono<?>> deletes = new ArrayList<>();
+        getEvictedKeys(resourceName).forEach(key -> deletes.add(redisService.delete(key)));
+        getEvictedPrefixes(resourceName).forEach(prefix -> deletes.add(redisService.deleteByPrefix(prefix)));
+        return Mono.fromRunnable(() -> invalidateL1(resourceName))
+                .then(Mono.when(deletes))
+                .then(local)
+                .then(invalidationBus.publish(resourceName))
                 .doOnSuccess(v -> logger.info("🗑️ 已清理資源 [{}] 的相關快取", resourceName));
     }
 
+    /**
+     * 註冊資源失效的處理器（本實例寫入與遠端失效事件都會觸發），參數為資源名稱
+     */
+    public void addEvictionListener(Consumer<String> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * 只清理本實例的 L1 快取並通知本地處理器（收到遠端失效事件時使用）
+     */
+    private void evictLocal(String resourceName) {
+        invalidateL1(resourceName);
+        for (Consumer<String> listener : evictionListeners) {
+            try {
+                listener.accept(resourceName);
+            } catch (RuntimeException e) {
+                logger.error("❌ 處理資源失效失敗: resource={}, error={}", resourceName, e.getMessage());
+            }
+        }
+    }
+
+    private void invalidateL1(String resourceName) {
+        if (l1Cache != null) {
+            l1Cache.invalidateAll(getEvictedKeys(resourceName));
+            List<String> prefixes = getEvictedPrefixes(resourceName);
+            l1Cache.asMap().keySet().removeIf(key -> prefixes.stream().anyMatch(key::startsWith));
+        }
+    }
+
+    private List<String> getEvictedKeys(String resourceName) {
+        return EVICTED_ACTIONS.stream()
+                .map(action -> getCacheKey(resourceName, action))
+                .toList();
+    }
+
+    private List<String> getEvictedPrefixes(String resourceName) {
+        return EVICTED_ACTION_PREFIXES.stream()
+                .map(prefix -> getCacheKey(resourceName, prefix))
+                .toList();
+    }
+
     /**
      * 獲取快取內容
      */
     public Mono<String> getCache(String key) {
+        return getCacheRaw(key).map(RawJson::getValue);
+    }
+
+    /**
+     * 獲取快取的原始 JSON：L1 命中直接回傳位元組，否則查 Redis 並回填 L1
+     */
+    public Mono<RawJson> getCacheRaw(String key) {
+        if (l1Cache != null) {
+            L1Entry entry = l1Cache.getIfPresent(key);
+            if (entry != null) {
+                logger.debug("L1 HIT {}", key);
+                return Mono.just(entry.json());
+            }
+        }
         if (redisService == null) {
             return Mono.empty();
         }
-        return redisService.get(key);
+        return redisService.get(key)
+                .map(json -> {
+                    l2Hits.incrementAndGet();
+                    RawJson raw = RawJson.of(json.getBytes(StandardCharsets.UTF_8));
+                    putL1(key, raw, l1Ttl);
+                    return raw;
+                })
+                .switchIfEmpty(Mono.fromRunnable(l2Misses::incrementAndGet));
+    }
+
+    /**
+     * 序列化為原始 JSON 並寫入快取，回傳的 {@link RawJson} 可直接作為結果消息的 data，
+     * 避免同一份資料序列化兩次
+     */
+    public Mono<RawJson> putCacheRaw(String key, Object value, Duration ttl) {
+        return Mono.fromCallable(() -> RawJson.of(objectMapper.writeValueAsBytes(value)))
+                .flatMap(raw -> putCache(key, raw, ttl).thenReturn(raw));
     }
 
     /**
      * 寫入快取 (支援物件自動序列化)
      */
     public Mono<Void> putCache(String key, Object value, Duration ttl) {
-        if (redisService == null) {
+        if (l1Cache == null && redisService == null) {
             return Mono.empty();
         }
         return Mono.fromCallable(() -> {
+            if (value instanceof RawJson raw)
+                return raw;
             if (value instanceof String)
-                return (String) value;
-            return objectMapper.writeValueAsString(value);
+                return RawJson.of(((String) value).getBytes(StandardCharsets.UTF_8));
+            return RawJson.of(objectMapper.writeValueAsBytes(value));
         })
-                .flatMap(json -> redisService.set(key, json, ttl))
+                .flatMap(raw -> {
+                    putL1(key, raw, ttl);
+                    return redisService == null ? Mono.empty() : redisService.set(key, raw.getValue(), ttl);
+                })
                 .then();
     }
+
+    /**
+     * 快取命中統計（L1 來自 Caffeine，L2 為 L1 未命中後的 Redis 查詢結果）
+     */
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        if (l1Cache != null) {
+            CacheStats l1 = l1Cache.stats();
+            stats.put("l1Hits", l1.hitCount());
+            stats.put("l1Misses", l1.missCount());
+            stats.put("l1Evictions", l1.evictionCount());
+            stats.put("l1EvictionWeightBytes", l1.evictionWeight());
+            stats.put("l1Entries", l1Cache.estimatedSize());
+        }
+        stats.put("l2Hits", l2Hits.get());
+        stats.put("l2Misses", l2Misses.get());
+        return stats;
+    }
+
+    private void putL1(String key, RawJson json, Duration ttl) {
+        if (l1Cache == null) {
+            return;
+        }
+        Duration effectiveTtl = ttl == null || ttl.compareTo(l1Ttl) > 0 ? l1Ttl : ttl;
+        l1Cache.put(key, new L1Entry(json, effectiveTtl.toNanos()));
+    }
+
+    /**
+     * L1 快取項目，攜帶各自的存活時間
+     */
+    private record L1Entry(RawJson json, long ttlNanos) {
+
+        int weightBytes(String key) {
+            long bytes = 2L * key.length() + json.size();
+            return (int) Math.min(bytes, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 依項目自身 TTL 過期；讀取不延長存活時間
+     */
+    private static final class L1Expiry implements Expiry<String, L1Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, L1Entry entry, long currentTime) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, L1Entry entry, long currentTime, long currentDuration) {
+            return entry.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, L1Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package com.vinskao.ty_multiverse_consumer.core.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Delivery;
+import com.vinskao.ty_multiverse_consumer.core.dto.AsyncMessageHeader;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 異步消息串流解析器
+ *
+ * <p>直接在消息 body 的 byte[] 上以 {@link JsonParser} 逐 token 讀取，
+ * 不建立中介的 String、{@code Map}/{@code List} 樹或完整的實體列表。</p>
+ *
+ * <ul>
+ * <li>{@link #readMessage(Delivery, Class)}：整則消息直接從 byte[] 反序列化</li>
+ * <li>{@link #readHeader(byte[])}：讀取標頭欄位並計算 payload 陣列長度（只跳過 token，不建立物件）</li>
+ * <li>{@link #readPayloadArray(byte[], Class)}：依下游需求逐筆反序列化 payload 陣列元素</li>
+ * </ul>
+ *
+ * <p>編碼契約：消息 body 為 UTF-8 JSON。只有 AMQP content-encoding 明確宣告其他字元集時才先轉成 String，
+ * 不再依賴平台預設字元集。</p>
+ */
+@Component
+public class AsyncMessageStreamReader {
+
+    private static final String PAYLOAD_FIELD = "payload";
+
+    private final ObjectMapper objectMapper;
+
+    public AsyncMessageStreamReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 將整則消息反序列化為指定型別
+     *
+     * <p>UTF-8（或未宣告字元集）的 body 直接交給 Jackson 的位元組 parser，不複製成 String。</p>
+     *
+     * @throws IOException JSON 格式錯誤
+     */
+    public <T> T readMessage(Delivery delivery, Class<T> type) throws IOException {
+        byte[] body = delivery.getBody();
+        Charset charset = declaredCharset(delivery.getProperties());
+        if (charset == null || StandardCharsets.UTF_8.equals(charset)) {
+            return objectMapper.readValue(body, type);
+        }
+        return objectMapper.readValue(new String(body, charset), type);
+    }
+
+    /**
+     * AMQP content-encoding 宣告的字元集；未宣告或不是字元集名稱（例如 gzip）時為 null
+     */
+    private static Charset declaredCharset(AMQP.BasicProperties properties) {
+        String encoding = properties != null ? properties.getContentEncoding() : null;
+        if (encoding == null || encoding.isBlank()) {
+            return null;
+        }
+        try {
+            return Charset.forName(encoding.trim());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 讀取消息標頭，payload 只計數不解析
+     *
+     * <p>payload 欄位重複時與 {@link #readPayloadArray(byte[], Class)} 一樣只採用第一個，
+     * 筆數才會與實際串流出的元素一致。</p>
+     *
+     * @param body 消息 body（UTF-8 JSON）
+     * @return 消息標頭
+     * @throws IOException JSON 格式錯誤
+     */
+    public AsyncMessageHeader readHeader(byte[] body) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("消息格式錯誤：預期為 JSON 物件");
+            }
+
+            AsyncMessageHeader header = new AsyncMessageHeader();
+            boolean payloadSeen = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "requestId" -> header.setRequestId(parser.getValueAsString());
+                    case "endpoint" -> header.setEndpoint(parser.getValueAsString());
+                    case "method" -> header.setMethod(parser.getValueAsString());
+                    case "source" -> header.setSource(parser.getValueAsString());
+                    case "timestamp" -> header.setTimestamp(value == JsonToken.VALUE_NULL ? null : parser.getValueAsLong());
+                    case PAYLOAD_FIELD -> {
+                        if (payloadSeen) {
+                            parser.skipChildren();
+                        } else {
+                            header.setPayloadSize(countArrayElements(parser));
+                            payloadSeen = true;
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            return header;
+        }
+    }
+
+    /**
+     * 逐筆反序列化 payload 陣列
+     *
+     * <p>使用 {@link Flux#generate} 依下游請求量讀取，記憶體只保留正在處理的元素；
+     * 每次訂閱都會重新建立 parser，因此可重複訂閱。</p>
+     *
+     * @param body        消息 body（UTF-8 JSON）
+     * @param elementType 陣列元素型別
+     * @return payload 元素串流；payload 缺少或不是陣列時以 {@link IllegalArgumentException} 結束
+     */
+    public <T> Flux<T> readPayloadArray(byte[] body, Class<T> elementType) {
+        return Flux.generate(
+                () -> openPayloadArray(body),
+                (parser, sink) -> {
+                    try {
+                        JsonToken token = parser.nextToken();
+                        if (token == null || token == JsonToken.END_ARRAY) {
+                            sink.complete();
+                        } else {
+                            sink.next(objectMapper.readValue(parser, elementType));
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                    return parser;
+                },
+                parser -> {
+                    try {
+                        parser.close();
+                    } catch (IOException ignored) {
+                        // byte[] 來源關閉不會失敗
+                    }
+                });
+    }
+
+    /**
+     * 建立 parser 並前進到 payload 陣列的 START_ARRAY
+     */
+    private JsonParser openPayloadArray(byte[] body) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(body);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("消息格式錯誤：預期為 JSON 物件");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (PAYLOAD_FIELD.equals(field)) {
+                    if (value != JsonToken.START_ARRAY) {
+                        throw new IllegalArgumentException("無效的 payload 格式，預期為陣列");
+                    }
+                    return parser;
+                }
+                parser.skipChildren();
+            }
+            throw new IllegalArgumentException("消息缺少 payload 欄位");
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+    }
+
+    private static int countArrayElements(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return -1;
+        }
+        int count = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            parser.skipChildren();
+            count++;
+        }
+        return count;
+    }
+}
@@ -19,7 +19,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleNameRequestDTO;
 import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
 import com.vinskao.ty_multiverse_consumer.module.people.service.PeopleService;
+import com.vinskao.ty_multiverse_consumer.module.people.service.WeaponDamageService;
 import com.vinskao.ty_multiverse_consumer.core.service.AsyncMessageService;
+import com.vinskao.ty_multiverse_consumer.core.service.ResourceCacheManager;
 
 import java.util.List;
 import java.util.HashMap;
@@ -34,6 +36,13 @@ public class PeopleController {
 
     @Autowired
     private PeopleService peopleService;
+
+    @Autowired
+    private WeaponDamageService weaponDamageService;
+
+    // 寫入後清理快取並廣播，其他實例的角色快取與傷害記憶才會失效
+    @Autowired
+    private ResourceCacheManager cacheManager;
     
     @Autowired(required = false)
     private AsyncMessageService asyncMessageService;
@@ -50,6 +59,8 @@ public class PeopleController {
     @PostMapping("/insert")
     public Mono<ResponseEntity<Object>> insertPeople(@RequestBody People people) {
         return peopleService.insertPerson(people)
+            .doOnNext(weaponDamageService::onPersonSaved)
+            .flatMap(savedPeople -> cacheManager.evictCache("people").thenReturn(savedPeople))
             .map(savedPeople -> ResponseEntity.status(HttpStatus.CREATED).body((Object) savedPeople))
             .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body((Object) ("Invalid input: " + e.getMessage()))))
             .onErrorResume(RuntimeException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body((Object) ("Internal server error: " + e.getMessage()))))
@@ -72,6 +83,8 @@ public class PeopleController {
 
         // 嘗試更新
         return peopleService.updatePerson(people)
+            .doOnNext(weaponDamageService::onPersonSaved)
+            .flatMap(updatedPeople -> cacheManager.evictCache("people").thenReturn(updatedPeople))
             .map(updatedPeople -> ResponseEntity.ok((Object) updatedPeople))
             .onErrorResume(IllegalArgumentException.class, e -> {
                 logger.error("Invalid input while updating person", e);
@@ -94,6 +107,8 @@ public class PeopleController {
     public Mono<ResponseEntity<Object>> insertMultiplePeople(@RequestBody List<People> peopleList) {
         return peopleService.saveAllPeople(peopleList)
             .collectList()
+            .doOnNext(savedPeople -> weaponDamageService.onPeopleReset())
+            .flatMap(savedPeople -> cacheManager.evictCache("people").thenReturn(savedPeople))
             .map(savedPeople -> ResponseEntity.status(HttpStatus.CREATED).body((Object) savedPeople))
             .onErrorResume(IllegalArgumentException.class, e ->
                 Mono.just(ResponseEntity.badRequest().body((Object) ("Invalid input: " + e.getMessage()))))
@@ -158,6 +173,8 @@ public class PeopleController {
     @PostMapping("/delete-all")
     public Mono<ResponseEntity<Object>> deleteAllPeople() {
         return peopleService.deleteAllPeople()
+            .doOnSuccess(v -> weaponDamageService.onPeopleReset())
+            .then(cacheManager.evictCache("people"))
             .then(Mono.just(ResponseEntity.noContent().build()))
             .onErrorResume(RuntimeException.class, e ->
                 Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body((Object) ("Internal server error: " + e.getMessage()))))
@@ -4,6 +4,8 @@ import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.vinskao.ty_multiverse_consumer.core.repository.StringPkRepository;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleSummaryProfile;
 import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -13,11 +15,16 @@ import java.util.List;
 @Repository
 public interface PeopleRepository extends StringPkRepository<People> {
 
+    // 投影欄位：combat 只含傷害計算需要的欄位，summary 為列表顯示用的欄位；full 即 People 本身
+    String COMBAT_COLUMNS = "name, physic_power, magic_power, utility_power, attributes, state_attributes, version";
+    String SUMMARY_COLUMNS = "name, name_original, code_name, race, gender, age, profession, job, faction, "
+            + "army_name, dept_name, attributes, version";
+
     // 大小寫敏感的查詢（保留原有方法）
     Mono<People> findByName(String name);
 
-    // 大小寫不敏感的查詢（新增）
-    @Query("SELECT * FROM people WHERE LOWER(name) = LOWER(:name)")
+    // 大小寫不敏感的查詢，使用 idx_people_name_lower 運算式索引；只差大小寫的多筆時優先完全相符者
+    @Query("SELECT * FROM people WHERE LOWER(name) = LOWER(:name) ORDER BY (name = :name) DESC LIMIT 1")
     Mono<People> findByNameIgnoreCase(@Param("name") String name);
 
     Mono<Boolean> existsByName(String name);
@@ -26,6 +33,28 @@ public interface PeopleRepository extends StringPkRepository<People> {
     @Query("SELECT * FROM people WHERE name IN (:names)")
     Flux<People> findByNamesIn(@Param("names") List<String> names);
 
+    // combat 投影查詢
+    @Query("SELECT " + COMBAT_COLUMNS + " FROM people WHERE name IN (:names)")
+    Flux<PeopleCombatProfile> findCombatProfilesByNamesIn(@Param("names") List<String> names);
+
+    @Query("SELECT " + COMBAT_COLUMNS + " FROM people WHERE name = :name")
+    Mono<PeopleCombatProfile> findCombatProfileByName(@Param("name") String name);
+
+    @Query("SELECT " + COMBAT_COLUMNS
+            + " FROM people WHERE LOWER(name) = LOWER(:name) ORDER BY (name = :name) DESC LIMIT 1")
+    Mono<PeopleCombatProfile> findCombatProfileByNameIgnoreCase(@Param("name") String name);
+
+    // summary 投影查詢
+    @Query("SELECT " + SUMMARY_COLUMNS + " FROM people ORDER BY name")
+    Flux<PeopleSummaryProfile> findAllSummaryProfiles();
+
+    // Keyset 分頁：依主鍵排序取第一頁 / 指定名稱之後的一頁
+    @Query("SELECT * FROM people ORDER BY name LIMIT :limit")
+    Flux<People> findFirstPage(@Param("limit") int limit);
+
+    @Query("SELECT * FROM people WHERE name > :after ORDER BY name LIMIT :limit")
+    Flux<People> findPageAfter(@Param("after") String after, @Param("limit") int limit);
+
     // 新增：只查詢名稱，避免載入所有欄位
     @Query("SELECT name FROM people")
     Flux<String> findAllNames();
@@ -33,4 +62,8 @@ public interface PeopleRepository extends StringPkRepository<People> {
     // 新增：根據單一屬性查詢
     @Query("SELECT * FROM people WHERE attributes IS NOT NULL AND attributes LIKE CONCAT('%', :attribute, '%')")
     Flux<People> findByAttributeContaining(@Param("attribute") String attribute);
+
+    // 多屬性一次查詢：pattern 為各屬性跳脫後以 | 串接的正規表示式，可使用 idx_people_attributes_trgm
+    @Query("SELECT * FROM people WHERE attributes ~ :pattern")
+    Flux<People> findByAttributesMatching(@Param("pattern") String pattern);
 }
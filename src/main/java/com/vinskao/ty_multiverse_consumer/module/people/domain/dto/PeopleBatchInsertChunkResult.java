@@ -0,0 +1,76 @@
+package com.vinskao.ty_multiverse_consumer.module.people.domain.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+
+/**
+ * 批量新增角色的單一分塊結果
+ *
+ * <p>每個分塊以一條多列 INSERT 寫入，成功時帶回已寫入的角色（或只帶筆數），
+ * 失敗時帶回錯誤訊息，方便上層逐塊回報。</p>
+ */
+public class PeopleBatchInsertChunkResult {
+
+    private final long chunkIndex;
+    private final int offset;
+    private final int size;
+    private final List<People> savedPeople;
+    private final String error;
+
+    private PeopleBatchInsertChunkResult(long chunkIndex, int offset, int size, List<People> savedPeople,
+            String error) {
+        this.chunkIndex = chunkIndex;
+        this.offset = offset;
+        this.size = size;
+        this.savedPeople = savedPeople;
+        this.error = error;
+    }
+
+    public static PeopleBatchInsertChunkResult success(long chunkIndex, int offset, List<People> savedPeople) {
+        return new PeopleBatchInsertChunkResult(chunkIndex, offset, savedPeople.size(), savedPeople, null);
+    }
+
+    /**
+     * 成功但不保留角色（大批量時只回報筆數）
+     */
+    public static PeopleBatchInsertChunkResult success(long chunkIndex, int offset, int size) {
+        return new PeopleBatchInsertChunkResult(chunkIndex, offset, size, Collections.emptyList(), null);
+    }
+
+    public static PeopleBatchInsertChunkResult failure(long chunkIndex, int offset, int size, String error) {
+        return new PeopleBatchInsertChunkResult(chunkIndex, offset, size, Collections.emptyList(), error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public long getChunkIndex() {
+        return chunkIndex;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public List<People> getSavedPeople() {
+        return savedPeople;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * 失敗分塊的摘要，例如 {@code chunk#3[600..799]: duplicate key}
+     */
+    public String describeFailure() {
+        return String.format("chunk#%d[%d..%d]: %s", chunkIndex, offset, offset + size - 1, error);
+    }
+}
@@ -0,0 +1,41 @@
+package com.vinskao.ty_multiverse_consumer.module.people.domain.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 角色 "combat" 投影
+ *
+ * <p>只包含傷害計算需要的欄位（名稱、三項能力值、屬性、狀態屬性）與版本號，
+ * 由 {@code PeopleRepository} 的 combat 查詢直接映射，不載入自由文字欄位。</p>
+ */
+@Data
+@NoArgsConstructor
+public class PeopleCombatProfile {
+
+    /**
+     * 角色名稱（主鍵）
+     */
+    private String name;
+
+    private Integer physicPower;
+
+    private Integer magicPower;
+
+    private Integer utilityPower;
+
+    /**
+     * 屬性，與武器的加成屬性比對
+     */
+    private String attributes;
+
+    /**
+     * 狀態屬性，與武器的狀態屬性比對
+     */
+    private String stateAttributes;
+
+    /**
+     * 樂觀鎖版本號
+     */
+    private Long version;
+}
@@ -0,0 +1,41 @@
+package com.vinskao.ty_multiverse_consumer.module.people.domain.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 角色 "summary" 投影
+ *
+ * <p>列表顯示用的識別與分類欄位，不含能力值以外的長文字欄位
+ * （personality、likes、interest、physics 等）。</p>
+ */
+@Data
+@NoArgsConstructor
+public class PeopleSummaryProfile {
+
+    private String name;
+
+    private String nameOriginal;
+
+    private String codeName;
+
+    private String race;
+
+    private String gender;
+
+    private Integer age;
+
+    private String profession;
+
+    private String job;
+
+    private String faction;
+
+    private String armyName;
+
+    private String deptName;
+
+    private String attributes;
+
+    private Long version;
+}
@@ -0,0 +1,101 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 屬性查詢字串的 LIKE 解讀
+ *
+ * <p>原本逐屬性以 {@code attributes LIKE CONCAT('%', :attribute, '%')} 查詢，屬性字串本身依 LIKE 規則解讀：
+ * {@code _} 為任一字元、{@code %} 為任意長度字串、反斜線跳脫下一個字元（以反斜線結尾時 PostgreSQL 會報錯）。
+ * 合併查詢的正規表示式與 {@link PeopleAttributeIndex} 都經由此類別解析，結果與原本的查詢一致。</p>
+ */
+final class AttributeLikePattern {
+
+    private static final char ESCAPE = '\\';
+
+    private final String postgresRegex;
+    private final List<String> literals;
+    // 沒有萬用字元時為 null，直接以 String.contains 比對
+    private final Pattern javaPattern;
+
+    private AttributeLikePattern(String postgresRegex, List<String> literals, Pattern javaPattern) {
+        this.postgresRegex = postgresRegex;
+        this.literals = literals;
+        this.javaPattern = javaPattern;
+    }
+
+    /**
+     * @throws IllegalArgumentException 以跳脫字元結尾（同 PostgreSQL 的 LIKE 錯誤）
+     */
+    static AttributeLikePattern parse(String attribute) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder javaRegex = new StringBuilder();
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean wildcard = false;
+
+        for (int i = 0; i < attribute.length(); i++) {
+            char c = attribute.charAt(i);
+            if (c == '_' || c == '%') {
+                wildcard = true;
+                flushLiteral(literal, literals, javaRegex);
+                regex.append(c == '_' ? "." : ".*");
+                javaRegex.append(c == '_' ? "." : ".*");
+                continue;
+            }
+            if (c == ESCAPE) {
+                if (++i == attribute.length()) {
+                    throw new IllegalArgumentException("屬性查詢不可以跳脫字元結尾: " + attribute);
+                }
+                c = attribute.charAt(i);
+            }
+            // ARE 中反斜線加非英數字元即為該字元本身
+            if (c < 128 && !Character.isLetterOrDigit(c) && c != ' ') {
+                regex.append('\\');
+            }
+            regex.append(c);
+            literal.append(c);
+        }
+        flushLiteral(literal, literals, javaRegex);
+
+        Pattern javaPattern = wildcard ? Pattern.compile(javaRegex.toString(), Pattern.DOTALL) : null;
+        return new AttributeLikePattern(regex.toString(), List.copyOf(literals), javaPattern);
+    }
+
+    private static void flushLiteral(StringBuilder literal, List<String> literals, StringBuilder javaRegex) {
+        if (literal.length() > 0) {
+            literals.add(literal.toString());
+            javaRegex.append(Pattern.quote(literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    /**
+     * PostgreSQL ARE 正規表示式，{@code attributes ~ pattern} 與 {@code LIKE '%屬性%'} 結果相同
+     */
+    String toPostgresRegex() {
+        return postgresRegex;
+    }
+
+    /**
+     * 萬用字元之間的字面片段，符合的值必定包含每一段
+     */
+    List<String> literals() {
+        return literals;
+    }
+
+    /**
+     * value 是否包含此樣式（同 {@code value LIKE '%屬性%'}）
+     */
+    boolean matches(String value) {
+        if (value == null) {
+            return false;
+        }
+        if (javaPattern == null) {
+            return literals.isEmpty() || value.contains(literals.get(0));
+        }
+        return javaPattern.matcher(value).find();
+    }
+}
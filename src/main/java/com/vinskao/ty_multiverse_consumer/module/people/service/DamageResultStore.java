@@ -0,0 +1,223 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vinskao.ty_multiverse_consumer.module.people.dao.DamageCalculationResultRepository;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.DamageCalculationResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 傷害計算結果儲存（write-behind）
+ *
+ * <p>消費者算出結果後呼叫 {@link #recordSuccess} / {@link #recordError}，結果先放進記憶體內的近期結果並推入緩衝，由背景管線
+ * 依 {@code batch-size} / {@code flush-interval} 攢批，以單一多列 UPSERT 寫入
+ * {@code damage_calculation_result}。寫入不在結果發佈的路徑上：緩衝已滿或資料庫失敗只會少存幾筆，
+ * 不影響回覆 Producer。</p>
+ *
+ * <p>{@link #findCompleted} 先查近期結果（包含尚未寫入的），需要時再查資料庫，讓同一 requestId 的
+ * 重送直接回傳已算出的結果。只有 success 的結果會被重複使用，失敗的請求重送時會重新計算。</p>
+ */
+@Service
+public class DamageResultStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DamageResultStore.class);
+
+    static final String STATUS_SUCCESS = "success";
+    static final String STATUS_ERROR = "error";
+
+    private static final String UPSERT_COLUMNS =
+            "request_id, character_name, damage_value, status, error_message, created_at, completed_at";
+
+    private static final String UPSERT_CONFLICT = " ON CONFLICT (request_id) DO UPDATE SET "
+            + "character_name = EXCLUDED.character_name, damage_value = EXCLUDED.damage_value, "
+            + "status = EXCLUDED.status, error_message = EXCLUDED.error_message, "
+            + "completed_at = EXCLUDED.completed_at";
+
+    private final DamageCalculationResultRepository repository;
+    private final DatabaseClient databaseClient;
+    private final Sinks.Many<DamageCalculationResult> pending;
+    private final Cache<String, DamageCalculationResult> recent;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final boolean lookupDatabase;
+    private final Sinks.Empty<Void> drained = Sinks.empty();
+
+    public DamageResultStore(DamageCalculationResultRepository repository, DatabaseClient databaseClient,
+            @Value("${ty.multiverse.consumer.damage.result-store.buffer-size:4096}") int bufferSize,
+            @Value("${ty.multiverse.consumer.damage.result-store.batch-size:200}") int batchSize,
+            @Value("${ty.multiverse.consumer.damage.result-store.flush-interval:1s}") Duration flushInterval,
+            @Value("${ty.multiverse.consumer.damage.result-store.recent-size:10000}") long recentSize,
+            @Value("${ty.multiverse.consumer.damage.result-store.recent-ttl:10m}") Duration recentTtl,
+            @Value("${ty.multiverse.consumer.damage.result-store.lookup-database:false}") boolean lookupDatabase) {
+        this.repository = repository;
+        this.databaseClient = databaseClient;
+        this.pending = Sinks.many().multicast().onBackpressureBuffer(bufferSize, false);
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(recentSize)
+                .expireAfterWrite(recentTtl)
+                .build();
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = flushInterval;
+        this.lookupDatabase = lookupDatabase;
+    }
+
+    @PostConstruct
+    void start() {
+        pending.asFlux()
+                // fairBackpressure：寫入較慢時由上游 sink 緩衝，否則計時器到期而下游仍在 flush 會直接中止管線
+                .bufferTimeout(batchSize, flushInterval, true)
+                .concatMap(this::flush)
+                .subscribe(null,
+                        e -> {
+                            logger.error("❌ 傷害結果寫入管線中止: {}", e.getMessage());
+                            drained.tryEmitEmpty();
+                        },
+                        drained::tryEmitEmpty);
+        logger.info("✅ 傷害結果寫入管線已啟動: batchSize={}, flushInterval={}", batchSize, flushInterval);
+    }
+
+    @PreDestroy
+    void stop() {
+        pending.tryEmitComplete();
+        try {
+            drained.asMono().block(flushInterval.plusSeconds(5));
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ 關閉前未能寫完傷害結果: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 查詢已成功計算的結果
+     *
+     * @param requestId  請求 ID
+     * @param redelivery 是否為 broker 重送；重送時即使未開啟 lookup-database 也會查資料庫
+     * @return 已有成功結果時回傳，否則為空
+     */
+    public Mono<DamageCalculationResult> findCompleted(String requestId, boolean redelivery) {
+        if (requestId == null) {
+            return Mono.empty();
+        }
+        DamageCalculationResult cached = recent.getIfPresent(requestId);
+        if (cached != null) {
+            return STATUS_SUCCESS.equals(cached.getStatus()) ? Mono.just(cached) : Mono.empty();
+        }
+        if (!lookupDatabase && !redelivery) {
+            return Mono.empty();
+        }
+        return repository.findByRequestId(requestId)
+                .filter(stored -> STATUS_SUCCESS.equals(stored.getStatus()))
+                .onErrorResume(e -> {
+                    logger.warn("⚠️ 查詢傷害結果失敗，改為重新計算: requestId={}, error={}", requestId,
+                            e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 記錄成功的計算結果
+     */
+    public void recordSuccess(String requestId, String characterName, int damage) {
+        DamageCalculationResult result = new DamageCalculationResult(requestId, characterName);
+        result.setDamageValue(damage);
+        result.setStatus(STATUS_SUCCESS);
+        result.setCompletedAt(LocalDateTime.now());
+        record(result);
+    }
+
+    /**
+     * 記錄失敗的計算結果
+     */
+    public void recordError(String requestId, String characterName, String errorMessage) {
+        DamageCalculationResult result = new DamageCalculationResult(requestId, characterName);
+        result.setStatus(STATUS_ERROR);
+        result.setErrorMessage(errorMessage);
+        result.setCompletedAt(LocalDateTime.now());
+        record(result);
+    }
+
+    private void record(DamageCalculationResult result) {
+        if (result.getRequestId() == null) {
+            return;
+        }
+        recent.put(result.getRequestId(), result);
+        try {
+            // 多個消費者執行緒同時寫入時短暫重試，緩衝已滿則放棄
+            pending.emitNext(result, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+        } catch (Sinks.EmissionException e) {
+            logger.warn("⚠️ 傷害結果緩衝無法寫入，略過持久化: requestId={}, reason={}", result.getRequestId(),
+                    e.getReason());
+        }
+    }
+
+    /**
+     * 以單一多列 UPSERT 寫入一批結果；失敗時重試，仍失敗則放棄這批
+     */
+    private Mono<Void> flush(List<DamageCalculationResult> buffered) {
+        // 同一條 UPSERT 不能更新同一列兩次，同批重複的 requestId 只保留最後一筆
+        Map<String, DamageCalculationResult> latest = new LinkedHashMap<>();
+        buffered.forEach(result -> latest.put(result.getRequestId(), result));
+        List<DamageCalculationResult> batch = new ArrayList<>(latest.values());
+        return Mono.defer(() -> upsert(batch))
+                .retryWhen(Retry.backoff(3, Duration.ofMillis(200)))
+                .doOnSuccess(rows -> logger.debug("💾 傷害結果已寫入: rows={}", batch.size()))
+                .onErrorResume(e -> {
+                    logger.error("❌ 傷害結果寫入失敗，捨棄 {} 筆: {}", batch.size(), e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Mono<Long> upsert(List<DamageCalculationResult> batch) {
+        StringBuilder sql = new StringBuilder("INSERT INTO damage_calculation_result (")
+                .append(UPSERT_COLUMNS)
+                .append(") VALUES ");
+        for (int row = 0; row < batch.size(); row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:requestId_").append(row)
+                    .append(", :characterName_").append(row)
+                    .append(", :damageValue_").append(row)
+                    .append(", :status_").append(row)
+                    .append(", :errorMessage_").append(row)
+                    .append(", :createdAt_").append(row)
+                    .append(", :completedAt_").append(row)
+                    .append(')');
+        }
+        sql.append(UPSERT_CONFLICT);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int row = 0; row < batch.size(); row++) {
+            DamageCalculationResult result = batch.get(row);
+            spec = bindValue(spec, "requestId_" + row, result.getRequestId(), String.class);
+            spec = bindValue(spec, "characterName_" + row, result.getCharacterName(), String.class);
+            spec = bindValue(spec, "damageValue_" + row, result.getDamageValue(), Integer.class);
+            spec = bindValue(spec, "status_" + row, result.getStatus(), String.class);
+            spec = bindValue(spec, "errorMessage_" + row, result.getErrorMessage(), String.class);
+            spec = bindValue(spec, "createdAt_" + row, result.getCreatedAt(), LocalDateTime.class);
+            spec = bindValue(spec, "completedAt_" + row, result.getCompletedAt(), LocalDateTime.class);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindValue(DatabaseClient.GenericExecuteSpec spec,
+            String name, Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
@@ -0,0 +1,202 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.vinskao.ty_multiverse_consumer.core.service.ResourceCacheManager;
+import com.vinskao.ty_multiverse_consumer.module.people.dao.PeopleRepository;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.util.retry.Retry;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 角色屬性的記憶體內三元組倒排索引（選用）
+ *
+ * <p>開啟 {@code ty.multiverse.consumer.people.attribute-index.enabled} 後，啟動時載入全部角色，
+ * 將每個角色的 attributes 拆成三字元片段建立倒排表。查詢語意與資料庫的
+ * {@code attributes LIKE '%x%'} 相同（大小寫敏感，屬性中的 {@code _ %} 與反斜線依
+ * {@link AttributeLikePattern} 解讀）：先取各字面片段三元組中最短的倒排表作為候選，再逐列確認；
+ * 沒有三個字元以上的字面片段時直接掃描全部角色。</p>
+ *
+ * <p>索引是不可變快照，"people" 資源失效時（本實例寫入或其他實例的失效事件）整份重新載入；
+ * 重新載入期間仍使用舊快照。</p>
+ */
+@Service
+public class PeopleAttributeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeopleAttributeIndex.class);
+
+    private static final String PEOPLE_RESOURCE = "people";
+    private static final int GRAM = 3;
+
+    private final PeopleRepository peopleRepository;
+    private final ResourceCacheManager cacheManager;
+    private final boolean enabled;
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public PeopleAttributeIndex(PeopleRepository peopleRepository, ResourceCacheManager cacheManager,
+            @Value("${ty.multiverse.consumer.people.attribute-index.enabled:false}") boolean enabled) {
+        this.peopleRepository = peopleRepository;
+        this.cacheManager = cacheManager;
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void subscribeChanges() {
+        if (!enabled) {
+            return;
+        }
+        cacheManager.addEvictionListener(resource -> {
+            if (PEOPLE_RESOURCE.equals(resource)) {
+                requestReload();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (enabled) {
+            requestReload();
+        }
+    }
+
+    /**
+     * 索引是否可用於查詢
+     */
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    /**
+     * 查詢 attributes 包含任一指定屬性的角色，每個角色只出現一次
+     *
+     * @throws IllegalArgumentException 屬性以跳脫字元結尾
+     */
+    public List<People> find(List<String> attributes) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+        List<AttributeLikePattern> patterns = attributes.stream()
+                .filter(Objects::nonNull)
+                .map(AttributeLikePattern::parse)
+                .toList();
+        BitSet matched = new BitSet(current.people.length);
+        for (AttributeLikePattern pattern : patterns) {
+            current.match(pattern, matched);
+        }
+        List<People> result = new ArrayList<>(matched.cardinality());
+        for (int row = matched.nextSetBit(0); row >= 0; row = matched.nextSetBit(row + 1)) {
+            result.add(current.people[row]);
+        }
+        return result;
+    }
+
+    private void requestReload() {
+        reloadRequested.set(true);
+        if (reloading.compareAndSet(false, true)) {
+            runReload();
+        }
+    }
+
+    private void runReload() {
+        reloadRequested.set(false);
+        peopleRepository.findAll()
+                .collectList()
+                .retryWhen(Retry.backoff(5, Duration.ofSeconds(1)))
+                .subscribe(people -> {
+                    snapshot = Snapshot.build(people);
+                    logger.info("🔎 角色屬性索引已載入: people={}, grams={}", people.size(),
+                            snapshot.postings.size());
+                    finishReload();
+                }, error -> {
+                    logger.error("❌ 角色屬性索引載入失敗: {}", error.getMessage());
+                    finishReload();
+                });
+    }
+
+    private void finishReload() {
+        reloading.set(false);
+        if (reloadRequested.get() && reloading.compareAndSet(false, true)) {
+            runReload();
+        }
+    }
+
+    /**
+     * 不可變的索引快照；倒排表內為依序遞增的列號
+     */
+    private static final class Snapshot {
+
+        private final People[] people;
+        private final String[] attributes;
+        private final Map<String, int[]> postings;
+
+        private Snapshot(People[] people, String[] attributes, Map<String, int[]> postings) {
+            this.people = people;
+            this.attributes = attributes;
+            this.postings = postings;
+        }
+
+        static Snapshot build(List<People> rows) {
+            People[] people = rows.toArray(new People[0]);
+            String[] attributes = new String[people.length];
+            Map<String, BitSet> grams = new HashMap<>();
+            for (int row = 0; row < people.length; row++) {
+                String value = people[row].getAttributes();
+                attributes[row] = value;
+                if (value == null) {
+                    continue;
+                }
+                for (int i = 0; i + GRAM <= value.length(); i++) {
+                    grams.computeIfAbsent(value.substring(i, i + GRAM), gram -> new BitSet()).set(row);
+                }
+            }
+            Map<String, int[]> postings = new HashMap<>(grams.size() * 2);
+            grams.forEach((gram, rowSet) -> postings.put(gram, rowSet.stream().toArray()));
+            return new Snapshot(people, attributes, postings);
+        }
+
+        void match(AttributeLikePattern pattern, BitSet matched) {
+            int[] candidates = null;
+            for (String literal : pattern.literals()) {
+                for (int i = 0; i + GRAM <= literal.length(); i++) {
+                    int[] posting = postings.get(literal.substring(i, i + GRAM));
+                    if (posting == null) {
+                        return;
+                    }
+                    if (candidates == null || posting.length < candidates.length) {
+                        candidates = posting;
+                    }
+                }
+            }
+            if (candidates != null) {
+                for (int row : candidates) {
+                    if (pattern.matches(attributes[row])) {
+                        matched.set(row);
+                    }
+                }
+                return;
+            }
+            for (int row = 0; row < attributes.length; row++) {
+                if (pattern.matches(attributes[row])) {
+                    matched.set(row);
+                }
+            }
+        }
+    }
+}
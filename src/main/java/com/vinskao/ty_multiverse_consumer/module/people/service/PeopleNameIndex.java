@@ -0,0 +1,80 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.vinskao.ty_multiverse_consumer.module.people.dao.PeopleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 角色名稱大小寫對照表（小寫名稱 → 主鍵）
+ *
+ * <p>啟動時以 {@code SELECT name FROM people} 載入，之後由查詢結果補充。命中時
+ * {@link PeopleService#getPeopleByName} 直接以主鍵查詢；對照表不追蹤刪除，查不到主鍵時由呼叫端
+ * 呼叫 {@link #forget} 移除並改走 {@code LOWER(name)} 索引查詢，因此過期的項目只會多一次主鍵查詢。</p>
+ *
+ * <p>若有多個角色名稱只差在大小寫，該小寫名稱標為不明確，{@link #resolve} 回傳 null，
+ * 交由資料庫查詢依「完全相符優先」決定，避免換成另一個角色的主鍵。</p>
+ */
+@Service
+public class PeopleNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeopleNameIndex.class);
+
+    private final PeopleRepository peopleRepository;
+    private final Map<String, String> nameByFolded = new ConcurrentHashMap<>();
+    // 對應到多個名稱的小寫名稱
+    private final Set<String> ambiguous = ConcurrentHashMap.newKeySet();
+
+    public PeopleNameIndex(PeopleRepository peopleRepository) {
+        this.peopleRepository = peopleRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        peopleRepository.findAllNames()
+                .doOnNext(this::remember)
+                .count()
+                .subscribe(count -> logger.info("🔤 角色名稱對照表已載入: names={}", count),
+                        e -> logger.warn("⚠️ 角色名稱對照表載入失敗，查詢將走資料庫: {}", e.getMessage()));
+    }
+
+    /**
+     * 查詢名稱對應的主鍵（大小寫不敏感）
+     *
+     * @return 主鍵；不在對照表或有多個只差大小寫的名稱時為 null
+     */
+    public String resolve(String name) {
+        if (name == null) {
+            return null;
+        }
+        String folded = fold(name);
+        return ambiguous.contains(folded) ? null : nameByFolded.get(folded);
+    }
+
+    public void remember(String name) {
+        if (name != null) {
+            String folded = fold(name);
+            String existing = nameByFolded.putIfAbsent(folded, name);
+            if (existing != null && !existing.equals(name)) {
+                ambiguous.add(folded);
+            }
+        }
+    }
+
+    public void forget(String name) {
+        if (name != null) {
+            nameByFolded.remove(fold(name), name);
+        }
+    }
+
+    private static String fold(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,19 +1,27 @@
 package com.vinskao.ty_multiverse_consumer.module.people.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.r2dbc.core.DatabaseClient;
 
+import com.vinskao.ty_multiverse_consumer.core.service.BulkCopyLoader;
+import com.vinskao.ty_multiverse_consumer.core.service.BulkCopySpec;
 import com.vinskao.ty_multiverse_consumer.module.people.dao.PeopleRepository;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleBatchInsertChunkResult;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleSummaryProfile;
 import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -30,20 +38,79 @@ public class PeopleService {
 
     private static final Logger logger = LoggerFactory.getLogger(PeopleService.class);
 
+    /**
+     * INSERT 欄位，順序須與 {@link #INSERT_PARAMETERS} 一致
+     */
+    private static final String[] INSERT_COLUMNS = {
+            "name_original", "code_name", "name", "physic_power", "magic_power", "utility_power",
+            "dob", "race", "attributes", "gender", "ass_size", "boobs_size", "height_cm", "weight_kg",
+            "profession", "combat", "favorite_foods", "job", "physics", "known_as", "personality",
+            "interest", "likes", "dislikes", "concubine", "faction", "army_id", "army_name",
+            "dept_id", "dept_name", "origin_army_id", "origin_army_name", "gave_birth",
+            "email", "age", "proxy", "base_attributes", "bonus_attributes", "state_attributes",
+            "created_at", "updated_at", "version"
+    };
+
+    /**
+     * INSERT 綁定參數名稱（多列 INSERT 時會加上列號後綴）
+     */
+    private static final String[] INSERT_PARAMETERS = {
+            "nameOriginal", "codeName", "name", "physicPower", "magicPower", "utilityPower",
+            "dob", "race", "attributes", "gender", "assSize", "boobsSize", "heightCm", "weightKg",
+            "profession", "combat", "favoriteFoods", "job", "physics", "knownAs", "personality",
+            "interest", "likes", "dislikes", "concubine", "faction", "armyId", "armyName",
+            "deptId", "deptName", "originArmyId", "originArmyName", "gaveBirth",
+            "email", "age", "proxy", "baseAttributes", "bonusAttributes", "stateAttributes",
+            "createdAt", "updatedAt", "version"
+    };
+
+    /**
+     * PostgreSQL 單一語句最多 65535 個綁定參數
+     */
+    private static final int MAX_CHUNK_SIZE = 65535 / INSERT_PARAMETERS.length;
+
+    /**
+     * COPY 批量載入：與分塊 INSERT 相同只新增，名稱已存在時整批失敗
+     */
+    private static final BulkCopySpec<People> PEOPLE_COPY_SPEC = BulkCopySpec.insertOnly(
+            "people", "name", List.of(INSERT_COLUMNS), PeopleService::toInsertValues);
+
     private final PeopleRepository peopleRepository;
     private final DatabaseClient databaseClient;
     private final ObjectMapper objectMapper;
+    private final BulkCopyLoader bulkCopyLoader;
+    private final PeopleNameIndex nameIndex;
+    private final PeopleAttributeIndex attributeIndex;
+    private final int batchInsertChunkSize;
+    private final int batchInsertConcurrency;
+    private final int copyThreshold;
 
     /**
      * 建構函數
      * 
-     * @param peopleRepository 角色資料庫操作介面
-     * @param databaseClient   R2DBC DatabaseClient
+     * @param peopleRepository       角色資料庫操作介面
+     * @param databaseClient         R2DBC DatabaseClient
+     * @param bulkCopyLoader         COPY 批量載入服務
+     * @param nameIndex              角色名稱大小寫對照表
+     * @param attributeIndex         角色屬性記憶體索引（選用）
+     * @param batchInsertChunkSize   批量新增時每條 INSERT 的列數
+     * @param batchInsertConcurrency 批量新增時同時執行的分塊數
+     * @param copyThreshold          筆數達到此值時改用 COPY 載入
      */
-    public PeopleService(PeopleRepository peopleRepository, DatabaseClient databaseClient, ObjectMapper objectMapper) {
+    public PeopleService(PeopleRepository peopleRepository, DatabaseClient databaseClient, ObjectMapper objectMapper,
+            BulkCopyLoader bulkCopyLoader, PeopleNameIndex nameIndex, PeopleAttributeIndex attributeIndex,
+            @Value("${ty.multiverse.consumer.people.batch-insert.chunk-size:500}") int batchInsertChunkSize,
+            @Value("${ty.multiverse.consumer.people.batch-insert.concurrency:2}") int batchInsertConcurrency,
+            @Value("${ty.multiverse.consumer.bulk-load.copy-threshold:5000}") int copyThreshold) {
         this.peopleRepository = peopleRepository;
         this.databaseClient = databaseClient;
         this.objectMapper = objectMapper;
+        this.bulkCopyLoader = bulkCopyLoader;
+        this.nameIndex = nameIndex;
+        this.attributeIndex = attributeIndex;
+        this.batchInsertChunkSize = Math.max(1, Math.min(batchInsertChunkSize, MAX_CHUNK_SIZE));
+        this.batchInsertConcurrency = Math.max(1, batchInsertConcurrency);
+        this.copyThreshold = copyThreshold;
     }
 
     /**
@@ -64,6 +131,23 @@ public class PeopleService {
         return findAll();
     }
 
+    /**
+     * 以 keyset 分頁依名稱順序讀取所有角色
+     *
+     * <p>每頁以上一頁最後一個名稱為起點（{@code WHERE name > :after ORDER BY name}），走主鍵索引，
+     * 不使用 OFFSET；下游請求時才查下一頁，記憶體只保留目前的頁。</p>
+     *
+     * @param pageSize 每頁筆數
+     * @return 依序的非空頁面
+     */
+    public Flux<List<People>> getAllPeopleInPages(int pageSize) {
+        int size = Math.max(1, pageSize);
+        return peopleRepository.findFirstPage(size).collectList()
+                .expand(page -> page.size() < size ? Mono.empty()
+                        : peopleRepository.findPageAfter(page.get(page.size() - 1).getName(), size).collectList())
+                .filter(page -> !page.isEmpty());
+    }
+
     /**
      * 優化版本：獲取所有角色（使用批量查詢優化）
      *
@@ -98,12 +182,16 @@ public class PeopleService {
     /**
      * 根據名稱獲取角色（大小寫不敏感）
      *
+     * <p>先以 {@link PeopleNameIndex} 換成主鍵查詢；對照表沒有或主鍵已不存在時，
+     * 改用 {@code LOWER(name)} 索引查詢並把結果記入對照表。</p>
+     *
      * @param name 角色名稱
      * @return 角色資訊，如果不存在則返回空
      */
     public Mono<People> getPeopleByName(String name) {
         logger.debug("查詢角色: name={}", name);
-        return peopleRepository.findByNameIgnoreCase(name)
+        return resolveByName(name, peopleRepository::findByName, peopleRepository::findByNameIgnoreCase,
+                People::getName)
                 .doOnNext(people -> logger.debug("找到角色: name={}", people.getName()))
                 .doOnSuccess(people -> {
                     if (people == null) {
@@ -112,6 +200,50 @@ public class PeopleService {
                 });
     }
 
+    /**
+     * 根據名稱取得角色的 combat 投影（大小寫不敏感），查詢方式同 {@link #getPeopleByName}
+     *
+     * @param name 角色名稱
+     * @return 傷害計算需要的欄位，如果不存在則返回空
+     */
+    public Mono<PeopleCombatProfile> getCombatProfileByName(String name) {
+        return resolveByName(name, peopleRepository::findCombatProfileByName,
+                peopleRepository::findCombatProfileByNameIgnoreCase, PeopleCombatProfile::getName);
+    }
+
+    /**
+     * 根據多個名稱取得角色的 combat 投影
+     */
+    public Flux<PeopleCombatProfile> findCombatProfilesByNames(List<String> names) {
+        return peopleRepository.findCombatProfilesByNamesIn(names);
+    }
+
+    /**
+     * 依名稱順序取得所有角色的 summary 投影
+     */
+    public Flux<PeopleSummaryProfile> getAllPeopleSummaries() {
+        return peopleRepository.findAllSummaryProfiles();
+    }
+
+    /**
+     * 先以名稱對照表換成主鍵查詢，沒有或已不存在時改用大小寫不敏感查詢並記入對照表
+     */
+    private <T> Mono<T> resolveByName(String name, java.util.function.Function<String, Mono<T>> byPrimaryKey,
+            java.util.function.Function<String, Mono<T>> byFoldedName,
+            java.util.function.Function<T, String> nameOf) {
+        Mono<T> folded = Mono.defer(() -> byFoldedName.apply(name))
+                .doOnNext(row -> nameIndex.remember(nameOf.apply(row)));
+        String primaryKey = nameIndex.resolve(name);
+        if (primaryKey == null) {
+            return folded;
+        }
+        return byPrimaryKey.apply(primaryKey)
+                .switchIfEmpty(Mono.defer(() -> {
+                    nameIndex.forget(primaryKey);
+                    return folded;
+                }));
+    }
+
     /**
      * 根據ID查詢角色
      * 
@@ -156,131 +288,264 @@ public class PeopleService {
     }
 
     /**
-     * 保存所有角色（使用 DatabaseClient 執行完整 INSERT）
+     * 保存所有角色（分塊批量 INSERT）
      * 不加 @Transactional 以允許多連接並發，避免單一連線非多路復用(non-multiplexing)錯誤
      *
+     * <p>任一分塊失敗時以錯誤結束；需要逐塊結果時請使用 {@link #saveAllPeopleInChunks(List)}。</p>
+     *
      * @param peopleList 要保存的角色列表
      * @return 保存後的角色列表
      */
     public Flux<People> saveAllPeople(List<People> peopleList) {
-        logger.info("開始批量保存角色，總數量: {}，使用並發寫入", peopleList.size());
+        return flattenChunks(saveAllPeopleInChunks(peopleList));
+    }
 
-        return Flux.fromIterable(peopleList)
-                .index()
-                .flatMap(tuple -> { // 使用 flatMap 並發執行，提高插入速度
-                    Long index = tuple.getT1();
-                    People people = tuple.getT2();
+    /**
+     * 批量保存角色，依筆數自動選擇寫入方式
+     *
+     * @param peopleList 要保存的角色列表
+     * @return 分塊結果
+     * @see #bulkSavePeople(Flux, int, boolean)
+     */
+    public Flux<PeopleBatchInsertChunkResult> bulkSavePeople(List<People> peopleList) {
+        return bulkSavePeople(Flux.fromIterable(peopleList), peopleList.size(), true);
+    }
 
-                    logger.info("處理第 {} 個角色: name={}", index + 1, people.getName());
+    /**
+     * 串流批量保存角色，依預期筆數自動選擇寫入方式
+     *
+     * <p>筆數達到 {@code ty.multiverse.consumer.bulk-load.copy-threshold} 時改用 COPY 載入
+     * （整批視為單一分塊回報），否則使用分塊多列 INSERT。資料庫不支援 COPY 時自動退回分塊 INSERT。
+     * 角色串流可能被重新訂閱（退回時），來源須可重複訂閱。</p>
+     *
+     * <p>兩種寫入方式都只新增：名稱已存在（或同批重複）時該次寫入失敗並回報失敗分塊，不會覆寫既有角色；
+     * COPY 整批在同一交易內，失敗時整批不寫入。</p>
+     *
+     * @param people       要保存的角色串流
+     * @param expectedSize 預期筆數，用於選擇寫入方式
+     * @param retainRows   分塊結果是否保留已寫入的角色；關閉時只回報筆數，記憶體不隨批量成長
+     * @return 分塊結果
+     */
+    public Flux<PeopleBatchInsertChunkResult> bulkSavePeople(Flux<People> people, int expectedSize,
+            boolean retainRows) {
+        if (copyThreshold <= 0 || expectedSize < copyThreshold) {
+            return saveAllPeopleInChunks(people, retainRows);
+        }
 
-                    // 確保基本字段不為 null
-                    if (people.getName() == null) {
-                        String errorMsg = String.format("角色名稱為 null，索引: %d", index);
-                        logger.error(errorMsg);
-                        return Mono.error(new IllegalArgumentException(errorMsg));
-                    }
+        logger.info("角色數量 {} 達到 COPY 門檻 {}，使用 COPY 批量載入", expectedSize, copyThreshold);
+        return Flux.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<People> retained = retainRows ? new ArrayList<>(expectedSize) : null;
+            AtomicInteger copied = new AtomicInteger();
+            Flux<People> prepared = people.doOnNext(person -> {
+                prepareForInsert(person, copied.getAndIncrement(), now);
+                if (retained != null) {
+                    retained.add(person);
+                }
+            });
+
+            return bulkCopyLoader.load(PEOPLE_COPY_SPEC, prepared)
+                    .map(merged -> retained != null
+                            ? PeopleBatchInsertChunkResult.success(0, 0, retained)
+                            : PeopleBatchInsertChunkResult.success(0, 0, copied.get()))
+                    .flux()
+                    .onErrorResume(UnsupportedOperationException.class, e -> {
+                        logger.warn("COPY 不可用，改用分塊 INSERT: {}", e.getMessage());
+                        return saveAllPeopleInChunks(people, retainRows);
+                    })
+                    .onErrorResume(e -> Flux.just(
+                            PeopleBatchInsertChunkResult.failure(0, 0, expectedSize, e.getMessage())));
+        });
+    }
 
-                    // 設置時間戳
-                    if (people.getCreatedAt() == null) {
-                        people.setCreatedAt(LocalDateTime.now());
-                    }
-                    people.setUpdatedAt(LocalDateTime.now());
+    /**
+     * 將分塊結果攤平成角色串流，遇到失敗分塊時以錯誤結束
+     */
+    private Flux<People> flattenChunks(Flux<PeopleBatchInsertChunkResult> chunks) {
+        return chunks.concatMap(chunk -> chunk.isSuccess()
+                ? Flux.fromIterable(chunk.getSavedPeople())
+                : Flux.error(new IllegalStateException("批量保存角色失敗: " + chunk.describeFailure())));
+    }
+
+    /**
+     * 分塊批量保存角色
+     *
+     * @param peopleList 要保存的角色列表
+     * @return 依輸入順序排列的分塊結果
+     * @see #saveAllPeopleInChunks(Flux, boolean)
+     */
+    public Flux<PeopleBatchInsertChunkResult> saveAllPeopleInChunks(List<People> peopleList) {
+        logger.info("開始批量保存角色，總數量: {}", peopleList.size());
+        return saveAllPeopleInChunks(Flux.fromIterable(peopleList), true);
+    }
+
+    /**
+     * 分塊批量保存角色
+     *
+     * <p>依 {@code ty.multiverse.consumer.people.batch-insert.chunk-size} 將角色分塊，
+     * 每塊只送出一條多列 INSERT，取代逐筆 INSERT 的大量往返。
+     * 分塊失敗不會中斷其他分塊，而是以失敗結果回傳。
+     * 上游依分塊並發數拉取資料，同時在記憶體中的角色不超過「分塊大小 × 並發數」。</p>
+     *
+     * @param people     要保存的角色串流
+     * @param retainRows 分塊結果是否保留已寫入的角色
+     * @return 依輸入順序排列的分塊結果
+     */
+    private Flux<PeopleBatchInsertChunkResult> saveAllPeopleInChunks(Flux<People> people, boolean retainRows) {
+        logger.info("分塊保存角色: 分塊大小: {}，分塊並發: {}", batchInsertChunkSize, batchInsertConcurrency);
+
+        return people
+                .buffer(batchInsertChunkSize)
+                .index()
+                .flatMapSequential(tuple -> {
+                    long chunkIndex = tuple.getT1();
+                    List<People> chunk = tuple.getT2();
+                    int offset = (int) (chunkIndex * batchInsertChunkSize);
+
+                    return Mono.defer(() -> {
+                        prepareForInsert(chunk, offset);
+                        return insertPeopleChunk(chunk);
+                    })
+                            .map(saved -> retainRows
+                                    ? PeopleBatchInsertChunkResult.success(chunkIndex, offset, saved)
+                                    : PeopleBatchInsertChunkResult.success(chunkIndex, offset, saved.size()))
+                            .doOnNext(result -> logger.info("成功保存第 {} 塊角色: offset={}, size={}",
+                                    chunkIndex, offset, result.getSize()))
+                            .onErrorResume(e -> {
+                                logger.error("保存第 {} 塊角色失敗: offset={}, size={}, error={}",
+                                        chunkIndex, offset, chunk.size(), e.getMessage(), e);
+                                return Mono.just(PeopleBatchInsertChunkResult.failure(
+                                        chunkIndex, offset, chunk.size(), e.getMessage()));
+                            });
+                }, batchInsertConcurrency, 1); // 保留連線池餘量給其他消費者；prefetch=1 控制記憶體
+    }
+
+    /**
+     * 檢查必要欄位並設置時間戳
+     */
+    private void prepareForInsert(List<People> chunk, int offset) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < chunk.size(); i++) {
+            prepareForInsert(chunk.get(i), offset + i, now);
+        }
+    }
 
-                    // 使用 DatabaseClient 執行完整的 INSERT 語句
-                    return insertPeopleWithAllFields(people)
-                            .doOnNext(savedPeople -> logger.info("成功保存角色: name={}, version={}",
-                                    people.getName(), savedPeople.getVersion()))
-                            .doOnError(e -> logger.error("保存角色失敗: name={}, error={}",
-                                    people.getName(), e.getMessage(), e));
-                }, 5); // 限制最大並發數為 5 (與連線池 max-size 一致)
+    private void prepareForInsert(People people, int index, LocalDateTime now) {
+        if (people.getName() == null) {
+            throw new IllegalArgumentException(String.format("角色名稱為 null，索引: %d", index));
+        }
+        if (people.getCreatedAt() == null) {
+            people.setCreatedAt(now);
+        }
+        people.setUpdatedAt(now);
     }
 
     /**
-     * 使用 DatabaseClient 插入角色（包含所有字段）
+     * 使用單一多列 INSERT 寫入一個分塊
      *
-     * @param people 要插入的角色
+     * @param chunk 要插入的角色
      * @return 插入後的角色
      */
-    private Mono<People> insertPeopleWithAllFields(People people) {
-        String sql = """
-                INSERT INTO people (
-                    name_original, code_name, name, physic_power, magic_power, utility_power,
-                    dob, race, attributes, gender, ass_size, boobs_size, height_cm, weight_kg,
-                    profession, combat, favorite_foods, job, physics, known_as, personality,
-                    interest, likes, dislikes, concubine, faction, army_id, army_name,
-                    dept_id, dept_name, origin_army_id, origin_army_name, gave_birth,
-                    email, age, proxy, base_attributes, bonus_attributes, state_attributes,
-                    created_at, updated_at, version
-                ) VALUES (
-                    :nameOriginal, :codeName, :name, :physicPower, :magicPower, :utilityPower,
-                    :dob, :race, :attributes, :gender, :assSize, :boobsSize, :heightCm, :weightKg,
-                    :profession, :combat, :favoriteFoods, :job, :physics, :knownAs, :personality,
-                    :interest, :likes, :dislikes, :concubine, :faction, :armyId, :armyName,
-                    :deptId, :deptName, :originArmyId, :originArmyName, :gaveBirth,
-                    :email, :age, :proxy, :baseAttributes, :bonusAttributes, :stateAttributes,
-                    :createdAt, :updatedAt, :version
-                )
-                """;
-
-        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
-
-        // 打印調試信息
-        logger.debug("準備綁定字段值:");
-        logger.debug("  codeName={}, dob={}, race={}, gender={}",
-                people.getCodeName(), people.getDob(), people.getRace(), people.getGender());
-        logger.debug("  profession={}, job={}, physics={}, email={}",
-                people.getProfession(), people.getJob(), people.getPhysics(), people.getEmail());
+    private Mono<List<People>> insertPeopleChunk(List<People> chunk) {
+        StringBuilder sql = new StringBuilder("INSERT INTO people (")
+                .append(String.join(", ", INSERT_COLUMNS))
+                .append(") VALUES ");
+        for (int row = 0; row < chunk.size(); row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append('(');
+            for (int col = 0; col < INSERT_PARAMETERS.length; col++) {
+                if (col > 0) {
+                    sql.append(", ");
+                }
+                sql.append(':').append(INSERT_PARAMETERS[col]).append('_').append(row);
+            }
+            sql.append(')');
+        }
 
-        // 綁定所有字段，處理 null 值
-        spec = bindValue(spec, "nameOriginal", people.getNameOriginal(), String.class);
-        spec = bindValue(spec, "codeName", people.getCodeName(), String.class);
-        spec = bindValue(spec, "name", people.getName(), String.class);
-        spec = bindValue(spec, "physicPower", people.getPhysicPower(), Integer.class);
-        spec = bindValue(spec, "magicPower", people.getMagicPower(), Integer.class);
-        spec = bindValue(spec, "utilityPower", people.getUtilityPower(), Integer.class);
-        spec = bindValue(spec, "dob", people.getDob(), String.class);
-        spec = bindValue(spec, "race", people.getRace(), String.class);
-        spec = bindValue(spec, "attributes", people.getAttributes(), String.class);
-        spec = bindValue(spec, "gender", people.getGender(), String.class);
-        spec = bindValue(spec, "assSize", people.getAssSize(), String.class);
-        spec = bindValue(spec, "boobsSize", people.getBoobsSize(), String.class);
-        spec = bindValue(spec, "heightCm", people.getHeightCm(), Integer.class);
-        spec = bindValue(spec, "weightKg", people.getWeightKg(), Integer.class);
-        spec = bindValue(spec, "profession", people.getProfession(), String.class);
-        spec = bindValue(spec, "combat", people.getCombat(), String.class);
-        spec = bindValue(spec, "favoriteFoods", people.getFavoriteFoods(), String.class);
-        spec = bindValue(spec, "job", people.getJob(), String.class);
-        spec = bindValue(spec, "physics", people.getPhysics(), String.class);
-        spec = bindValue(spec, "knownAs", people.getKnownAs(), String.class);
-        spec = bindValue(spec, "personality", people.getPersonality(), String.class);
-        spec = bindValue(spec, "interest", people.getInterest(), String.class);
-        spec = bindValue(spec, "likes", people.getLikes(), String.class);
-        spec = bindValue(spec, "dislikes", people.getDislikes(), String.class);
-        spec = bindValue(spec, "concubine", people.getConcubine(), String.class);
-        spec = bindValue(spec, "faction", people.getFaction(), String.class);
-        spec = bindValue(spec, "armyId", people.getArmyId(), Integer.class);
-        spec = bindValue(spec, "armyName", people.getArmyName(), String.class);
-        spec = bindValue(spec, "deptId", people.getDeptId(), Integer.class);
-        spec = bindValue(spec, "deptName", people.getDeptName(), String.class);
-        spec = bindValue(spec, "originArmyId", people.getOriginArmyId(), Integer.class);
-        spec = bindValue(spec, "originArmyName", people.getOriginArmyName(), String.class);
-        spec = bindValue(spec, "gaveBirth", people.getGaveBirth(), Boolean.class);
-        spec = bindValue(spec, "email", people.getEmail(), String.class);
-        spec = bindValue(spec, "age", people.getAge(), Integer.class);
-        spec = bindValue(spec, "proxy", people.getProxy(), String.class);
-        spec = bindValue(spec, "baseAttributes", people.getBaseAttributes(), String.class);
-        spec = bindValue(spec, "bonusAttributes", people.getBonusAttributes(), String.class);
-        spec = bindValue(spec, "stateAttributes", people.getStateAttributes(), String.class);
-        spec = bindValue(spec, "createdAt", people.getCreatedAt(), LocalDateTime.class);
-        spec = bindValue(spec, "updatedAt", people.getUpdatedAt(), LocalDateTime.class);
-        spec = bindValue(spec, "version", people.getVersion() != null ? people.getVersion() : 0L, Long.class);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int row = 0; row < chunk.size(); row++) {
+            spec = bindPeopleFields(spec, chunk.get(row), "_" + row);
+        }
 
         return spec.fetch()
                 .rowsUpdated()
-                .thenReturn(people)
-                .doOnSuccess(p -> logger.debug("DatabaseClient INSERT 成功: name={}", p.getName()))
-                .doOnError(e -> logger.error("DatabaseClient INSERT 失敗: name={}, error={}",
-                        people.getName(), e.getMessage(), e));
+                .thenReturn(chunk)
+                .doOnSuccess(saved -> logger.debug("DatabaseClient 批量 INSERT 成功: rows={}", saved.size()));
+    }
+
+    /**
+     * 角色的 INSERT 欄位值，順序與 {@link #INSERT_COLUMNS} 一致
+     */
+    private static Object[] toInsertValues(People people) {
+        return new Object[] {
+                people.getNameOriginal(), people.getCodeName(), people.getName(),
+                people.getPhysicPower(), people.getMagicPower(), people.getUtilityPower(),
+                people.getDob(), people.getRace(), people.getAttributes(), people.getGender(),
+                people.getAssSize(), people.getBoobsSize(), people.getHeightCm(), people.getWeightKg(),
+                people.getProfession(), people.getCombat(), people.getFavoriteFoods(), people.getJob(),
+                people.getPhysics(), people.getKnownAs(), people.getPersonality(),
+                people.getInterest(), people.getLikes(), people.getDislikes(), people.getConcubine(),
+                people.getFaction(), people.getArmyId(), people.getArmyName(),
+                people.getDeptId(), people.getDeptName(), people.getOriginArmyId(), people.getOriginArmyName(),
+                people.getGaveBirth(), people.getEmail(), people.getAge(), people.getProxy(),
+                people.getBaseAttributes(), people.getBonusAttributes(), people.getStateAttributes(),
+                people.getCreatedAt(), people.getUpdatedAt(),
+                people.getVersion() != null ? people.getVersion() : 0L
+        };
+    }
+
+    /**
+     * 綁定角色所有 INSERT 欄位，參數名稱為 {@link #INSERT_PARAMETERS} 加上後綴
+     */
+    private DatabaseClient.GenericExecuteSpec bindPeopleFields(DatabaseClient.GenericExecuteSpec spec,
+            People people, String suffix) {
+        // 綁定所有字段，處理 null 值
+        spec = bindValue(spec, "nameOriginal" + suffix, people.getNameOriginal(), String.class);
+        spec = bindValue(spec, "codeName" + suffix, people.getCodeName(), String.class);
+        spec = bindValue(spec, "name" + suffix, people.getName(), String.class);
+        spec = bindValue(spec, "physicPower" + suffix, people.getPhysicPower(), Integer.class);
+        spec = bindValue(spec, "magicPower" + suffix, people.getMagicPower(), Integer.class);
+        spec = bindValue(spec, "utilityPower" + suffix, people.getUtilityPower(), Integer.class);
+        spec = bindValue(spec, "dob" + suffix, people.getDob(), String.class);
+        spec = bindValue(spec, "race" + suffix, people.getRace(), String.class);
+        spec = bindValue(spec, "attributes" + suffix, people.getAttributes(), String.class);
+        spec = bindValue(spec, "gender" + suffix, people.getGender(), String.class);
+        spec = bindValue(spec, "assSize" + suffix, people.getAssSize(), String.class);
+        spec = bindValue(spec, "boobsSize" + suffix, people.getBoobsSize(), String.class);
+        spec = bindValue(spec, "heightCm" + suffix, people.getHeightCm(), Integer.class);
+        spec = bindValue(spec, "weightKg" + suffix, people.getWeightKg(), Integer.class);
+        spec = bindValue(spec, "profession" + suffix, people.getProfession(), String.class);
+        spec = bindValue(spec, "combat" + suffix, people.getCombat(), String.class);
+        spec = bindValue(spec, "favoriteFoods" + suffix, people.getFavoriteFoods(), String.class);
+        spec = bindValue(spec, "job" + suffix, people.getJob(), String.class);
+        spec = bindValue(spec, "physics" + suffix, people.getPhysics(), String.class);
+        spec = bindValue(spec, "knownAs" + suffix, people.getKnownAs(), String.class);
+        spec = bindValue(spec, "personality" + suffix, people.getPersonality(), String.class);
+        spec = bindValue(spec, "interest" + suffix, people.getInterest(), String.class);
+        spec = bindValue(spec, "likes" + suffix, people.getLikes(), String.class);
+        spec = bindValue(spec, "dislikes" + suffix, people.getDislikes(), String.class);
+        spec = bindValue(spec, "concubine" + suffix, people.getConcubine(), String.class);
+        spec = bindValue(spec, "faction" + suffix, people.getFaction(), String.class);
+        spec = bindValue(spec, "armyId" + suffix, people.getArmyId(), Integer.class);
+        spec = bindValue(spec, "armyName" + suffix, people.getArmyName(), String.class);
+        spec = bindValue(spec, "deptId" + suffix, people.getDeptId(), Integer.class);
+        spec = bindValue(spec, "deptName" + suffix, people.getDeptName(), String.class);
+        spec = bindValue(spec, "originArmyId" + suffix, people.getOriginArmyId(), Integer.class);
+        spec = bindValue(spec, "originArmyName" + suffix, people.getOriginArmyName(), String.class);
+        spec = bindValue(spec, "gaveBirth" + suffix, people.getGaveBirth(), Boolean.class);
+        spec = bindValue(spec, "email" + suffix, people.getEmail(), String.class);
+        spec = bindValue(spec, "age" + suffix, people.getAge(), Integer.class);
+        spec = bindValue(spec, "proxy" + suffix, people.getProxy(), String.class);
+        spec = bindValue(spec, "baseAttributes" + suffix, people.getBaseAttributes(), String.class);
+        spec = bindValue(spec, "bonusAttributes" + suffix, people.getBonusAttributes(), String.class);
+        spec = bindValue(spec, "stateAttributes" + suffix, people.getStateAttributes(), String.class);
+        spec = bindValue(spec, "createdAt" + suffix, people.getCreatedAt(), LocalDateTime.class);
+        spec = bindValue(spec, "updatedAt" + suffix, people.getUpdatedAt(), LocalDateTime.class);
+        spec = bindValue(spec, "version" + suffix, people.getVersion() != null ? people.getVersion() : 0L,
+                Long.class);
+        return spec;
     }
 
     /**
@@ -549,10 +814,35 @@ public class PeopleService {
      * @return 具有匹配屬性的角色列表
      */
     public Flux<People> findByAttributes(List<String> attributes) {
-        // ✅ 優化：使用 reactive flatMap 處理多個屬性查詢
-        return Flux.fromIterable(attributes)
-                .flatMap(attr -> peopleRepository.findByAttributeContaining(attr))
-                .distinct(); // 移除重複結果
+        List<String> wanted = attributes == null ? List.of()
+                : attributes.stream().filter(java.util.Objects::nonNull).distinct().toList();
+        if (wanted.isEmpty()) {
+            return Flux.empty();
+        }
+        if (attributeIndex.isReady()) {
+            return Flux.defer(() -> Flux.fromIterable(attributeIndex.find(wanted)));
+        }
+        // 單一查詢取代逐屬性 LIKE，每列只會回傳一次，不需再以整個物件去重
+        return Flux.defer(() -> peopleRepository.findByAttributesMatching(toContainsPattern(wanted)));
+    }
+
+    /**
+     * 將屬性轉成「包含任一屬性」的 PostgreSQL 正規表示式，語意同逐屬性的 {@code LIKE '%屬性%'}
+     * （屬性中的 {@code _ %} 與反斜線依 LIKE 規則解讀，見 {@link AttributeLikePattern}）
+     *
+     * @throws IllegalArgumentException 屬性以跳脫字元結尾
+     */
+    static String toContainsPattern(List<String> attributes) {
+        List<String> branches = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            String branch = AttributeLikePattern.parse(attribute).toPostgresRegex();
+            // 空屬性（或只有 %）符合所有非 null 的值，整個條件即為空樣式
+            if (branch.isEmpty() || branch.equals(".*")) {
+                return "";
+            }
+            branches.add(branch);
+        }
+        return String.join("|", branches);
     }
 
     /**
@@ -578,20 +868,19 @@ public class PeopleService {
      */
     @Transactional(readOnly = false)
     public Flux<People> insertMultiplePeopleFromObject(Object payload) {
-        return Mono.fromCallable(() -> objectMapper.convertValue(payload,
-                new com.fasterxml.jackson.core.type.TypeReference<List<People>>() {
-                })).flatMapMany(this::saveAllPeople);
+        return flattenChunks(insertMultiplePeopleInChunksFromObject(payload));
     }
 
     /**
-     * 計算武器傷害
+     * 從物件轉換並批量插入角色，回傳逐塊結果（大量資料自動改用 COPY）
      */
-    public Mono<Integer> calculateDamageWithWeapon(String characterName) {
-        return getPeopleByName(characterName)
-                .map(p -> {
-                    int base = (p.getPhysicPower() != null ? p.getPhysicPower() : 10);
-                    return base + 5; // 簡易版計算
-                })
-                .defaultIfEmpty(15);
+    public Flux<PeopleBatchInsertChunkResult> insertMultiplePeopleInChunksFromObject(Object payload) {
+        return convertPeopleList(payload).flatMapMany(this::bulkSavePeople);
+    }
+
+    private Mono<List<People>> convertPeopleList(Object payload) {
+        return Mono.fromCallable(() -> objectMapper.convertValue(payload,
+                new com.fasterxml.jackson.core.type.TypeReference<List<People>>() {
+                }));
     }
 }
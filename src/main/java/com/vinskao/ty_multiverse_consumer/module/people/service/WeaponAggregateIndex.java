@@ -0,0 +1,226 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.vinskao.ty_multiverse_consumer.core.service.CacheInvalidationBus;
+import com.vinskao.ty_multiverse_consumer.module.people.service.strategy.CompiledDamageEngine;
+import com.vinskao.ty_multiverse_consumer.module.people.service.strategy.CompiledWeaponSet;
+import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
+import com.vinskao.ty_multiverse_consumer.module.weapon.service.WeaponService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.util.retry.Retry;
+
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 依擁有者彙總的武器索引
+ *
+ * <p>啟動時載入整張 weapon 表（資料量小、以讀取為主），依 owner 分組並以 {@link CompiledDamageEngine}
+ * 編譯成 {@link CompiledWeaponSet}（baseDamage 總和、各加成/狀態屬性 ID 的彙總）。之後由武器的
+ * save / delete 流程以 {@code onSaved} / {@code onDeleted} 增量更新，只重新編譯受影響的 owner，
+ * 批量傷害計算不必再查詢武器。</p>
+ *
+ * <p>其他實例寫入武器時會經由 {@link CacheInvalidationBus} 廣播 "weapon"，收到後重新載入整張表。
+ * 載入期間若有增量更新，載入結果可能已過期，會捨棄並再載入一次。尚未載入完成時
+ * {@link #isLoaded()} 為 false，呼叫端應退回查詢資料庫。</p>
+ *
+ * <p>每個 owner 的武器組合帶有版本號，任何影響該 owner 的變更（含整表重載）都會換成新的版本號，
+ * 呼叫端可用來判斷以舊組合算出的結果是否仍然有效。</p>
+ */
+@Service
+public class WeaponAggregateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeaponAggregateIndex.class);
+
+    private static final String WEAPON_RESOURCE = "weapon";
+
+    private final WeaponService weaponService;
+    private final CompiledDamageEngine damageEngine;
+    private final CacheInvalidationBus invalidationBus;
+
+    // 以下三個 map 只在 synchronized 方法中修改；compiledByOwner 供無鎖讀取
+    private final Map<String, Map<String, Weapon>> weaponsByOwner = new HashMap<>();
+    private final Map<String, String> ownerByWeapon = new HashMap<>();
+    private final Map<String, OwnerWeapons> compiledByOwner = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean();
+    private volatile boolean loaded;
+    private long mutations;
+    private long generation;
+    // 不在 compiledByOwner 中的 owner 使用此版本號；清空或重載時更新
+    private volatile long absentVersion;
+
+    public WeaponAggregateIndex(WeaponService weaponService, CompiledDamageEngine damageEngine,
+            CacheInvalidationBus invalidationBus) {
+        this.weaponService = weaponService;
+        this.damageEngine = damageEngine;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @PostConstruct
+    void subscribeRemoteChanges() {
+        invalidationBus.addListener(resource -> {
+            if (WEAPON_RESOURCE.equals(resource)) {
+                requestReload();
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        requestReload();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 擁有者的已編譯武器組合；沒有武器時回傳空組合
+     */
+    public CompiledWeaponSet get(String owner) {
+        return snapshot(owner).weapons();
+    }
+
+    /**
+     * 擁有者的已編譯武器組合與其版本號（兩者一致）
+     */
+    public OwnerWeapons snapshot(String owner) {
+        OwnerWeapons compiled = owner == null ? null : compiledByOwner.get(owner);
+        return compiled != null ? compiled : new OwnerWeapons(CompiledWeaponSet.empty(), absentVersion);
+    }
+
+    public synchronized void onSaved(Weapon weapon) {
+        if (weapon == null || weapon.getName() == null) {
+            return;
+        }
+        mutations++;
+        String previousOwner = ownerByWeapon.put(weapon.getName(), weapon.getOwner());
+        if (previousOwner != null && !previousOwner.equals(weapon.getOwner())) {
+            removeFromOwner(previousOwner, weapon.getName());
+        }
+        weaponsByOwner.computeIfAbsent(weapon.getOwner(), owner -> new LinkedHashMap<>())
+                .put(weapon.getName(), weapon);
+        recompile(weapon.getOwner());
+    }
+
+    public synchronized void onSaved(List<Weapon> weapons) {
+        if (weapons != null) {
+            weapons.forEach(this::onSaved);
+        }
+    }
+
+    public synchronized void onDeleted(String weaponName) {
+        mutations++;
+        String owner = ownerByWeapon.remove(weaponName);
+        if (owner != null) {
+            removeFromOwner(owner, weaponName);
+        }
+    }
+
+    public synchronized void onAllDeleted() {
+        mutations++;
+        absentVersion = ++generation;
+        weaponsByOwner.clear();
+        ownerByWeapon.clear();
+        compiledByOwner.clear();
+    }
+
+    /**
+     * 重新載入整張表；執行中再次要求時，完成後會再載入一次
+     */
+    private void requestReload() {
+        reloadRequested.set(true);
+        if (reloading.compareAndSet(false, true)) {
+            runReload();
+        }
+    }
+
+    private void runReload() {
+        reloadRequested.set(false);
+        long mark;
+        synchronized (this) {
+            mark = mutations;
+        }
+        weaponService.getAllWeapons()
+                .collectList()
+                .retryWhen(Retry.backoff(5, Duration.ofSeconds(1)))
+                .subscribe(weapons -> {
+                    synchronized (this) {
+                        if (mutations != mark) {
+                            // 載入期間有增量更新，這份快照可能較舊
+                            reloadRequested.set(true);
+                        } else {
+                            rebuild(weapons);
+                        }
+                    }
+                    finishReload();
+                }, error -> {
+                    logger.error("❌ 武器索引載入失敗，批量傷害將查詢資料庫: {}", error.getMessage());
+                    finishReload();
+                });
+    }
+
+    private void finishReload() {
+        reloading.set(false);
+        if (reloadRequested.get() && reloading.compareAndSet(false, true)) {
+            runReload();
+        }
+    }
+
+    private void rebuild(List<Weapon> weapons) {
+        weaponsByOwner.clear();
+        ownerByWeapon.clear();
+        for (Weapon weapon : weapons) {
+            ownerByWeapon.put(weapon.getName(), weapon.getOwner());
+            weaponsByOwner.computeIfAbsent(weapon.getOwner(), owner -> new LinkedHashMap<>())
+                    .put(weapon.getName(), weapon);
+        }
+        absentVersion = ++generation;
+        compiledByOwner.keySet().retainAll(weaponsByOwner.keySet());
+        weaponsByOwner.keySet().forEach(this::recompile);
+        loaded = true;
+        logger.info("🗡️ 武器索引已載入: weapons={}, owners={}", ownerByWeapon.size(), weaponsByOwner.size());
+    }
+
+    private void removeFromOwner(String owner, String weaponName) {
+        Map<String, Weapon> weapons = weaponsByOwner.get(owner);
+        if (weapons == null) {
+            return;
+        }
+        weapons.remove(weaponName);
+        if (weapons.isEmpty()) {
+            // 保留空組合而不移除，確保版本號仍會前進
+            weaponsByOwner.remove(owner);
+            compiledByOwner.put(owner, new OwnerWeapons(CompiledWeaponSet.empty(), ++generation));
+        } else {
+            recompile(owner);
+        }
+    }
+
+    private void recompile(String owner) {
+        Map<String, Weapon> weapons = weaponsByOwner.get(owner);
+        if (owner == null || weapons == null) {
+            return;
+        }
+        compiledByOwner.put(owner, new OwnerWeapons(damageEngine.compile(new ArrayList<>(weapons.values())),
+                ++generation));
+    }
+
+    /**
+     * 某個 owner 的已編譯武器組合及其版本號
+     */
+    public record OwnerWeapons(CompiledWeaponSet weapons, long version) {
+    }
+}
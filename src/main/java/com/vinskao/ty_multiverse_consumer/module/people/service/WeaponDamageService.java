@@ -1,35 +1,134 @@
 package com.vinskao.ty_multiverse_consumer.module.people.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vinskao.ty_multiverse_consumer.core.service.CacheInvalidationBus;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
 import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
 import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
 import com.vinskao.ty_multiverse_consumer.module.weapon.service.WeaponService;
-import com.vinskao.ty_multiverse_consumer.module.people.service.strategy.DamageStrategy;
+import com.vinskao.ty_multiverse_consumer.module.people.service.strategy.CompiledDamageEngine;
+import com.vinskao.ty_multiverse_consumer.module.people.service.strategy.CompiledWeaponSet;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
  * 武器傷害計算服務 (Consumer 版本)
  * 
  * 負責在 Consumer 端計算角色使用武器時的傷害值。
+ *
+ * <p>單一角色的計算結果依（角色版本, 武器組合版本）記憶：武器組合版本來自 {@link WeaponAggregateIndex}，
+ * 查詢時比對即可得知武器是否變動；角色沒有記憶體內的版本來源，改由寫入流程呼叫
+ * {@link #onPersonSaved(People)} / {@link #onPeopleReset()}，其他實例的寫入則經由
+ * {@link CacheInvalidationBus} 的 "people" 事件清除。</p>
  */
 @Service
 public class WeaponDamageService {
 
+    private static final String PEOPLE_RESOURCE = "people";
+
+    // 角色不存在時的傷害值（同 DamageStrategy 對 null 角色的約定）
+    private static final int NOT_FOUND_DAMAGE = -1;
+
     private final WeaponService weaponService;
     private final PeopleService peopleService;
-    private final DamageStrategy damageStrategy;
+    private final CompiledDamageEngine damageEngine;
+    private final WeaponAggregateIndex weaponIndex;
+
+    // key 為資料庫中的實際角色名稱；只差在大小寫的角色各自記憶，不會互相覆蓋
+    private final Cache<String, MemoizedDamage> damageMemo;
+    // 每次角色失效都會遞增；計算期間若有變動，結果不寫入記憶
+    private final AtomicLong peopleGeneration = new AtomicLong();
 
     public WeaponDamageService(WeaponService weaponService, PeopleService peopleService,
-            DamageStrategy damageStrategy) {
+            CompiledDamageEngine damageEngine, WeaponAggregateIndex weaponIndex,
+            CacheInvalidationBus invalidationBus,
+            @Value("${ty.multiverse.consumer.damage.memo.max-size:10000}") long memoMaxSize,
+            @Value("${ty.multiverse.consumer.damage.memo.ttl:10m}") Duration memoTtl) {
         this.weaponService = weaponService;
         this.peopleService = peopleService;
-        this.damageStrategy = damageStrategy;
+        this.damageEngine = damageEngine;
+        this.weaponIndex = weaponIndex;
+        this.damageMemo = Caffeine.newBuilder()
+                .maximumSize(memoMaxSize)
+                .expireAfterWrite(memoTtl)
+                .build();
+        invalidationBus.addListener(resource -> {
+            if (PEOPLE_RESOURCE.equals(resource)) {
+                onPeopleReset();
+            }
+        });
+    }
+
+    /**
+     * 計算單一角色使用武器的傷害值（角色名稱大小寫不敏感）
+     *
+     * <p>記憶以實際名稱為 key，只有與實際名稱完全相同的查詢會直接命中；大小寫不同的查詢
+     * 照常經由資料庫解析（優先完全相符的角色），不會拿到另一個角色的結果。</p>
+     *
+     * @param characterName 角色名稱
+     * @return 傷害值；角色不存在時為 -1
+     */
+    public Mono<Integer> calculateDamageWithWeapon(String characterName) {
+        if (characterName == null) {
+            return Mono.just(NOT_FOUND_DAMAGE);
+        }
+        if (weaponIndex.isLoaded()) {
+            MemoizedDamage memo = damageMemo.getIfPresent(characterName);
+            if (memo != null && memo.weaponVersion() == weaponIndex.snapshot(memo.personName()).version()) {
+                return Mono.just(memo.damage());
+            }
+        }
+
+        long generation = peopleGeneration.get();
+        return peopleService.getCombatProfileByName(characterName)
+                .flatMap(person -> {
+                    if (!weaponIndex.isLoaded()) {
+                        return weaponService.getWeaponsByOwner(person.getName()).collectList()
+                                .map(weapons -> damageEngine.evaluate(person, damageEngine.compile(weapons)));
+                    }
+                    WeaponAggregateIndex.OwnerWeapons weapons = weaponIndex.snapshot(person.getName());
+                    int damage = damageEngine.evaluate(person, weapons.weapons());
+                    if (peopleGeneration.get() == generation) {
+                        damageMemo.put(person.getName(), new MemoizedDamage(person.getName(), person.getVersion(),
+                                weapons.version(), damage));
+                    }
+                    return Mono.just(damage);
+                })
+                .defaultIfEmpty(NOT_FOUND_DAMAGE);
+    }
+
+    /**
+     * 角色新增或更新後呼叫；記憶的結果已是此版本時保留
+     */
+    public void onPersonSaved(People person) {
+        if (person == null || person.getName() == null) {
+            return;
+        }
+        peopleGeneration.incrementAndGet();
+        MemoizedDamage memo = damageMemo.getIfPresent(person.getName());
+        if (memo != null && (person.getVersion() == null
+                || !Objects.equals(memo.personVersion(), person.getVersion()))) {
+            damageMemo.invalidate(person.getName());
+        }
+    }
+
+    /**
+     * 批量寫入或全部刪除角色後呼叫，清除所有記憶的結果
+     */
+    public void onPeopleReset() {
+        peopleGeneration.incrementAndGet();
+        damageMemo.invalidateAll();
     }
 
     /**
@@ -46,28 +145,25 @@ public class WeaponDamageService {
             return Mono.just(emptyResult);
         }
 
-        // 批量查詢所有角色
-        return peopleService.findByNames(names).collectList().flatMap(people -> {
-            Map<String, People> peopleMap = people.stream()
-                    .collect(Collectors.toMap(People::getName, p -> p));
-
-            // 批量查詢所有武器
-            return weaponService.getWeaponsByOwners(names).collectList().map(allWeapons -> {
-                Map<String, List<Weapon>> weaponsMap = allWeapons.stream()
-                        .collect(Collectors.groupingBy(Weapon::getOwner));
+        // 批量查詢所有角色（只取 combat 投影欄位）
+        return peopleService.findCombatProfilesByNames(names).collectList().flatMap(people -> {
+            Map<String, PeopleCombatProfile> peopleMap = people.stream()
+                    .collect(Collectors.toMap(PeopleCombatProfile::getName, p -> p));
 
+            // 武器索引已載入時直接取用，不再查詢武器
+            return loadWeaponSets(names).map(weaponsMap -> {
                 Map<String, Integer> damageResults = new HashMap<>();
                 List<String> notFoundNames = new ArrayList<>();
 
                 for (String name : names) {
-                    People person = peopleMap.get(name);
+                    PeopleCombatProfile person = peopleMap.get(name);
                     if (person == null) {
                         notFoundNames.add(name);
                         continue;
                     }
 
-                    List<Weapon> weapons = weaponsMap.getOrDefault(name, new ArrayList<>());
-                    int damage = damageStrategy.calculateDamage(person, weapons);
+                    CompiledWeaponSet weapons = weaponsMap.getOrDefault(name, CompiledWeaponSet.empty());
+                    int damage = damageEngine.evaluate(person, weapons);
                     damageResults.put(name, damage);
                 }
 
@@ -87,4 +183,27 @@ public class WeaponDamageService {
             });
         });
     }
+
+    /**
+     * 取得各角色已編譯的武器組合；索引尚未載入時退回依 owner 批量查詢
+     */
+    private Mono<Map<String, CompiledWeaponSet>> loadWeaponSets(List<String> names) {
+        if (weaponIndex.isLoaded()) {
+            Map<String, CompiledWeaponSet> weaponsMap = new HashMap<>();
+            for (String name : names) {
+                weaponsMap.put(name, weaponIndex.get(name));
+            }
+            return Mono.just(weaponsMap);
+        }
+        return weaponService.getWeaponsByOwners(names).collectList()
+                .map(allWeapons -> allWeapons.stream()
+                        .collect(Collectors.groupingBy(Weapon::getOwner,
+                                Collectors.collectingAndThen(Collectors.toList(), damageEngine::compile))));
+    }
+
+    /**
+     * 單一角色的記憶結果；personName 為資料庫中的實際名稱，也是武器的 owner
+     */
+    private record MemoizedDamage(String personName, Long personVersion, long weaponVersion, int damage) {
+    }
 }
@@ -0,0 +1,175 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service.strategy;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
+
+/**
+ * 編譯式傷害計算引擎。
+ * <p>
+ * 將 {@link StateEffectDamageDecorator} → {@link BonusAttributeDamageDecorator} →
+ * {@link DefaultDamageStrategy} 的計算展開成單一公式：武器清單先以 {@link #compile} 編譯成
+ * {@link CompiledWeaponSet}（屬性字串轉為 ID、每把武器的貢獻預先彙總），
+ * 之後 {@link #evaluate} 只做原始型別運算與兩次二分搜尋，不產生任何物件。
+ * </p>
+ * <p>
+ * 計算結果與裝飾器鏈完全一致（包含每層的四捨五入與狀態加成的補償加總），
+ * 裝飾器鏈保留作為公式的參考實作；修改公式時兩者需同步調整。
+ * </p>
+ */
+@Component
+public class CompiledDamageEngine implements DamageStrategy {
+
+    // 狀態屬性匹配時每把武器增加 5% 基礎傷害（同 StateEffectDamageDecorator）
+    private static final double STATE_EFFECT_RATIO = 0.05;
+
+    private final Map<String, Integer> attributeIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextAttributeId = new AtomicInteger();
+
+    /**
+     * 編譯武器清單；結果不可變，可快取重複使用
+     */
+    public CompiledWeaponSet compile(List<Weapon> weapons) {
+        if (weapons == null || weapons.isEmpty()) {
+            return CompiledWeaponSet.EMPTY;
+        }
+
+        long baseDamageSum = 0;
+        TreeMap<Integer, Long> bonusByAttribute = new TreeMap<>();
+        TreeMap<Integer, double[]> stateByAttribute = new TreeMap<>();
+
+        for (Weapon weapon : weapons) {
+            int baseDamage = safeInt(weapon.getBaseDamage());
+            baseDamageSum += baseDamage;
+
+            long bonusDamage = safeInt(weapon.getBonusDamage());
+            for (String attribute : distinct(weapon.getBonusAttributes())) {
+                bonusByAttribute.merge(intern(attribute), bonusDamage, Long::sum);
+            }
+
+            double stateDamage = baseDamage * STATE_EFFECT_RATIO;
+            for (String attribute : distinct(weapon.getStateAttributes())) {
+                double[] summation = stateByAttribute.computeIfAbsent(intern(attribute), id -> new double[2]);
+                sumWithCompensation(summation, stateDamage);
+            }
+        }
+
+        int[] bonusIds = new int[bonusByAttribute.size()];
+        long[] bonusValues = new long[bonusIds.length];
+        int i = 0;
+        for (Map.Entry<Integer, Long> entry : bonusByAttribute.entrySet()) {
+            bonusIds[i] = entry.getKey();
+            bonusValues[i++] = entry.getValue();
+        }
+
+        int[] stateIds = new int[stateByAttribute.size()];
+        double[] stateValues = new double[stateIds.length];
+        i = 0;
+        for (Map.Entry<Integer, double[]> entry : stateByAttribute.entrySet()) {
+            stateIds[i] = entry.getKey();
+            stateValues[i++] = entry.getValue()[0] - entry.getValue()[1];
+        }
+
+        return new CompiledWeaponSet(weapons.size(), baseDamageSum, bonusIds, bonusValues, stateIds, stateValues);
+    }
+
+    /**
+     * 計算角色使用已編譯武器組合的傷害，結果與 {@link StateEffectDamageDecorator} 相同
+     *
+     * @return 傷害值；角色為 null 時回傳 -1
+     */
+    public int evaluate(People people, CompiledWeaponSet weapons) {
+        if (people == null) {
+            return -1;
+        }
+        return evaluate(people.getPhysicPower(), people.getMagicPower(), people.getUtilityPower(),
+                people.getAttributes(), people.getStateAttributes(), weapons);
+    }
+
+    /**
+     * 以 combat 投影計算傷害，結果與 {@link #evaluate(People, CompiledWeaponSet)} 相同
+     *
+     * @return 傷害值；角色為 null 時回傳 -1
+     */
+    public int evaluate(PeopleCombatProfile people, CompiledWeaponSet weapons) {
+        if (people == null) {
+            return -1;
+        }
+        return evaluate(people.getPhysicPower(), people.getMagicPower(), people.getUtilityPower(),
+                people.getAttributes(), people.getStateAttributes(), weapons);
+    }
+
+    private int evaluate(Integer physicPower, Integer magicPower, Integer utilityPower, String attributes,
+            String state, CompiledWeaponSet weapons) {
+        int power = safeInt(physicPower) + safeInt(magicPower) + safeInt(utilityPower);
+        if (weapons == null || weapons.isEmpty()) {
+            return (int) Math.round((double) power);
+        }
+
+        // DefaultDamageStrategy：角色屬性 + 武器基礎傷害
+        int damage = (int) Math.round(power + (double) weapons.baseDamageSum());
+
+        // BonusAttributeDamageDecorator：加成屬性與角色屬性相符的武器加上 bonusDamage
+        damage = (int) Math.round(damage + (double) weapons.bonusDamage(lookup(attributes)));
+
+        // StateEffectDamageDecorator：狀態屬性相符的武器加上 5% 基礎傷害
+        if (state == null) {
+            return damage;
+        }
+        return (int) Math.round(damage + weapons.stateDamage(lookup(state)));
+    }
+
+    @Override
+    public int calculateDamage(People people, List<Weapon> weapons) {
+        return evaluate(people, compile(weapons));
+    }
+
+    private int intern(String attribute) {
+        return attributeIds.computeIfAbsent(attribute, key -> nextAttributeId.getAndIncrement());
+    }
+
+    private int lookup(String attribute) {
+        if (attribute == null) {
+            return -1;
+        }
+        Integer id = attributeIds.get(attribute);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * List.contains 的語意：同一把武器重複的屬性只匹配一次，null 不會匹配
+     */
+    private static Set<String> distinct(List<String> attributes) {
+        if (attributes == null || attributes.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> result = new LinkedHashSet<>(attributes);
+        result.remove(null);
+        return result;
+    }
+
+    /**
+     * 與 {@code DoubleStream.sum()} 相同的 Kahan 補償加總；summation[1] 保存負的低位誤差
+     */
+    private static void sumWithCompensation(double[] summation, double value) {
+        double tmp = value - summation[1];
+        double sum = summation[0];
+        double velvel = sum + tmp;
+        summation[1] = (velvel - sum) - tmp;
+        summation[0] = velvel;
+    }
+
+    private static int safeInt(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,75 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service.strategy;
+
+import java.util.Arrays;
+
+/**
+ * 預先編譯的武器組合（通常是同一擁有者的全部武器）。
+ * <p>
+ * 由 {@link CompiledDamageEngine#compile} 建立，建立後不可變，可跨請求與執行緒共用。
+ * 只保留計算傷害需要的原始型別資料：
+ * </p>
+ * <ul>
+ * <li>全部武器的 baseDamage 總和</li>
+ * <li>依加成屬性 ID 彙總的 bonusDamage 總和（每把武器同一屬性只算一次）</li>
+ * <li>依狀態屬性 ID 彙總的 baseDamage × 5%，按武器順序以補償加總計算，與原本串流加總結果一致</li>
+ * </ul>
+ */
+public final class CompiledWeaponSet {
+
+    static final CompiledWeaponSet EMPTY = new CompiledWeaponSet(0, 0, new int[0], new long[0], new int[0],
+            new double[0]);
+
+    private final int weaponCount;
+    private final long baseDamageSum;
+
+    // 依屬性 ID 排序，evaluate 時以二分搜尋查找
+    private final int[] bonusAttributeIds;
+    private final long[] bonusDamageByAttribute;
+    private final int[] stateAttributeIds;
+    private final double[] stateDamageByAttribute;
+
+    CompiledWeaponSet(int weaponCount, long baseDamageSum, int[] bonusAttributeIds, long[] bonusDamageByAttribute,
+            int[] stateAttributeIds, double[] stateDamageByAttribute) {
+        this.weaponCount = weaponCount;
+        this.baseDamageSum = baseDamageSum;
+        this.bonusAttributeIds = bonusAttributeIds;
+        this.bonusDamageByAttribute = bonusDamageByAttribute;
+        this.stateAttributeIds = stateAttributeIds;
+        this.stateDamageByAttribute = stateDamageByAttribute;
+    }
+
+    /**
+     * 沒有任何武器的組合
+     */
+    public static CompiledWeaponSet empty() {
+        return EMPTY;
+    }
+
+    public int getWeaponCount() {
+        return weaponCount;
+    }
+
+    public boolean isEmpty() {
+        return weaponCount == 0;
+    }
+
+    long baseDamageSum() {
+        return baseDamageSum;
+    }
+
+    long bonusDamage(int attributeId) {
+        int index = attributeId < 0 ? -1 : Arrays.binarySearch(bonusAttributeIds, attributeId);
+        return index < 0 ? 0 : bonusDamageByAttribute[index];
+    }
+
+    double stateDamage(int attributeId) {
+        int index = attributeId < 0 ? -1 : Arrays.binarySearch(stateAttributeIds, attributeId);
+        return index < 0 ? 0.0 : stateDamageByAttribute[index];
+    }
+
+    @Override
+    public String toString() {
+        return "CompiledWeaponSet[weapons=" + weaponCount + ", baseDamageSum=" + baseDamageSum
+                + ", bonusAttributes=" + bonusAttributeIds.length + ", stateAttributes=" + stateAttributeIds.length + "]";
+    }
+}
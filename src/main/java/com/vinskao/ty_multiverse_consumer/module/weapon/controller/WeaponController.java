@@ -5,6 +5,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import com.vinskao.ty_multiverse_consumer.core.service.ResourceCacheManager;
+import com.vinskao.ty_multiverse_consumer.module.people.service.WeaponAggregateIndex;
 import com.vinskao.ty_multiverse_consumer.module.weapon.service.WeaponService;
 import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
 
@@ -19,6 +21,12 @@ public class WeaponController {
     @Autowired
     private WeaponService weaponService;
 
+    @Autowired
+    private WeaponAggregateIndex weaponIndex;
+
+    @Autowired
+    private ResourceCacheManager cacheManager;
+
     @Operation(summary = "獲取所有武器", description = "獲取數據庫中所有武器的列表")
     @GetMapping
     public Flux<Weapon> getAllWeapons() {
@@ -37,13 +45,17 @@ public class WeaponController {
     @PostMapping
     public Mono<ResponseEntity<Weapon>> createWeapon(@RequestBody Weapon weapon) {
         return weaponService.saveWeapon(weapon)
-                .map(saved -> ResponseEntity.ok(saved));
+                .doOnNext(weaponIndex::onSaved)
+                // 與隊列寫入相同：清理快取並廣播，其他實例才會重載武器索引
+                .flatMap(saved -> cacheManager.evictCache("weapon").thenReturn(ResponseEntity.ok(saved)));
     }
 
     @Operation(summary = "刪除武器", description = "根據名稱刪除武器")
     @DeleteMapping("/{name}")
     public Mono<ResponseEntity<Void>> deleteWeapon(@PathVariable String name) {
         return weaponService.deleteWeapon(name)
+                .doOnSuccess(v -> weaponIndex.onDeleted(name))
+                .then(cacheManager.evictCache("weapon"))
                 .then(Mono.just(ResponseEntity.ok().build()));
     }
 }
@@ -17,6 +17,13 @@ public interface WeaponRepository extends ReactiveCrudRepository<Weapon, String>
     Mono<Boolean> existsByName(String name);
     
     Flux<Weapon> findByOwner(String owner);
+
+    // Keyset 分頁：依主鍵排序取第一頁 / 指定名稱之後的一頁
+    @Query("SELECT * FROM weapon ORDER BY weapon LIMIT :limit")
+    Flux<Weapon> findFirstPage(@Param("limit") int limit);
+
+    @Query("SELECT * FROM weapon WHERE weapon > :after ORDER BY weapon LIMIT :limit")
+    Flux<Weapon> findPageAfter(@Param("after") String after, @Param("limit") int limit);
     
     // 新增：批量查詢多個擁有者的武器，避免N+1問題
     @Query("SELECT * FROM weapon WHERE owner IN (:owners)")
@@ -1,9 +1,16 @@
 package com.vinskao.ty_multiverse_consumer.module.weapon.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.r2dbc.core.DatabaseClient;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinskao.ty_multiverse_consumer.core.service.BulkCopyLoader;
+import com.vinskao.ty_multiverse_consumer.core.service.BulkCopySpec;
 import com.vinskao.ty_multiverse_consumer.module.weapon.dao.WeaponRepository;
 import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
 
@@ -16,13 +23,44 @@ import java.time.LocalDateTime;
 @Service
 public class WeaponService {
 
+    private static final Logger logger = LoggerFactory.getLogger(WeaponService.class);
+
+    /**
+     * COPY 批量載入：欄位與 saveWeapon 的 UPSERT 一致，衝突時版本號重置為 0
+     */
+    private static final BulkCopySpec<Weapon> WEAPON_COPY_SPEC = BulkCopySpec.of(
+            "weapon", "weapon",
+            List.of("weapon", "owner", "attributes", "base_damage", "bonus_damage",
+                    "bonus_attributes", "state_attributes", "created_at", "updated_at", "version"),
+            "version = 0",
+            weapon -> new Object[] {
+                    weapon.getName(),
+                    weapon.getOwner() != null ? weapon.getOwner() : "",
+                    weapon.getAttributes() != null ? weapon.getAttributes() : "",
+                    weapon.getBaseDamage() != null ? weapon.getBaseDamage() : 0,
+                    weapon.getBonusDamage() != null ? weapon.getBonusDamage() : 0,
+                    weapon.getBonusAttributes() != null ? weapon.getBonusAttributes() : List.of(),
+                    weapon.getStateAttributes() != null ? weapon.getStateAttributes() : List.of(),
+                    weapon.getCreatedAt(),
+                    weapon.getUpdatedAt(),
+                    0L
+            });
+
     private final WeaponRepository weaponRepository;
     private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final BulkCopyLoader bulkCopyLoader;
+    private final int copyThreshold;
 
-    public WeaponService(WeaponRepository weaponRepository, DatabaseClient databaseClient) {
+    public WeaponService(WeaponRepository weaponRepository, DatabaseClient databaseClient, ObjectMapper objectMapper,
+            BulkCopyLoader bulkCopyLoader,
+            @Value("${ty.multiverse.consumer.bulk-load.copy-threshold:5000}") int copyThreshold) {
         this.databaseClient = databaseClient;
 
         this.weaponRepository = weaponRepository;
+        this.objectMapper = objectMapper;
+        this.bulkCopyLoader = bulkCopyLoader;
+        this.copyThreshold = copyThreshold;
     }
 
     /**
@@ -34,6 +72,20 @@ public class WeaponService {
         return weaponRepository.findAll();
     }
 
+    /**
+     * Get all weapons page by page using keyset pagination on name
+     *
+     * @param pageSize rows per page
+     * @return flux of non-empty pages in name order; the next page is queried on demand
+     */
+    public Flux<List<Weapon>> getAllWeaponsInPages(int pageSize) {
+        int size = Math.max(1, pageSize);
+        return weaponRepository.findFirstPage(size).collectList()
+                .expand(page -> page.size() < size ? Mono.empty()
+                        : weaponRepository.findPageAfter(page.get(page.size() - 1).getName(), size).collectList())
+                .filter(page -> !page.isEmpty());
+    }
+
     /**
      * Get weapons by owner
      *
@@ -109,6 +161,8 @@ public class WeaponService {
                     result.setAttributes(row.get("attributes", String.class));
                     result.setBaseDamage(row.get("base_damage", Integer.class));
                     result.setBonusDamage(row.get("bonus_damage", Integer.class));
+                    result.setBonusAttributes(toList(row.get("bonus_attributes", String[].class)));
+                    result.setStateAttributes(toList(row.get("state_attributes", String[].class)));
                     result.setCreatedAt(row.get("created_at", LocalDateTime.class));
                     result.setUpdatedAt(row.get("updated_at", LocalDateTime.class));
                     result.setVersion(row.get("version", Long.class));
@@ -117,6 +171,49 @@ public class WeaponService {
                 .one();
     }
 
+    /**
+     * Convert payload and save multiple weapons
+     * 筆數達到 COPY 門檻時以 COPY 載入，否則逐筆 UPSERT；資料庫不支援 COPY 時自動退回 UPSERT
+     */
+    public Flux<Weapon> insertMultipleWeaponsFromObject(Object payload) {
+        return Mono.fromCallable(() -> objectMapper.convertValue(payload, new TypeReference<List<Weapon>>() {
+        })).flatMapMany(this::saveAllWeapons);
+    }
+
+    /**
+     * Save or update multiple weapons
+     */
+    public Flux<Weapon> saveAllWeapons(List<Weapon> weapons) {
+        if (copyThreshold <= 0 || weapons.size() < copyThreshold) {
+            return upsertWeapons(weapons);
+        }
+
+        logger.info("武器數量 {} 達到 COPY 門檻 {}，使用 COPY 批量載入", weapons.size(), copyThreshold);
+        return Mono.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (Weapon weapon : weapons) {
+                if (weapon.getName() == null) {
+                    return Mono.error(new IllegalArgumentException("武器名稱不能為 null"));
+                }
+                if (weapon.getCreatedAt() == null) {
+                    weapon.setCreatedAt(now);
+                }
+                weapon.setUpdatedAt(now);
+                weapon.setVersion(0L);
+            }
+            return bulkCopyLoader.load(WEAPON_COPY_SPEC, Flux.fromIterable(weapons));
+        })
+                .thenMany(Flux.fromIterable(weapons))
+                .onErrorResume(UnsupportedOperationException.class, e -> {
+                    logger.warn("COPY 不可用，改用逐筆 UPSERT: {}", e.getMessage());
+                    return upsertWeapons(weapons);
+                });
+    }
+
+    private Flux<Weapon> upsertWeapons(List<Weapon> weapons) {
+        return Flux.fromIterable(weapons).concatMap(this::saveWeapon);
+    }
+
     /**
      * Save or update a weapon with smart field update
      * Only updates non-null and non-empty string fields
@@ -175,6 +272,10 @@ public class WeaponService {
         return weaponRepository.save(existing);
     }
 
+    private static List<String> toList(String[] values) {
+        return values != null ? List.of(values) : List.of();
+    }
+
     /**
      * Check if a string is valid (not null and not empty)
      */
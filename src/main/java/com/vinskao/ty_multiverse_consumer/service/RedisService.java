@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.redis.core.ReactiveRedisOperations;
 import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
@@ -14,6 +15,11 @@ public class RedisService {
 
     private static final Logger logger = LoggerFactory.getLogger(RedisService.class);
 
+    /**
+     * SCAN 每次迭代與每次 DEL 的鍵數
+     */
+    private static final int SCAN_BATCH_SIZE = 500;
+
     private final ReactiveRedisOperations<String, String> redisOps;
     private final ReactiveValueOperations<String, String> values;
 
@@ -46,4 +52,24 @@ public class RedisService {
                 .map(count -> count > 0)
                 .doOnNext(deleted -> logger.debug("Redis DEL {} => {}", key, deleted));
     }
+
+    /**
+     * 刪除以 prefix 開頭的所有鍵
+     *
+     * <p>以 SCAN 分批迭代（不使用會阻塞 Redis 的 KEYS），每批以一次 DEL 刪除。
+     * prefix 直接作為 MATCH 樣式的開頭，不可包含 {@code * ? [ ]}。</p>
+     *
+     * @return 刪除的鍵數
+     */
+    public Mono<Long> deleteByPrefix(String prefix) {
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(prefix + "*")
+                .count(SCAN_BATCH_SIZE)
+                .build();
+        return redisOps.scan(options)
+                .buffer(SCAN_BATCH_SIZE)
+                .concatMap(keys -> redisOps.delete(keys.toArray(String[]::new)))
+                .reduce(0L, Long::sum)
+                .doOnNext(count -> logger.debug("Redis DEL {}* => {}", prefix, count));
+    }
 }
@@ -0,0 +1,21 @@
+-- 角色查詢用索引（手動遷移，應用程式啟動時不會執行）
+--
+-- 執行方式：以具備 DDL 權限的帳號在部署前執行一次，例如
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f V1__people_query_indexes.sql
+-- CREATE INDEX CONCURRENTLY 不鎖寫入、不可在交易內執行，請勿包在 BEGIN/COMMIT 或 psql --single-transaction 中。
+-- 語句皆為 IF NOT EXISTS，可重複執行。
+--
+-- 前置需求：pg_trgm 擴充。需要資料庫擁有者或具 CREATE 權限的帳號（PostgreSQL 13 起 pg_trgm 為 trusted extension）；
+-- 遷移帳號權限不足時請由 DBA 先執行下面的 CREATE EXTENSION。未建立時查詢仍正確，只是屬性查詢不走索引。
+--
+-- CONCURRENTLY 建立失敗（例如中途取消）會留下 INVALID 索引，IF NOT EXISTS 會略過它。重跑前先檢查：
+--   SELECT indexrelid::regclass FROM pg_index WHERE NOT indisvalid;
+-- 有列出本檔的索引時先 DROP INDEX CONCURRENTLY 再重新執行。
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 大小寫不敏感的名稱查詢（PeopleRepository.findByNameIgnoreCase）使用的運算式索引
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_people_name_lower ON people (LOWER(name));
+
+-- 屬性子字串查詢（PeopleRepository.findByAttributesMatching 的正規表示式、LIKE '%x%'）使用的三元組索引
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_people_attributes_trgm ON people USING gin (attributes gin_trgm_ops);
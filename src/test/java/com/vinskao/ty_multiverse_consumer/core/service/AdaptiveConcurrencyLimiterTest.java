@@ -0,0 +1,168 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import com.vinskao.ty_multiverse_consumer.core.service.AdaptiveConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AIMD 調整：過載時先乘法遞減寫入、寫入到下限才減讀取；排隊且有空閒連線時加法遞增，
+ * 寫入保留 write-headroom，且不超過初始值兩倍
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final int POOL_SIZE = 10;
+
+    private ConnectionPoolMonitor poolMonitor;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    public void setUp() {
+        poolMonitor = mock(ConnectionPoolMonitor.class);
+        limiter = new AdaptiveConcurrencyLimiter(poolMonitor, true, 0.5, 2.0, 200, 1);
+    }
+
+    @Test
+    public void testRegisterCapsAtTwiceInitialLimit() {
+        AdaptiveLimit limit = limiter.register("people-get-all", Priority.READ, 4);
+
+        assertEquals(4, limit.getLimit());
+        assertEquals(8, limit.getMaxLimit());
+        assertEquals(1, limit.getMinLimit());
+        assertSame(limit, limiter.register("people-get-all", Priority.READ, 6));
+    }
+
+    @Test
+    public void testDisabledLimiterKeepsInitialLimit() {
+        AdaptiveConcurrencyLimiter disabled = new AdaptiveConcurrencyLimiter(poolMonitor, false, 0.5, 2.0, 200, 1);
+        AdaptiveLimit limit = disabled.register("people-get-all", Priority.READ, 4);
+
+        saturate(limit);
+        disabled.adjust();
+
+        assertEquals(4, limit.getMaxLimit());
+        assertEquals(4, limit.getLimit());
+        verifyNoInteractions(poolMonitor);
+    }
+
+    @Test
+    public void testSaturatedQueueIncreasesByOneUpToCap() {
+        AdaptiveLimit limit = limiter.register("people-get-all", Priority.READ, 2);
+        pool(2, 0, 0);
+
+        for (int round = 0; round < 5; round++) {
+            saturate(limit);
+            limiter.adjust();
+        }
+
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    public void testUnsaturatedQueueIsNotIncreased() {
+        AdaptiveLimit limit = limiter.register("people-get-all", Priority.READ, 2);
+        pool(0, 0, 0);
+
+        limiter.adjust();
+
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    public void testWriteIncreaseKeepsHeadroomForReads() {
+        AdaptiveLimit read = limiter.register("people-get-all", Priority.READ, 2);
+        AdaptiveLimit write = limiter.register("people-insert", Priority.WRITE, 2);
+        // 只剩一條空閒連線：讀取可以加，寫入須保留一條給讀取
+        pool(POOL_SIZE - 1, 0, 0);
+
+        saturate(read);
+        saturate(write);
+        limiter.adjust();
+
+        assertEquals(3, read.getLimit());
+        assertEquals(2, write.getLimit());
+
+        pool(POOL_SIZE - 2, 0, 0);
+        saturate(write);
+        limiter.adjust();
+        assertEquals(3, write.getLimit());
+    }
+
+    @Test
+    public void testCongestionDecreasesWritesFirst() {
+        AdaptiveLimit read = limiter.register("people-get-all", Priority.READ, 8);
+        AdaptiveLimit write = limiter.register("people-insert", Priority.WRITE, 8);
+        pool(POOL_SIZE, 3, 0);
+
+        limiter.adjust();
+        assertEquals(8, read.getLimit());
+        assertEquals(4, write.getLimit());
+
+        limiter.adjust();
+        limiter.adjust();
+        assertEquals(8, read.getLimit());
+        assertEquals(1, write.getLimit());
+
+        // 寫入已在下限仍過載，改減讀取
+        limiter.adjust();
+        assertEquals(4, read.getLimit());
+        assertEquals(1, write.getLimit());
+    }
+
+    @Test
+    public void testSlowAcquireCountsAsCongestion() {
+        AdaptiveLimit write = limiter.register("people-insert", Priority.WRITE, 4);
+        pool(0, 0, 500);
+
+        saturate(write);
+        limiter.adjust();
+
+        assertEquals(2, write.getLimit());
+    }
+
+    @Test
+    public void testDecreaseClampsAtMinimum() {
+        AdaptiveLimit read = limiter.register("people-get-all", Priority.READ, 1);
+        pool(POOL_SIZE, 5, 0);
+
+        limiter.adjust();
+        limiter.adjust();
+
+        assertEquals(1, read.getLimit());
+    }
+
+    @Test
+    public void testMissingPoolSnapshotLeavesLimitsUnchanged() {
+        AdaptiveLimit read = limiter.register("people-get-all", Priority.READ, 2);
+        when(poolMonitor.snapshot()).thenReturn(null);
+
+        saturate(read);
+        limiter.adjust();
+
+        assertEquals(2, read.getLimit());
+    }
+
+    private void pool(int acquired, int pending, double acquireLatencyMillis) {
+        when(poolMonitor.snapshot()).thenReturn(
+                new ConnectionPoolMonitor.PoolSnapshot(acquired, POOL_SIZE, pending, acquireLatencyMillis));
+    }
+
+    /**
+     * 讓隊列因 limit 排隊一次，之後取消全部處理，許可歸零
+     */
+    private static void saturate(AdaptiveLimit limit) {
+        List<Disposable> running = new ArrayList<>();
+        for (int i = 0; i <= limit.getLimit(); i++) {
+            running.add(limit.run(Mono::never).subscribe());
+        }
+        running.forEach(Disposable::dispose);
+        assertEquals(0, limit.getInFlight());
+    }
+}
@@ -0,0 +1,192 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import com.vinskao.ty_multiverse_consumer.core.service.AdaptiveConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 並發閘門的許可計數：超出 limit 的處理排隊，完成、失敗或取消都只歸還一次許可
+ */
+public class AdaptiveLimitTest {
+
+    @Test
+    public void testQueuesBeyondLimitAndGrantsOnRelease() {
+        AdaptiveLimit limit = new AdaptiveLimit("people-get-all", Priority.READ, 2, 1, 4);
+        Sinks.One<String> first = Sinks.one();
+        AtomicInteger started = new AtomicInteger();
+
+        Disposable a = limit.run(() -> {
+            started.incrementAndGet();
+            return first.asMono();
+        }).subscribe();
+        Disposable b = limit.run(() -> {
+            started.incrementAndGet();
+            return Mono.never();
+        }).subscribe();
+
+        StepVerifier.create(limit.run(() -> {
+                    started.incrementAndGet();
+                    return Mono.just("third");
+                }))
+                .then(() -> {
+                    assertEquals(2, started.get());
+                    assertEquals(2, limit.getInFlight());
+                    first.tryEmitValue("first");
+                })
+                .expectNext("third")
+                .verifyComplete();
+
+        assertEquals(3, started.get());
+        assertEquals(1, limit.getInFlight());
+        assertTrue(limit.pollSaturated());
+        assertFalse(limit.pollSaturated());
+        b.dispose();
+        a.dispose();
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void testErrorReleasesPermit() {
+        AdaptiveLimit limit = new AdaptiveLimit("people-insert", Priority.WRITE, 1, 1, 2);
+
+        StepVerifier.create(limit.run(() -> Mono.error(new IllegalStateException("db down"))))
+                .verifyErrorMessage("db down");
+        StepVerifier.create(limit.run(() -> Mono.just(1)))
+                .expectNext(1)
+                .verifyComplete();
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void testCancelledWaiterDoesNotTakePermit() {
+        AdaptiveLimit limit = new AdaptiveLimit("people-get-all", Priority.READ, 1, 1, 2);
+        Sinks.One<Integer> held = Sinks.one();
+        AtomicInteger cancelledStarted = new AtomicInteger();
+
+        Disposable holder = limit.run(held::asMono).subscribe();
+        Disposable waiter = limit.run(() -> {
+            cancelledStarted.incrementAndGet();
+            return Mono.just(0);
+        }).subscribe();
+        waiter.dispose();
+
+        StepVerifier.create(limit.run(() -> Mono.just(2)))
+                .then(() -> held.tryEmitValue(1))
+                .expectNext(2)
+                .verifyComplete();
+
+        assertEquals(0, cancelledStarted.get());
+        assertTrue(holder.isDisposed());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void testRaisingLimitWakesWaitersAndClampsToBounds() {
+        AdaptiveLimit limit = new AdaptiveLimit("people-get-all", Priority.READ, 1, 1, 3);
+        AtomicInteger started = new AtomicInteger();
+        Disposable[] running = new Disposable[4];
+        for (int i = 0; i < running.length; i++) {
+            running[i] = limit.run(() -> {
+                started.incrementAndGet();
+                return Mono.never();
+            }).subscribe();
+        }
+        assertEquals(1, started.get());
+
+        limit.setLimit(10);
+        assertEquals(3, limit.getLimit());
+        assertEquals(3, started.get());
+
+        // 降低 limit 不中斷已在處理的工作，只是不再補發
+        limit.setLimit(0);
+        assertEquals(1, limit.getLimit());
+        assertEquals(3, limit.getInFlight());
+        running[0].dispose();
+        assertEquals(3, started.get());
+        assertEquals(2, limit.getInFlight());
+
+        for (Disposable disposable : running) {
+            disposable.dispose();
+        }
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void testConcurrentAcquireAndReleaseRespectsLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit("people-get-all", Priority.READ, 3, 1, 6);
+
+        int peak = runConcurrently(limit, false);
+
+        assertTrue(peak <= 3, "peak=" + peak);
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void testConcurrentAcquireWhileResizingStaysWithinMaxLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit("people-get-all", Priority.READ, 4, 1, 8);
+
+        int peak = runConcurrently(limit, true);
+
+        assertTrue(peak <= 8, "peak=" + peak);
+        assertEquals(0, limit.getInFlight());
+    }
+
+    /**
+     * 2000 筆處理在 parallel 上同時取得與釋放許可，每 7 筆有一筆在等待或處理中途逾時取消
+     *
+     * @return 同時處理的最大數量
+     */
+    private static int runConcurrently(AdaptiveLimit limit, boolean resize) {
+        int requests = 2_000;
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        Disposable resizing = resize
+                ? Flux.interval(Duration.ofMillis(1), Schedulers.parallel())
+                        .subscribe(tick -> limit.setLimit(1 + (int) (tick % limit.getMaxLimit())))
+                : null;
+        try {
+            Flux.range(0, requests)
+                    .flatMap(i -> {
+                        Mono<Integer> work = limit.run(() -> Mono.fromCallable(() -> {
+                                    int now = active.incrementAndGet();
+                                    peak.accumulateAndGet(now, Math::max);
+                                    return i;
+                                })
+                                .delayElement(Duration.ofNanos(ThreadLocalRandom.current().nextInt(50_000)))
+                                // 在許可釋放前遞減（doFinally 會晚於下游的釋放執行）
+                                .doOnTerminate(active::decrementAndGet)
+                                .doOnCancel(active::decrementAndGet))
+                                .subscribeOn(Schedulers.parallel());
+                        return i % 7 == 0 ? work.timeout(Duration.ofNanos(10_000), Mono.empty()) : work;
+                    }, 64)
+                    .doOnNext(i -> completed.incrementAndGet())
+                    .blockLast(Duration.ofSeconds(30));
+        } finally {
+            if (resizing != null) {
+                resizing.dispose();
+            }
+        }
+
+        // 未逾時的處理都必須完成
+        assertTrue(completed.get() >= requests - (requests + 6) / 7, "completed=" + completed.get());
+        // 許可在 doFinally 釋放，可能晚於最後一筆結果送達 blockLast
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (limit.getInFlight() != 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        return peak.get();
+    }
+}
@@ -0,0 +1,160 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.rabbitmq.CorrelableOutboundMessage;
+import reactor.rabbitmq.OutboundMessageResult;
+import reactor.rabbitmq.SendOptions;
+import reactor.rabbitmq.Sender;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 結果發佈的結算：confirm 後才 ack 來源消息，nack、無法路由、逾時與關閉以失敗結算，每筆只結算一次
+ */
+public class AsyncResultPublisherTest {
+
+    private final List<CorrelableOutboundMessage<AsyncResultPublisher.PendingConfirm>> published =
+            new CopyOnWriteArrayList<>();
+    private final Sinks.Many<OutboundMessageResult<CorrelableOutboundMessage<AsyncResultPublisher.PendingConfirm>>>
+            confirms = Sinks.many().unicast().onBackpressureBuffer();
+    private final AtomicInteger confirmed = new AtomicInteger();
+    private final List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+    private AsyncResultPublisher publisher;
+
+    @AfterEach
+    public void tearDown() {
+        if (publisher != null) {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    public void testSettlesOnlyAfterBrokerAck() {
+        start(Duration.ofMinutes(1));
+
+        StepVerifier.create(publishAndSettle()).verifyComplete();
+        assertEquals(1, published.size());
+        assertEquals(0, confirmed.get());
+
+        confirm(0, true, false);
+        assertEquals(1, confirmed.get());
+        assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    public void testNackSettlesAsFailure() {
+        start(Duration.ofMinutes(1));
+
+        StepVerifier.create(publishAndSettle()).verifyComplete();
+        confirm(0, false, false);
+
+        assertEquals(0, confirmed.get());
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0).getMessage().contains("nack"), failures.get(0).getMessage());
+    }
+
+    @Test
+    public void testReturnedMessageSettlesAsFailure() {
+        start(Duration.ofMinutes(1));
+
+        StepVerifier.create(publishAndSettle()).verifyComplete();
+        // 無法路由的消息 broker 仍會 ack
+        confirm(0, true, true);
+
+        assertEquals(0, confirmed.get());
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0).getMessage().contains("無法路由"), failures.get(0).getMessage());
+    }
+
+    @Test
+    public void testTimeoutSettlesOnceAndIgnoresLateConfirm() {
+        start(Duration.ZERO);
+
+        StepVerifier.create(publishAndSettle()).verifyComplete();
+        publisher.expireOverdue();
+        publisher.expireOverdue();
+        assertEquals(1, failures.size());
+        assertInstanceOf(TimeoutException.class, failures.get(0));
+
+        confirm(0, true, false);
+        assertEquals(0, confirmed.get());
+        assertEquals(1, failures.size());
+    }
+
+    @Test
+    public void testScheduledSweepExpiresUnconfirmedMessages() {
+        start(Duration.ofMillis(50));
+
+        StepVerifier.create(publishAndSettle()).verifyComplete();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (failures.isEmpty() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, failures.size());
+        assertInstanceOf(TimeoutException.class, failures.get(0));
+    }
+
+    @Test
+    public void testStopFailsPendingMessages() {
+        start(Duration.ofMinutes(1));
+
+        StepVerifier.create(publishAndSettle()).verifyComplete();
+        publisher.stop();
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0).getMessage().contains("已關閉"), failures.get(0).getMessage());
+    }
+
+    @Test
+    public void testPublishCompletesOnAckAndFailsOnNack() {
+        start(Duration.ofMinutes(1));
+
+        StepVerifier.create(publisher.publish("tymb-exchange", "async.result", new byte[0]))
+                .then(() -> confirm(0, true, false))
+                .verifyComplete();
+        StepVerifier.create(publisher.publish("tymb-exchange", "async.result", new byte[0]))
+                .then(() -> confirm(1, false, false))
+                .verifyErrorMessage("broker 拒絕結果消息 (nack)");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start(Duration confirmTimeout) {
+        Sender sender = mock(Sender.class);
+        when(sender.sendWithTypedPublishConfirms(any(), any(SendOptions.class))).thenAnswer(invocation ->
+                Flux.from(invocation.<Flux<CorrelableOutboundMessage<AsyncResultPublisher.PendingConfirm>>>getArgument(0))
+                        .doOnNext(published::add)
+                        .thenMany(Flux.<OutboundMessageResult<CorrelableOutboundMessage<AsyncResultPublisher.PendingConfirm>>>never())
+                        .mergeWith(confirms.asFlux()));
+        ObjectProvider<Sender> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(sender);
+
+        publisher = new AsyncResultPublisher(provider, 16, 16, confirmTimeout);
+        publisher.start();
+        assertTrue(publisher.isAvailable());
+    }
+
+    private Mono<Void> publishAndSettle() {
+        return publisher.publishAndSettle("tymb-exchange", "async.result", new byte[0],
+                confirmed::incrementAndGet, failures::add);
+    }
+
+    private void confirm(int index, boolean ack, boolean returned) {
+        assertEquals(Sinks.EmitResult.OK,
+                confirms.tryEmitNext(new OutboundMessageResult<>(published.get(index), ack, returned)));
+    }
+}
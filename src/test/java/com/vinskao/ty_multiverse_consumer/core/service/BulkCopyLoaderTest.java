@@ -0,0 +1,38 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * COPY 合併 SQL：upsert 以 DISTINCT ON 加 ON CONFLICT 覆寫，只新增時不處理衝突、交給唯一約束
+ */
+public class BulkCopyLoaderTest {
+
+    private static final List<String> COLUMNS = List.of("name", "age", "created_at", "version");
+
+    @Test
+    public void testUpsertMergeOverwritesAndBumpsVersion() {
+        BulkCopySpec<Object> spec = BulkCopySpec.of("people", "name", COLUMNS,
+                "version = COALESCE(people.version, 0) + 1", row -> new Object[0]);
+
+        assertEquals("INSERT INTO people (name, age, created_at, version) "
+                        + "SELECT DISTINCT ON (name) name, age, created_at, version FROM people_copy_staging"
+                        + " ORDER BY name, copy_seq DESC"
+                        + " ON CONFLICT (name) DO UPDATE SET age = EXCLUDED.age,"
+                        + " version = COALESCE(people.version, 0) + 1",
+                BulkCopyLoader.buildMergeSql(spec, String.join(", ", COLUMNS), spec.getStagingTable()));
+    }
+
+    @Test
+    public void testInsertOnlyMergeKeepsEveryRowAndHasNoConflictClause() {
+        BulkCopySpec<Object> spec = BulkCopySpec.insertOnly("people", "name", COLUMNS, row -> new Object[0]);
+
+        assertFalse(spec.isUpsert());
+        assertEquals("INSERT INTO people (name, age, created_at, version) "
+                        + "SELECT name, age, created_at, version FROM people_copy_staging ORDER BY copy_seq",
+                BulkCopyLoader.buildMergeSql(spec, String.join(", ", COLUMNS), spec.getStagingTable()));
+    }
+}
@@ -0,0 +1,175 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 同 key 的請求共用執行中的讀取；結束（含錯誤）後移除，資源失效時捨棄執行中的項目
+ */
+public class RequestCoalescerTest {
+
+    private static final String KEY = "people:getByName:Alice";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer coalescer;
+    private AtomicInteger loads;
+    private Sinks.One<String> result;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer(meterRegistry, true);
+        loads = new AtomicInteger();
+        result = Sinks.one();
+    }
+
+    @Test
+    public void testConcurrentRequestJoinsInFlightExecution() {
+        Mono<String> first = coalescer.execute(KEY, this::load);
+        Mono<String> second = coalescer.execute(KEY, this::load);
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> result.tryEmitValue("Alice"))
+                .assertNext(pair -> {
+                    assertEquals("Alice", pair.getT1());
+                    assertEquals("Alice", pair.getT2());
+                })
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, counter("ty.consumer.coalescing.executions"));
+        assertEquals(1.0, counter("ty.consumer.coalescing.coalesced"));
+    }
+
+    @Test
+    public void testCompletedExecutionIsNotReused() {
+        StepVerifier.create(coalescer.execute(KEY, () -> Mono.just(loads.incrementAndGet())))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(coalescer.execute(KEY, () -> Mono.just(loads.incrementAndGet())))
+                .expectNext(2)
+                .verifyComplete();
+
+        assertEquals(0.0, counter("ty.consumer.coalescing.coalesced"));
+    }
+
+    @Test
+    public void testErrorIsSharedThenCleanedUp() {
+        Mono<String> first = coalescer.execute(KEY, this::load);
+        Mono<String> second = coalescer.execute(KEY, this::load);
+
+        StepVerifier.create(Mono.zip(first.materialize(), second.materialize()))
+                .then(() -> result.tryEmitError(new IllegalStateException("db down")))
+                .assertNext(signals -> {
+                    assertEquals("db down", signals.getT1().getThrowable().getMessage());
+                    assertEquals("db down", signals.getT2().getThrowable().getMessage());
+                })
+                .verifyComplete();
+
+        // 錯誤不保留，下一個請求重新執行
+        StepVerifier.create(coalescer.execute(KEY, () -> Mono.just("Alice")))
+                .expectNext("Alice")
+                .verifyComplete();
+        assertEquals(1, loads.get());
+        assertEquals(2.0, counter("ty.consumer.coalescing.executions"));
+    }
+
+    @Test
+    public void testTimedOutRequesterDoesNotCancelSharedExecution() {
+        Mono<String> waiting = coalescer.execute(KEY, this::load);
+        Mono<String> impatient = coalescer.execute(KEY, this::load).timeout(Duration.ofMillis(50));
+
+        StepVerifier.create(waiting)
+                .then(() -> StepVerifier.create(impatient)
+                        .expectError(TimeoutException.class)
+                        .verify(Duration.ofSeconds(5)))
+                .then(() -> assertEquals(1, result.currentSubscriberCount()))
+                .then(() -> result.tryEmitValue("Alice"))
+                .expectNext("Alice")
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testTimedOutOnlyRequesterLeavesExecutionForNextRequest() {
+        StepVerifier.create(coalescer.execute(KEY, this::load).timeout(Duration.ofMillis(50)))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+
+        // 執行仍在進行，後到的請求加入並拿到結果
+        StepVerifier.create(coalescer.execute(KEY, this::load))
+                .then(() -> result.tryEmitValue("Alice"))
+                .expectNext("Alice")
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testEvictionForgetsInFlightExecution() {
+        ResourceCacheManager cacheManager = new ResourceCacheManager();
+        // 與 ReactiveConsumerRegistry 註冊的處理器相同
+        cacheManager.addEvictionListener(resource -> coalescer.forget(cacheManager.getCacheKey(resource, "")));
+
+        Mono<String> beforeWrite = coalescer.execute(KEY, this::load);
+        StepVerifier.create(beforeWrite)
+                .then(() -> StepVerifier.create(cacheManager.evictCache("people")).verifyComplete())
+                // 寫入後的請求不加入寫入前開始的查詢
+                .then(() -> StepVerifier.create(coalescer.execute(KEY, () -> Mono.just("Alice v2")))
+                        .expectNext("Alice v2")
+                        .verifyComplete())
+                // 已加入的請求仍收到原本的結果
+                .then(() -> result.tryEmitValue("Alice v1"))
+                .expectNext("Alice v1")
+                .verifyComplete();
+
+        assertEquals(2.0, counter("ty.consumer.coalescing.executions"));
+        assertEquals(0.0, counter("ty.consumer.coalescing.coalesced"));
+    }
+
+    @Test
+    public void testEvictionOnlyForgetsMatchingResource() {
+        Mono<String> people = coalescer.execute(KEY, this::load);
+        StepVerifier.create(people)
+                .then(() -> coalescer.forget("weapon:"))
+                .then(() -> StepVerifier.create(coalescer.execute(KEY, this::load))
+                        .then(() -> result.tryEmitValue("Alice"))
+                        .expectNext("Alice")
+                        .verifyComplete())
+                .expectNext("Alice")
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testDisabledCoalescerExecutesEveryRequest() {
+        RequestCoalescer disabled = new RequestCoalescer(new SimpleMeterRegistry(), false);
+
+        StepVerifier.create(Mono.zip(
+                        disabled.execute(KEY, () -> Mono.just(loads.incrementAndGet())),
+                        disabled.execute(KEY, () -> Mono.just(loads.incrementAndGet()))))
+                .assertNext(pair -> assertNotEquals(pair.getT1(), pair.getT2()))
+                .verifyComplete();
+        assertEquals(2, loads.get());
+    }
+
+    private Mono<String> load() {
+        loads.incrementAndGet();
+        return result.asMono();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+}
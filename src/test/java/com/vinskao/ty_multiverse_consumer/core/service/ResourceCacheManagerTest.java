@@ -0,0 +1,111 @@
+package com.vinskao.ty_multiverse_consumer.core.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinskao.ty_multiverse_consumer.service.RedisService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 資源清理須移除 getAll、names 與所有帶參數的 getByName 快取，且清理期間的讀取不會把舊值留在 L1
+ */
+public class ResourceCacheManagerTest {
+
+    private RedisService redisService;
+    private CacheInvalidationBus invalidationBus;
+    private ResourceCacheManager cacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        redisService = mock(RedisService.class);
+        invalidationBus = mock(CacheInvalidationBus.class);
+        when(redisService.set(anyString(), anyString(), any())).thenReturn(Mono.just(true));
+        when(redisService.get(anyString())).thenReturn(Mono.empty());
+        when(redisService.delete(anyString())).thenReturn(Mono.just(true));
+        when(redisService.deleteByPrefix(anyString())).thenReturn(Mono.just(0L));
+        when(invalidationBus.publish(anyString())).thenReturn(Mono.empty());
+
+        cacheManager = new ResourceCacheManager();
+        ReflectionTestUtils.setField(cacheManager, "redisService", redisService);
+        ReflectionTestUtils.setField(cacheManager, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cacheManager, "invalidationBus", invalidationBus);
+        ReflectionTestUtils.setField(cacheManager, "l1Enabled", true);
+        ReflectionTestUtils.setField(cacheManager, "l1MaxWeightBytes", 1024L * 1024);
+        ReflectionTestUtils.setField(cacheManager, "l1Ttl", Duration.ofMinutes(1));
+        cacheManager.initL1Cache();
+    }
+
+    @Test
+    public void testEvictCacheRemovesGetByNameEntries() {
+        put("people:getAll");
+        put("people:names");
+        put("people:getByName:Alice");
+        put("people:getByName:alice");
+        put("weapon:getByName:Alice");
+
+        StepVerifier.create(cacheManager.evictCache("people")).verifyComplete();
+
+        assertCached(false, "people:getAll");
+        assertCached(false, "people:names");
+        assertCached(false, "people:getByName:Alice");
+        assertCached(false, "people:getByName:alice");
+        assertCached(true, "weapon:getByName:Alice");
+
+        verify(redisService).delete("people:getAll");
+        verify(redisService).delete("people:names");
+        verify(redisService).deleteByPrefix("people:getByName:");
+        verify(invalidationBus).publish("people");
+    }
+
+    @Test
+    public void testReadDuringRedisDeleteDoesNotLeaveStaleL1Entry() {
+        String key = "people:getAll";
+        AtomicBoolean deleted = new AtomicBoolean();
+        when(redisService.get(key)).thenReturn(Mono.defer(() -> deleted.get()
+                ? Mono.empty() : Mono.just("{\"version\":1}")));
+        // 讀取落在 L1 已清、Redis 尚未刪除之間：L1 未命中，讀到 Redis 舊值並回填 L1
+        when(redisService.delete(key)).thenReturn(Mono.defer(() -> {
+            assertEquals("{\"version\":1}", cacheManager.getCache(key).block());
+            deleted.set(true);
+            return Mono.just(true);
+        }));
+        put(key);
+
+        StepVerifier.create(cacheManager.evictCache("people")).verifyComplete();
+
+        assertCached(false, key);
+    }
+
+    @Test
+    public void testEvictionListenersRunOnceAfterRedisDelete() {
+        AtomicBoolean deleted = new AtomicBoolean();
+        when(redisService.delete("people:getAll")).thenReturn(Mono.fromCallable(() -> deleted.getAndSet(true)));
+        List<Boolean> deletedWhenNotified = new ArrayList<>();
+        cacheManager.addEvictionListener(resource -> deletedWhenNotified.add(deleted.get()));
+
+        StepVerifier.create(cacheManager.evictCache("people")).verifyComplete();
+
+        assertEquals(List.of(true), deletedWhenNotified);
+    }
+
+    private void put(String key) {
+        StepVerifier.create(cacheManager.putCache(key, "{\"key\":\"" + key + "\"}", Duration.ofMinutes(1)))
+                .verifyComplete();
+    }
+
+    private void assertCached(boolean expected, String key) {
+        // Redis 已模擬為空，命中只可能來自 L1
+        assertEquals(expected, cacheManager.getCache(key).blockOptional().isPresent(), key);
+    }
+}
@@ -0,0 +1,191 @@
+package com.vinskao.ty_multiverse_consumer.core.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinskao.ty_multiverse_consumer.core.dto.AsyncMessageHeader;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 串流解析標頭與 payload：標頭計算的筆數須與 payload 串流實際送出的元素一致
+ */
+public class AsyncMessageStreamReaderTest {
+
+    private final AsyncMessageStreamReader reader = new AsyncMessageStreamReader(new ObjectMapper());
+
+    @Test
+    public void testHeaderAndPayloadAgree() throws IOException {
+        byte[] body = utf8("""
+                {"requestId":"r-1","endpoint":"/people/insert-multiple","method":"POST",
+                 "extra":{"nested":[1,2,{"deep":true}]},
+                 "payload":[{"name":"A"},{"name":"B","attributes":"[x]"},{"name":"C"}],
+                 "timestamp":1700000000000,"source":"producer"}
+                """);
+
+        AsyncMessageHeader header = reader.readHeader(body);
+        assertEquals("r-1", header.getRequestId());
+        assertEquals("/people/insert-multiple", header.getEndpoint());
+        assertEquals("POST", header.getMethod());
+        assertEquals("producer", header.getSource());
+        assertEquals(1700000000000L, header.getTimestamp());
+        assertEquals(3, header.getPayloadSize());
+
+        assertEquals(List.of("A", "B", "C"), names(reader.readPayloadArray(body, People.class)));
+    }
+
+    @Test
+    public void testMissingPayload() throws IOException {
+        byte[] body = utf8("{\"requestId\":\"r-1\",\"timestamp\":null}");
+
+        AsyncMessageHeader header = reader.readHeader(body);
+        assertEquals(-1, header.getPayloadSize());
+        assertNull(header.getTimestamp());
+
+        StepVerifier.create(reader.readPayloadArray(body, People.class))
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(IllegalArgumentException.class, e);
+                    assertEquals("消息缺少 payload 欄位", e.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    public void testNullPayload() throws IOException {
+        byte[] body = utf8("{\"requestId\":\"r-1\",\"payload\":null}");
+
+        assertEquals(-1, reader.readHeader(body).getPayloadSize());
+        StepVerifier.create(reader.readPayloadArray(body, People.class))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    public void testEmptyPayloadArray() throws IOException {
+        byte[] body = utf8("{\"payload\":[],\"requestId\":\"r-1\"}");
+
+        assertEquals(0, reader.readHeader(body).getPayloadSize());
+        assertEquals("r-1", reader.readHeader(body).getRequestId());
+        StepVerifier.create(reader.readPayloadArray(body, People.class))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testNonArrayPayload() throws IOException {
+        byte[] body = utf8("{\"payload\":{\"name\":\"A\"},\"requestId\":\"r-1\"}");
+
+        AsyncMessageHeader header = reader.readHeader(body);
+        assertEquals(-1, header.getPayloadSize());
+        assertEquals("r-1", header.getRequestId());
+        StepVerifier.create(reader.readPayloadArray(body, People.class))
+                .expectErrorSatisfies(e -> {
+                    assertInstanceOf(IllegalArgumentException.class, e);
+                    assertEquals("無效的 payload 格式，預期為陣列", e.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    public void testNonObjectBody() {
+        byte[] body = utf8("[{\"name\":\"A\"}]");
+
+        assertThrows(IOException.class, () -> reader.readHeader(body));
+        StepVerifier.create(reader.readPayloadArray(body, People.class))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    public void testElementOfWrongTypePartWay() throws IOException {
+        byte[] body = utf8("{\"payload\":[{\"name\":\"A\"},{\"name\":\"B\"},5,{\"name\":\"D\"}]}");
+
+        // 語法正確，標頭照常計數；串流送出前兩筆後以錯誤結束，不會略過壞元素繼續
+        assertEquals(4, reader.readHeader(body).getPayloadSize());
+        StepVerifier.create(reader.readPayloadArray(body, People.class).map(People::getName))
+                .expectNext("A", "B")
+                .expectError(JsonProcessingException.class)
+                .verify();
+    }
+
+    @Test
+    public void testMalformedJsonPartWay() {
+        byte[] body = utf8("{\"payload\":[{\"name\":\"A\"},{\"name\":},{\"name\":\"C\"}]}");
+
+        assertThrows(JsonProcessingException.class, () -> reader.readHeader(body));
+        StepVerifier.create(reader.readPayloadArray(body, People.class).map(People::getName))
+                .expectNext("A")
+                .expectError(JsonProcessingException.class)
+                .verify();
+    }
+
+    @Test
+    public void testTruncatedBody() {
+        byte[] body = utf8("{\"payload\":[{\"name\":\"A\"},{\"name\":\"B\"}");
+
+        assertThrows(JsonProcessingException.class, () -> reader.readHeader(body));
+        StepVerifier.create(reader.readPayloadArray(body, People.class).map(People::getName))
+                .expectNext("A", "B")
+                .expectError(JsonProcessingException.class)
+                .verify();
+    }
+
+    @Test
+    public void testNonAsciiUtf8Names() throws IOException {
+        List<String> expected = List.of("艾莉絲", "Zoë", "ローラ 🌸", "\"引號\\反斜線\"");
+        byte[] body = utf8("""
+                {"requestId":"請求-一","payload":[{"name":"艾莉絲"},{"name":"Zoë"},{"name":"ローラ 🌸"},
+                 {"name":"\\"引號\\\\反斜線\\""}]}
+                """);
+
+        AsyncMessageHeader header = reader.readHeader(body);
+        assertEquals("請求-一", header.getRequestId());
+        assertEquals(expected.size(), header.getPayloadSize());
+        assertEquals(expected, names(reader.readPayloadArray(body, People.class)));
+    }
+
+    @Test
+    public void testDuplicatePayloadFieldUsesFirst() throws IOException {
+        byte[] body = utf8("{\"payload\":[{\"name\":\"A\"}],\"payload\":[{\"name\":\"B\"},{\"name\":\"C\"}]}");
+
+        List<String> streamed = names(reader.readPayloadArray(body, People.class));
+        assertEquals(List.of("A"), streamed);
+        assertEquals(streamed.size(), reader.readHeader(body).getPayloadSize());
+    }
+
+    @Test
+    public void testPayloadArrayCanBeResubscribed() {
+        byte[] body = utf8("{\"payload\":[{\"name\":\"A\"},{\"name\":\"B\"}]}");
+        Flux<String> streamed = reader.readPayloadArray(body, People.class).map(People::getName);
+
+        assertEquals(List.of("A", "B"), streamed.collectList().block());
+        assertEquals(List.of("A", "B"), streamed.collectList().block());
+    }
+
+    @Test
+    public void testPayloadArrayHonoursDemand() {
+        byte[] body = utf8("{\"payload\":[{\"name\":\"A\"},{\"name\":\"B\"},{\"name\":\"C\"}]}");
+
+        StepVerifier.create(reader.readPayloadArray(body, People.class).map(People::getName), 1)
+                .expectNext("A")
+                .thenRequest(2)
+                .expectNext("B", "C")
+                // generate 只在有需求時前進，讀到 END_ARRAY 才會完成
+                .thenRequest(1)
+                .verifyComplete();
+    }
+
+    private static List<String> names(Flux<People> people) {
+        return people.map(People::getName).collectList().block();
+    }
+
+    private static byte[] utf8(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
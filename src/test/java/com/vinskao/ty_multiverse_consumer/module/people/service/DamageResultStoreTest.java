@@ -0,0 +1,198 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.vinskao.ty_multiverse_consumer.module.people.dao.DamageCalculationResultRepository;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.DamageCalculationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 傷害結果 write-behind：重複的 requestId 由近期結果或資料庫回答，同批去重、緩衝溢出只略過持久化，關閉前寫完
+ */
+public class DamageResultStoreTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private DamageCalculationResultRepository repository;
+    private DatabaseClient databaseClient;
+    private DatabaseClient.GenericExecuteSpec executeSpec;
+    private DamageResultStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        repository = mock(DamageCalculationResultRepository.class);
+        databaseClient = mock(DatabaseClient.class);
+        executeSpec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+        when(databaseClient.sql(anyString())).thenReturn(executeSpec);
+        when(executeSpec.fetch()).thenReturn(fetchSpec);
+        when(fetchSpec.rowsUpdated()).thenReturn(Mono.just(1L));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (store != null) {
+            store.stop();
+        }
+    }
+
+    @Test
+    public void testRepeatedRequestIsAnsweredFromRecentResults() {
+        store = newStore(16, false);
+
+        store.recordSuccess("req-1", "Alice", 120);
+
+        StepVerifier.create(store.findCompleted("req-1", false))
+                .assertNext(result -> {
+                    assertEquals("Alice", result.getCharacterName());
+                    assertEquals(Integer.valueOf(120), result.getDamageValue());
+                })
+                .verifyComplete();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void testOnlySuccessfulResultsAreReused() {
+        store = newStore(16, true);
+
+        store.recordError("req-1", "Alice", "weapon lookup failed");
+
+        StepVerifier.create(store.findCompleted("req-1", true)).verifyComplete();
+        StepVerifier.create(store.findCompleted(null, true)).verifyComplete();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void testDatabaseIsOnlyQueriedOnRedeliveryByDefault() {
+        store = newStore(16, false);
+        when(repository.findByRequestId("req-1")).thenReturn(Mono.just(stored("req-1", "success")));
+
+        StepVerifier.create(store.findCompleted("req-1", false)).verifyComplete();
+        verifyNoInteractions(repository);
+
+        StepVerifier.create(store.findCompleted("req-1", true))
+                .assertNext(result -> assertEquals("req-1", result.getRequestId()))
+                .verifyComplete();
+        verify(repository).findByRequestId("req-1");
+    }
+
+    @Test
+    public void testStoredFailureOrLookupErrorLeadsToRecalculation() {
+        store = newStore(16, true);
+        when(repository.findByRequestId("failed")).thenReturn(Mono.just(stored("failed", "error")));
+        when(repository.findByRequestId("broken")).thenReturn(Mono.error(new IllegalStateException("db down")));
+
+        StepVerifier.create(store.findCompleted("failed", false)).verifyComplete();
+        StepVerifier.create(store.findCompleted("broken", true)).verifyComplete();
+    }
+
+    @Test
+    public void testBatchKeepsLastResultPerRequestId() {
+        store = newStore(16, false);
+
+        store.recordError("req-1", "Alice", "timeout");
+        store.recordSuccess("req-2", "Bob", 80);
+        store.recordSuccess("req-1", "Alice", 120);
+        store.stop();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertTrue(sql.getValue().contains(":requestId_1"), sql.getValue());
+        assertFalse(sql.getValue().contains(":requestId_2"), sql.getValue());
+        verify(executeSpec).bind("requestId_0", "req-1");
+        verify(executeSpec).bind("status_0", "success");
+        verify(executeSpec).bind("damageValue_0", 120);
+        verify(executeSpec).bindNull("errorMessage_0", String.class);
+        verify(executeSpec).bind("requestId_1", "req-2");
+    }
+
+    @Test
+    public void testBufferOverflowSkipsPersistenceButKeepsRecentResult() {
+        // 管線尚未啟動，緩衝只容得下八筆（Reactor 佇列容量至少為 8）
+        store = new DamageResultStore(repository, databaseClient, 8, 100, NEVER, 100, Duration.ofMinutes(10),
+                false);
+
+        for (int i = 0; i <= 8; i++) {
+            store.recordSuccess("req-" + i, "Alice", i);
+        }
+        store.start();
+        store.stop();
+
+        verify(executeSpec).bind("requestId_7", "req-7");
+        verify(executeSpec, never()).bind(anyString(), eq("req-8"));
+        StepVerifier.create(store.findCompleted("req-8", false))
+                .assertNext(result -> assertEquals(Integer.valueOf(8), result.getDamageValue()))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testStopFlushesBufferedResultsBeforeReturning() {
+        store = newStore(16, false);
+
+        store.recordSuccess("req-1", "Alice", 120);
+        verify(databaseClient, never()).sql(anyString());
+
+        store.stop();
+
+        verify(databaseClient).sql(anyString());
+        verify(executeSpec).bind("requestId_0", "req-1");
+    }
+
+    @Test
+    public void testFullBatchIsWrittenWithoutWaitingForInterval() {
+        store = new DamageResultStore(repository, databaseClient, 16, 2, NEVER, 100, Duration.ofMinutes(10), false);
+        store.start();
+
+        store.recordSuccess("req-1", "Alice", 1);
+        store.recordSuccess("req-2", "Bob", 2);
+
+        verify(databaseClient, timeout(5_000)).sql(anyString());
+        verify(executeSpec, timeout(5_000)).bind("requestId_1", "req-2");
+    }
+
+    @Test
+    public void testWriteFailureDropsBatchAndKeepsPipelineRunning() {
+        store = newStore(16, false);
+        when(executeSpec.fetch()).thenThrow(new IllegalStateException("db down"));
+
+        store.recordSuccess("req-1", "Alice", 120);
+        store.stop();
+
+        // 初次寫入加三次重試
+        verify(databaseClient, times(4)).sql(anyString());
+        StepVerifier.create(store.findCompleted("req-1", false))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    /**
+     * 只在 batch-size 或關閉時寫入，計時器不會在測試期間觸發
+     */
+    private DamageResultStore newStore(int bufferSize, boolean lookupDatabase) {
+        DamageResultStore created = new DamageResultStore(repository, databaseClient, bufferSize, 100, NEVER, 100,
+                Duration.ofMinutes(10), lookupDatabase);
+        created.start();
+        return created;
+    }
+
+    private static DamageCalculationResult stored(String requestId, String status) {
+        DamageCalculationResult result = new DamageCalculationResult(requestId, "Alice");
+        result.setStatus(status);
+        result.setDamageValue(99);
+        return result;
+    }
+}
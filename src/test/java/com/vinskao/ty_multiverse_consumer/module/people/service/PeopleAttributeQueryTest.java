@@ -0,0 +1,167 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.vinskao.ty_multiverse_consumer.core.service.ResourceCacheManager;
+import com.vinskao.ty_multiverse_consumer.module.people.dao.PeopleRepository;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 合併屬性查詢（{@code attributes ~ pattern}）與記憶體索引須與原本逐屬性的
+ * {@code LIKE CONCAT('%', :attribute, '%')} 回傳相同的角色
+ *
+ * <p>兩條 SQL 直接取自 {@link PeopleRepository} 的 {@link Query}，在 H2（PostgreSQL 相容模式）上執行；
+ * H2 以 java.util.regex 評估 {@code ~}，對產生的樣式（反斜線加非英數字元、{@code .}、{@code .*}）
+ * 與 PostgreSQL ARE 的解讀相同。</p>
+ */
+public class PeopleAttributeQueryTest {
+
+    private static final List<String> ATTRIBUTES = Arrays.asList(
+            "火", "水", "淫", "火水", "光與暗", "光", "暗",
+            "a.b", "axb", "a*b", "aab", "a(b", "a)b", "a|b", "a\\b", "a[b]", "a{2}", "a+b", "a?b", "a^b", "a$b",
+            "a_b", "a%b", "a-b", "a b", "ab", "abc", "x.y.z", "100%", "50_50", "C:\\path", "\"q\"", "'s'",
+            "Light", "light", "LIGHT", "", null, "多\n行", "😀emoji", "emoji😀");
+
+    private static final List<String> QUERIES = List.of(
+            ".", "*", "(", ")", "|", "\\\\", "_", "%", "a.b", "a*b", "a(b", "a|b", "a\\\\b", "[b]", "{2}", "+", "?",
+            "^", "$", "a_b", "a%b", "a\\_b", "a\\%b", "100\\%", "50\\_", "\\a", "光", "光與", "與暗", "火水", "水",
+            "淫", "light", "Light", "LIGHT", "ab", "abc", "a b", "", "'", "\"", "\\.", "x.y", "_\n", "😀", "emoji",
+            "no-such-attribute", "不存在");
+
+    private static DatabaseClient databaseClient;
+    private static List<People> people;
+
+    @BeforeAll
+    public static void createTable() {
+        databaseClient = DatabaseClient.create(ConnectionFactories.get(
+                "r2dbc:h2:mem:///people_attributes;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"));
+        databaseClient.sql("CREATE TABLE people (name VARCHAR(255) PRIMARY KEY, attributes VARCHAR(255))")
+                .then().block();
+
+        people = new ArrayList<>();
+        for (int i = 0; i < ATTRIBUTES.size(); i++) {
+            People person = new People();
+            person.setName("P" + i);
+            person.setAttributes(ATTRIBUTES.get(i));
+            people.add(person);
+            DatabaseClient.GenericExecuteSpec insert = databaseClient
+                    .sql("INSERT INTO people (name, attributes) VALUES (:name, :attributes)")
+                    .bind("name", person.getName());
+            insert = person.getAttributes() == null ? insert.bindNull("attributes", String.class)
+                    : insert.bind("attributes", person.getAttributes());
+            insert.then().block();
+        }
+    }
+
+    @AfterAll
+    public static void dropTable() {
+        databaseClient.sql("DROP TABLE people").then().block();
+    }
+
+    @Test
+    public void testSingleAttributeMatchesLike() throws Exception {
+        for (String attribute : QUERIES) {
+            assertEquals(like(List.of(attribute)), regex(List.of(attribute)), () -> "attribute=" + attribute);
+        }
+    }
+
+    @Test
+    public void testMultipleAttributesMatchUnionOfLikes() throws Exception {
+        List<List<String>> combinations = List.of(
+                List.of("火", "水"),
+                List.of(".", "_"),
+                List.of("a|b", "光"),
+                List.of("\\\\", "%", "淫"),
+                List.of("", "不存在"),
+                List.of("no-such-attribute", "不存在"),
+                QUERIES);
+        for (List<String> attributes : combinations) {
+            assertEquals(like(attributes), regex(attributes), () -> "attributes=" + attributes);
+        }
+    }
+
+    @Test
+    public void testAttributeIndexMatchesSqlPath() throws Exception {
+        PeopleAttributeIndex index = loadedIndex();
+        for (String attribute : QUERIES) {
+            assertEquals(regex(List.of(attribute)), names(index.find(List.of(attribute))),
+                    () -> "attribute=" + attribute);
+        }
+        assertEquals(regex(QUERIES), names(index.find(QUERIES)));
+    }
+
+    @Test
+    public void testToContainsPatternEscapesRegexMetacharacters() {
+        assertEquals("a\\.b", PeopleService.toContainsPattern(List.of("a.b")));
+        assertEquals("\\(\\*\\|\\)", PeopleService.toContainsPattern(List.of("(*|)")));
+        assertEquals("光與暗|火", PeopleService.toContainsPattern(List.of("光與暗", "火")));
+        // LIKE 萬用字元與跳脫
+        assertEquals("a.b|a.*b", PeopleService.toContainsPattern(List.of("a_b", "a%b")));
+        assertEquals("a\\_b|a\\%b|a\\\\b", PeopleService.toContainsPattern(List.of("a\\_b", "a\\%b", "a\\\\b")));
+        assertEquals("", PeopleService.toContainsPattern(List.of("火", "")));
+        assertEquals("", PeopleService.toContainsPattern(List.of("%", "火")));
+    }
+
+    @Test
+    public void testTrailingEscapeIsRejectedLikeTheDatabase() {
+        assertThrows(IllegalArgumentException.class, () -> PeopleService.toContainsPattern(List.of("a\\")));
+        assertThrows(IllegalArgumentException.class, () -> loadedIndex().find(List.of("a\\")));
+    }
+
+    private static PeopleAttributeIndex loadedIndex() {
+        PeopleRepository repository = mock(PeopleRepository.class);
+        when(repository.findAll()).thenReturn(Flux.fromIterable(people));
+        PeopleAttributeIndex index = new PeopleAttributeIndex(repository, mock(ResourceCacheManager.class), true);
+        index.loadOnStartup();
+        assertTrue(index.isReady());
+        return index;
+    }
+
+    /**
+     * 原本的查詢：逐屬性 LIKE 後合併
+     */
+    private static Set<String> like(List<String> attributes) throws Exception {
+        String sql = query("findByAttributeContaining");
+        Set<String> names = new TreeSet<>();
+        for (String attribute : attributes) {
+            names.addAll(databaseClient.sql(sql).bind("attribute", attribute)
+                    .map(row -> row.get("name", String.class)).all().collectList().block());
+        }
+        return names;
+    }
+
+    /**
+     * 現在的查詢：單一正規表示式
+     */
+    private static Set<String> regex(List<String> attributes) throws Exception {
+        List<String> found = databaseClient.sql(query("findByAttributesMatching"))
+                .bind("pattern", PeopleService.toContainsPattern(attributes))
+                .map(row -> row.get("name", String.class)).all().collectList().block();
+        Set<String> names = new TreeSet<>(found);
+        assertEquals(found.size(), names.size(), "每個角色只應回傳一次");
+        return names;
+    }
+
+    private static Set<String> names(List<People> people) {
+        return people.stream().map(People::getName).collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static String query(String method) throws NoSuchMethodException {
+        return PeopleRepository.class.getMethod(method, String.class).getAnnotation(Query.class).value();
+    }
+}
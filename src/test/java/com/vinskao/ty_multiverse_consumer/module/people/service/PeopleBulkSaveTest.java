@@ -0,0 +1,158 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinskao.ty_multiverse_consumer.core.service.BulkCopyLoader;
+import com.vinskao.ty_multiverse_consumer.core.service.BulkCopySpec;
+import com.vinskao.ty_multiverse_consumer.module.people.dao.PeopleRepository;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleBatchInsertChunkResult;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 批量保存角色：COPY 與分塊 INSERT 都只新增不覆寫，COPY 不可用時退回分塊 INSERT
+ */
+public class PeopleBulkSaveTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int COPY_THRESHOLD = 3;
+
+    private DatabaseClient databaseClient;
+    private BulkCopyLoader bulkCopyLoader;
+    private PeopleService peopleService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        databaseClient = mock(DatabaseClient.class);
+        bulkCopyLoader = mock(BulkCopyLoader.class);
+
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.fetch()).thenReturn(fetchSpec);
+        when(fetchSpec.rowsUpdated()).thenReturn(Mono.just(1L));
+
+        peopleService = new PeopleService(mock(PeopleRepository.class), databaseClient, new ObjectMapper(),
+                bulkCopyLoader, mock(PeopleNameIndex.class), mock(PeopleAttributeIndex.class),
+                CHUNK_SIZE, 1, COPY_THRESHOLD);
+    }
+
+    @Test
+    public void testCopyUnsupportedFallsBackToChunkedInsertWithResubscribedRows() {
+        // COPY 先讀完整個串流才失敗，退回時必須重新訂閱來源
+        when(bulkCopyLoader.load(any(), any())).thenAnswer(invocation -> Flux.from(invocation.<Flux<People>>getArgument(1))
+                .then(Mono.error(new UnsupportedOperationException("not postgres"))));
+
+        AtomicInteger subscriptions = new AtomicInteger();
+        Flux<People> rows = Flux.defer(() -> {
+            subscriptions.incrementAndGet();
+            return Flux.just(person("A"), person("B"), person("C"), person("D"), person("E"));
+        });
+
+        StepVerifier.create(peopleService.bulkSavePeople(rows, 5, true))
+                .assertNext(chunk -> assertChunk(chunk, 0, "A", "B"))
+                .assertNext(chunk -> assertChunk(chunk, 2, "C", "D"))
+                .assertNext(chunk -> assertChunk(chunk, 4, "E"))
+                .verifyComplete();
+
+        assertEquals(2, subscriptions.get());
+        verify(databaseClient, times(3)).sql(anyString());
+    }
+
+    @Test
+    public void testCopyFailureOtherThanUnsupportedIsReportedWithoutFallback() {
+        when(bulkCopyLoader.load(any(), any())).thenReturn(Mono.error(new IllegalStateException("copy failed")));
+
+        StepVerifier.create(peopleService.bulkSavePeople(
+                Flux.just(person("A"), person("B"), person("C")), 3, true))
+                .assertNext(chunk -> {
+                    assertFalse(chunk.isSuccess());
+                    assertEquals("copy failed", chunk.getError());
+                })
+                .verifyComplete();
+
+        verify(databaseClient, never()).sql(anyString());
+    }
+
+    @Test
+    public void testChunkedInsertDoesNotOverwriteExistingNames() {
+        StepVerifier.create(peopleService.bulkSavePeople(List.of(person("A"), person("B"))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(databaseClient).sql(sql.capture());
+        assertTrue(sql.getValue().startsWith("INSERT INTO people ("), sql.getValue());
+        assertFalse(sql.getValue().contains("ON CONFLICT"), sql.getValue());
+        verifyNoInteractions(bulkCopyLoader);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCopyLoadIsInsertOnlyLikeChunkedInsert() {
+        when(bulkCopyLoader.load(any(), any())).thenAnswer(invocation ->
+                Flux.from(invocation.<Flux<People>>getArgument(1)).count());
+
+        StepVerifier.create(peopleService.bulkSavePeople(
+                Flux.just(person("A"), person("B"), person("C")), 3, false))
+                .assertNext(chunk -> {
+                    assertTrue(chunk.isSuccess());
+                    assertEquals(3, chunk.getSize());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<BulkCopySpec<People>> spec = ArgumentCaptor.forClass(BulkCopySpec.class);
+        verify(bulkCopyLoader).load(spec.capture(), any());
+        assertFalse(spec.getValue().isUpsert());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDuplicateNameFailsOnlyItsChunk() {
+        DatabaseClient.GenericExecuteSpec failing = mock(DatabaseClient.GenericExecuteSpec.class, RETURNS_SELF);
+        FetchSpec<Map<String, Object>> failingFetch = mock(FetchSpec.class);
+        when(failing.fetch()).thenReturn(failingFetch);
+        when(failingFetch.rowsUpdated()).thenReturn(Mono.error(
+                new IllegalStateException("duplicate key value violates unique constraint \"people_pkey\"")));
+        DatabaseClient.GenericExecuteSpec ok = databaseClient.sql("");
+        when(databaseClient.sql(anyString())).thenReturn(failing, ok);
+
+        StepVerifier.create(peopleService.saveAllPeopleInChunks(List.of(person("A"), person("A"), person("B"))))
+                .assertNext(chunk -> {
+                    assertFalse(chunk.isSuccess());
+                    assertEquals(0, chunk.getOffset());
+                    assertEquals(2, chunk.getSize());
+                    assertTrue(chunk.getError().contains("people_pkey"), chunk.getError());
+                })
+                .assertNext(chunk -> assertChunk(chunk, 2, "B"))
+                .verifyComplete();
+    }
+
+    private static void assertChunk(PeopleBatchInsertChunkResult chunk, int offset, String... names) {
+        assertTrue(chunk.isSuccess(), chunk.getError());
+        assertEquals(offset, chunk.getOffset());
+        assertEquals(List.of(names), chunk.getSavedPeople().stream().map(People::getName).toList());
+    }
+
+    private static People person(String name) {
+        People person = new People();
+        person.setName(name);
+        return person;
+    }
+}
@@ -0,0 +1,108 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vinskao.ty_multiverse_consumer.core.service.BulkCopyLoader;
+import com.vinskao.ty_multiverse_consumer.module.people.dao.PeopleRepository;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 名稱對照表只在小寫名稱對應唯一角色時換成主鍵；只差大小寫的多個角色交給資料庫的完全相符優先查詢
+ */
+public class PeopleNameIndexTest {
+
+    private PeopleRepository peopleRepository;
+    private PeopleNameIndex nameIndex;
+    private PeopleService peopleService;
+
+    @BeforeEach
+    public void setUp() {
+        peopleRepository = mock(PeopleRepository.class);
+        nameIndex = new PeopleNameIndex(peopleRepository);
+        peopleService = new PeopleService(peopleRepository, mock(DatabaseClient.class), new ObjectMapper(),
+                mock(BulkCopyLoader.class), nameIndex, mock(PeopleAttributeIndex.class), 500, 2, 5000);
+    }
+
+    @Test
+    public void testResolveIsCaseInsensitiveForUniqueName() {
+        nameIndex.remember("Alice");
+        nameIndex.remember("Alice");
+
+        assertEquals("Alice", nameIndex.resolve("ALICE"));
+        assertEquals("Alice", nameIndex.resolve("alice"));
+    }
+
+    @Test
+    public void testCollidingNamesAreNotResolved() {
+        when(peopleRepository.findAllNames()).thenReturn(Flux.just("Alice", "ALICE", "Bob"));
+        nameIndex.loadOnStartup();
+
+        assertNull(nameIndex.resolve("Alice"));
+        assertNull(nameIndex.resolve("ALICE"));
+        assertNull(nameIndex.resolve("alice"));
+        assertEquals("Bob", nameIndex.resolve("BOB"));
+    }
+
+    @Test
+    public void testCollidingNameFallsBackToExactMatchFirstQuery() {
+        nameIndex.remember("Alice");
+        nameIndex.remember("ALICE");
+        when(peopleRepository.findByNameIgnoreCase("ALICE")).thenReturn(Mono.just(person("ALICE")));
+
+        StepVerifier.create(peopleService.getPeopleByName("ALICE"))
+                .assertNext(found -> assertEquals("ALICE", found.getName()))
+                .verifyComplete();
+
+        verify(peopleRepository, never()).findByName(anyString());
+    }
+
+    @Test
+    public void testCollidingNameCombatProfileUsesExactMatchFirstQuery() {
+        nameIndex.remember("Alice");
+        nameIndex.remember("ALICE");
+        PeopleCombatProfile profile = mock(PeopleCombatProfile.class);
+        when(peopleRepository.findCombatProfileByNameIgnoreCase("ALICE")).thenReturn(Mono.just(profile));
+
+        StepVerifier.create(peopleService.getCombatProfileByName("ALICE"))
+                .expectNext(profile)
+                .verifyComplete();
+
+        verify(peopleRepository, never()).findCombatProfileByName(anyString());
+    }
+
+    @Test
+    public void testCollisionLearnedFromQueryResultsStopsPrimaryKeyLookup() {
+        nameIndex.remember("Alice");
+        when(peopleRepository.findByName("Alice")).thenReturn(Mono.just(person("Alice")));
+        when(peopleRepository.findByNameIgnoreCase("ALICE")).thenReturn(Mono.just(person("ALICE")));
+
+        StepVerifier.create(peopleService.getPeopleByName("ALICE"))
+                .assertNext(found -> assertEquals("Alice", found.getName()))
+                .verifyComplete();
+
+        // 之後新增了只差大小寫的 ALICE，查詢結果把它記入對照表
+        nameIndex.remember("ALICE");
+        clearInvocations(peopleRepository);
+
+        StepVerifier.create(peopleService.getPeopleByName("ALICE"))
+                .assertNext(found -> assertEquals("ALICE", found.getName()))
+                .verifyComplete();
+        verify(peopleRepository, never()).findByName("Alice");
+    }
+
+    private static People person(String name) {
+        People person = new People();
+        person.setName(name);
+        return person;
+    }
+}
@@ -0,0 +1,96 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service;
+
+import com.vinskao.ty_multiverse_consumer.core.service.CacheInvalidationBus;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import com.vinskao.ty_multiverse_consumer.module.people.service.strategy.CompiledDamageEngine;
+import com.vinskao.ty_multiverse_consumer.module.people.service.strategy.CompiledWeaponSet;
+import com.vinskao.ty_multiverse_consumer.module.weapon.service.WeaponService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 單一角色傷害的記憶以實際角色名稱為 key，只差在大小寫的角色不會互相命中
+ */
+public class WeaponDamageServiceTest {
+
+    private PeopleService peopleService;
+    private WeaponDamageService weaponDamageService;
+
+    @BeforeEach
+    public void setUp() {
+        peopleService = mock(PeopleService.class);
+        WeaponAggregateIndex weaponIndex = mock(WeaponAggregateIndex.class);
+        when(weaponIndex.isLoaded()).thenReturn(true);
+        when(weaponIndex.snapshot(anyString()))
+                .thenReturn(new WeaponAggregateIndex.OwnerWeapons(CompiledWeaponSet.empty(), 1L));
+
+        weaponDamageService = new WeaponDamageService(mock(WeaponService.class), peopleService,
+                new CompiledDamageEngine(), weaponIndex, mock(CacheInvalidationBus.class), 100,
+                Duration.ofMinutes(1));
+
+        // findByNameIgnoreCase 優先完全相符：Alice 與 alice 是兩個角色，ALICE 解析為 Alice
+        when(peopleService.getCombatProfileByName("Alice")).thenReturn(Mono.just(profile("Alice", 100)));
+        when(peopleService.getCombatProfileByName("alice")).thenReturn(Mono.just(profile("alice", 1)));
+        when(peopleService.getCombatProfileByName("ALICE")).thenReturn(Mono.just(profile("Alice", 100)));
+    }
+
+    @Test
+    public void testNamesDifferingOnlyInCaseDoNotShareMemo() {
+        expectDamage("Alice", 100);
+        expectDamage("alice", 1);
+        expectDamage("Alice", 100);
+        expectDamage("alice", 1);
+
+        // 第二次查詢由記憶回答
+        verify(peopleService, times(1)).getCombatProfileByName("Alice");
+        verify(peopleService, times(1)).getCombatProfileByName("alice");
+    }
+
+    @Test
+    public void testCaseInsensitiveQueryResolvesThroughDatabase() {
+        expectDamage("alice", 1);
+        expectDamage("ALICE", 100);
+        // ALICE 的結果記在實際名稱 Alice 之下
+        expectDamage("Alice", 100);
+
+        verify(peopleService, never()).getCombatProfileByName("Alice");
+    }
+
+    @Test
+    public void testSavingOnePersonKeepsTheOtherMemo() {
+        expectDamage("Alice", 100);
+        expectDamage("alice", 1);
+
+        People saved = new People();
+        saved.setName("alice");
+        saved.setVersion(2L);
+        weaponDamageService.onPersonSaved(saved);
+        when(peopleService.getCombatProfileByName("alice")).thenReturn(Mono.just(profile("alice", 2)));
+
+        expectDamage("alice", 2);
+        expectDamage("Alice", 100);
+        verify(peopleService, times(1)).getCombatProfileByName("Alice");
+    }
+
+    private void expectDamage(String name, int damage) {
+        StepVerifier.create(weaponDamageService.calculateDamageWithWeapon(name))
+                .expectNext(damage)
+                .verifyComplete();
+    }
+
+    private static PeopleCombatProfile profile(String name, int physicPower) {
+        PeopleCombatProfile profile = new PeopleCombatProfile();
+        profile.setName(name);
+        profile.setPhysicPower(physicPower);
+        profile.setVersion(1L);
+        return profile;
+    }
+}
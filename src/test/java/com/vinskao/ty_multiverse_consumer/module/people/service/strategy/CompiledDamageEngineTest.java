@@ -0,0 +1,188 @@
+package com.vinskao.ty_multiverse_consumer.module.people.service.strategy;
+
+import com.vinskao.ty_multiverse_consumer.module.people.domain.dto.PeopleCombatProfile;
+import com.vinskao.ty_multiverse_consumer.module.people.domain.vo.People;
+import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 編譯式引擎與裝飾器鏈（參考實作）須對相同的角色與武器算出相同的傷害
+ */
+public class CompiledDamageEngineTest {
+
+    private static final String[] ATTRIBUTES = { "火", "水", "風", "淫", "Light", "light", "" };
+
+    private final DamageStrategy decoratorChain =
+            new StateEffectDamageDecorator(new BonusAttributeDamageDecorator(new DefaultDamageStrategy()));
+    private final CompiledDamageEngine engine = new CompiledDamageEngine();
+
+    @Test
+    public void testNullPowers() {
+        People people = people(null, null, null, "火", "水");
+        List<Weapon> weapons = List.of(
+                weapon(null, null, List.of("火"), List.of("水")),
+                weapon(13, 7, List.of("火"), List.of("水")));
+
+        assertSameDamage(people, weapons);
+        assertSameDamage(people(null, 5, null, null, null), weapons);
+    }
+
+    @Test
+    public void testEmptyAndNullAttributeLists() {
+        List<Weapon> weapons = List.of(
+                weapon(10, 5, null, null),
+                weapon(11, 6, List.of(), List.of()),
+                weapon(12, 7, List.of("火"), null),
+                weapon(13, 8, null, List.of("水")));
+
+        assertSameDamage(people(1, 2, 3, "火", "水"), weapons);
+        assertSameDamage(people(1, 2, 3, null, null), weapons);
+        assertSameDamage(people(1, 2, 3, "風", "風"), weapons);
+    }
+
+    @Test
+    public void testNullElementsInsideAttributeLists() {
+        List<Weapon> weapons = List.of(
+                weapon(10, 5, Arrays.asList(null, "火"), Arrays.asList("水", null)),
+                weapon(21, 9, Collections.singletonList(null), Collections.singletonList(null)));
+
+        assertSameDamage(people(1, 2, 3, "火", "水"), weapons);
+        assertSameDamage(people(1, 2, 3, null, null), weapons);
+    }
+
+    @Test
+    public void testDuplicateAttributesMatchOncePerWeapon() {
+        List<Weapon> weapons = List.of(
+                weapon(10, 5, List.of("火", "火", "火"), List.of("水", "水")),
+                weapon(15, 4, List.of("火"), List.of("水", "水", "水")));
+
+        assertSameDamage(people(1, 2, 3, "火", "水"), weapons);
+    }
+
+    @Test
+    public void testPersonWithoutWeapons() {
+        People people = people(7, 8, 9, "火", "水");
+
+        assertSameDamage(people, List.of());
+        assertSameDamage(people, null);
+        assertEquals(decoratorChain.calculateDamage(people, List.of()),
+                engine.evaluate(people, CompiledWeaponSet.EMPTY));
+    }
+
+    @Test
+    public void testNullPerson() {
+        List<Weapon> weapons = List.of(weapon(10, 5, List.of("火"), List.of("水")));
+
+        assertEquals(-1, decoratorChain.calculateDamage(null, weapons));
+        assertEquals(-1, engine.evaluate((People) null, engine.compile(weapons)));
+        assertEquals(-1, engine.evaluate((PeopleCombatProfile) null, engine.compile(weapons)));
+    }
+
+    @Test
+    public void testStateEffectRoundingAcrossManyWeapons() {
+        // 5% 的基礎傷害不是整數，逐把累加的浮點誤差與四捨五入須與 DoubleStream.sum 相同
+        List<Weapon> weapons = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            weapons.add(weapon(i * 7 + 3, i % 5, List.of("火"), List.of("水")));
+        }
+
+        assertSameDamage(people(1, 1, 1, "火", "水"), weapons);
+        assertSameDamage(people(0, 0, 0, "風", "水"), weapons.subList(0, 9));
+    }
+
+    @Test
+    public void testRandomizedAgainstDecoratorChain() {
+        Random random = new Random(20240611L);
+        for (int round = 0; round < 2000; round++) {
+            List<Weapon> weapons = new ArrayList<>();
+            int weaponCount = random.nextInt(6);
+            for (int i = 0; i < weaponCount; i++) {
+                weapons.add(weapon(randomPower(random), randomPower(random),
+                        randomAttributes(random), randomAttributes(random)));
+            }
+            CompiledWeaponSet compiled = engine.compile(weapons);
+
+            // 同一份編譯結果重複用於多個角色，與 WeaponDamageService 的快取方式相同
+            for (int j = 0; j < 3; j++) {
+                People people = people(randomPower(random), randomPower(random), randomPower(random),
+                        randomAttribute(random), randomAttribute(random));
+                assertEquals(decoratorChain.calculateDamage(people, weapons), engine.evaluate(people, compiled),
+                        () -> "people=" + people + ", weapons=" + weapons);
+                assertEquals(engine.evaluate(people, compiled), engine.evaluate(combatProfile(people), compiled));
+            }
+        }
+    }
+
+    private void assertSameDamage(People people, List<Weapon> weapons) {
+        int expected = decoratorChain.calculateDamage(people, weapons);
+        assertEquals(expected, engine.evaluate(people, engine.compile(weapons)));
+        assertEquals(expected, engine.calculateDamage(people, weapons));
+        assertEquals(expected, engine.evaluate(combatProfile(people), engine.compile(weapons)));
+    }
+
+    private static Integer randomPower(Random random) {
+        return random.nextInt(8) == 0 ? null : random.nextInt(500);
+    }
+
+    private static String randomAttribute(Random random) {
+        return random.nextInt(6) == 0 ? null : ATTRIBUTES[random.nextInt(ATTRIBUTES.length)];
+    }
+
+    private static List<String> randomAttributes(Random random) {
+        int kind = random.nextInt(6);
+        if (kind == 0) {
+            return null;
+        }
+        if (kind == 1) {
+            return List.of();
+        }
+        List<String> attributes = new ArrayList<>();
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            attributes.add(randomAttribute(random));
+        }
+        return attributes;
+    }
+
+    private static People people(Integer physicPower, Integer magicPower, Integer utilityPower, String attributes,
+            String stateAttributes) {
+        People people = new People();
+        people.setName("P");
+        people.setPhysicPower(physicPower);
+        people.setMagicPower(magicPower);
+        people.setUtilityPower(utilityPower);
+        people.setAttributes(attributes);
+        people.setStateAttributes(stateAttributes);
+        return people;
+    }
+
+    private static PeopleCombatProfile combatProfile(People people) {
+        PeopleCombatProfile profile = new PeopleCombatProfile();
+        profile.setName(people.getName());
+        profile.setPhysicPower(people.getPhysicPower());
+        profile.setMagicPower(people.getMagicPower());
+        profile.setUtilityPower(people.getUtilityPower());
+        profile.setAttributes(people.getAttributes());
+        profile.setStateAttributes(people.getStateAttributes());
+        return profile;
+    }
+
+    private static Weapon weapon(Integer baseDamage, Integer bonusDamage, List<String> bonusAttributes,
+            List<String> stateAttributes) {
+        Weapon weapon = new Weapon();
+        weapon.setName("W");
+        weapon.setBaseDamage(baseDamage);
+        weapon.setBonusDamage(bonusDamage);
+        weapon.setBonusAttributes(bonusAttributes);
+        weapon.setStateAttributes(stateAttributes);
+        return weapon;
+    }
+}
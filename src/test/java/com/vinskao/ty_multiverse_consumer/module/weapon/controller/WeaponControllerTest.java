@@ -0,0 +1,74 @@
+package com.vinskao.ty_multiverse_consumer.module.weapon.controller;
+
+import com.vinskao.ty_multiverse_consumer.core.service.ResourceCacheManager;
+import com.vinskao.ty_multiverse_consumer.module.people.service.WeaponAggregateIndex;
+import com.vinskao.ty_multiverse_consumer.module.weapon.domain.vo.Weapon;
+import com.vinskao.ty_multiverse_consumer.module.weapon.service.WeaponService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * REST 寫入武器須與隊列寫入一樣清理快取並廣播失效事件
+ */
+@ExtendWith(MockitoExtension.class)
+public class WeaponControllerTest {
+
+    @Mock
+    private WeaponService weaponService;
+
+    @Mock
+    private WeaponAggregateIndex weaponIndex;
+
+    @Mock
+    private ResourceCacheManager cacheManager;
+
+    @InjectMocks
+    private WeaponController weaponController;
+
+    @BeforeEach
+    public void setUp() {
+        when(cacheManager.evictCache("weapon")).thenReturn(Mono.empty());
+    }
+
+    @Test
+    public void testCreateWeaponEvictsCache() {
+        Weapon weapon = new Weapon();
+        weapon.setName("Excalibur");
+        weapon.setOwner("Alice");
+        when(weaponService.saveWeapon(weapon)).thenReturn(Mono.just(weapon));
+
+        StepVerifier.create(weaponController.createWeapon(weapon))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.OK, response.getStatusCode());
+                    assertSame(weapon, response.getBody());
+                })
+                .verifyComplete();
+
+        InOrder order = inOrder(weaponIndex, cacheManager);
+        order.verify(weaponIndex).onSaved(weapon);
+        order.verify(cacheManager).evictCache("weapon");
+    }
+
+    @Test
+    public void testDeleteWeaponEvictsCache() {
+        when(weaponService.deleteWeapon("Excalibur")).thenReturn(Mono.empty());
+
+        StepVerifier.create(weaponController.deleteWeapon("Excalibur"))
+                .assertNext(response -> assertEquals(HttpStatus.OK, response.getStatusCode()))
+                .verifyComplete();
+
+        verify(weaponIndex).onDeleted("Excalibur");
+        verify(cacheManager).evictCache("weapon");
+    }
+}